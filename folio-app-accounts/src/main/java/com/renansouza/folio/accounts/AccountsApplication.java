@@ -3,9 +3,11 @@ package com.renansouza.folio.accounts;
 import lombok.Generated;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @Generated
 @SpringBootApplication
+@EnableScheduling
 public class AccountsApplication {
 
 	public static void main(String[] args) {
@@ -0,0 +1,187 @@
+package com.renansouza.folio.accounts;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+import com.renansouza.folio.accounts.models.AccountsResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * In-process near cache of every account balance. The listener adds the amounts it commits to the cached balances in
+ * place, so in steady state reads never reach the database. Misses are loaded on demand, and a periodic refresh picks
+ * up the accounts created or deleted, and the amounts applied, outside this instance.
+ * <p>
+ * A balance read from the database already holds every amount committed before the read, so it is only cached when
+ * no write of that account was in flight while reading it, otherwise a commit landing in between would be counted
+ * twice. Such a balance is still returned, just not kept.
+ */
+@Component
+public class AccountsBalances {
+
+    private static final Comparator<AccountsResponse> BY_BROKER = Comparator.comparing(AccountsResponse::broker);
+
+    private final AccountsRepository repository;
+    private final ConcurrentHashMap<UUID, AccountsResponse> balances = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<UUID, Writes> writes = new ConcurrentHashMap<>();
+    private final Counter misses;
+    private final ReentrantLock lock = new ReentrantLock();
+    private volatile boolean loaded;
+
+    public AccountsBalances(AccountsRepository repository, MeterRegistry registry) {
+        this.repository = repository;
+        this.misses = Counter.builder("accounts.balances.misses")
+                .description("Account balances read from the database because they were not cached")
+                .register(registry);
+        Gauge.builder("accounts.balances.cached", balances, ConcurrentHashMap::size)
+                .description("Account balances held in the near cache")
+                .register(registry);
+    }
+
+    public List<AccountsResponse> findAll() {
+        if (!loaded) refresh();
+        return balances.values().stream().sorted(BY_BROKER).toList();
+    }
+
+    public Optional<AccountsResponse> find(UUID id) {
+        var balance = balances.get(id);
+        if (Objects.nonNull(balance)) return Optional.of(balance);
+
+        return load(List.of(id)).stream().findFirst();
+    }
+
+    /**
+     * Returns the balances of the accounts found, in the order of the ids, loading every miss with a single query.
+     */
+    public List<AccountsResponse> find(Collection<UUID> ids) {
+        var found = new HashMap<UUID, AccountsResponse>();
+        var missing = new ArrayList<UUID>();
+        for (var id : new LinkedHashSet<>(ids)) {
+            var balance = balances.get(id);
+            if (Objects.isNull(balance)) {
+                missing.add(id);
+            } else {
+                found.put(id, balance);
+            }
+        }
+        if (!missing.isEmpty()) load(missing).forEach(balance -> found.put(balance.id(), balance));
+
+        return new LinkedHashSet<>(ids).stream()
+                .map(found::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    /**
+     * Adds the amounts to the cached balances once the current transaction commits, or right away outside of one.
+     */
+    public void applyAfterCommit(Map<UUID, BigDecimal> amounts) {
+        amounts.keySet().forEach(this::begin);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(amounts);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    amounts.keySet().forEach(AccountsBalances.this::end);
+                }
+            });
+            return;
+        }
+
+        apply(amounts);
+        amounts.keySet().forEach(this::end);
+    }
+
+    @Scheduled(fixedDelayString = "${application.balances.refreshDelay:60000}")
+    public void refresh() {
+        lock.lock();
+        try {
+            var started = started();
+            var all = repository.findAllBalances();
+            all.forEach(balance -> putIfQuiet(balance, started.getOrDefault(balance.id(), 0L)));
+
+            var ids = all.stream().map(AccountsResponse::id).collect(Collectors.toSet());
+            balances.keySet().retainAll(ids);
+            loaded = true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private List<AccountsResponse> load(Collection<UUID> ids) {
+        misses.increment(ids.size());
+        var started = started();
+        var found = repository.findBalancesByIdIn(ids);
+        found.forEach(balance -> putIfQuiet(balance, started.getOrDefault(balance.id(), 0L)));
+
+        return found;
+    }
+
+    private void apply(Map<UUID, BigDecimal> amounts) {
+        amounts.forEach((id, amount) -> balances.computeIfPresent(id, (key, balance) -> balance.plus(amount)));
+    }
+
+    /**
+     * Runs under the lock {@link #begin(UUID)} takes, so no write can start between the check and the put.
+     */
+    private void putIfQuiet(AccountsResponse balance, long startedBefore) {
+        writes.compute(balance.id(), (id, current) -> {
+            var quiet = Objects.isNull(current) ? startedBefore == 0 : current.pending == 0 && current.started == startedBefore;
+            if (quiet) balances.put(id, balance);
+            return current;
+        });
+    }
+
+    private Map<UUID, Long> started() {
+        var started = new HashMap<UUID, Long>();
+        writes.forEach((id, current) -> started.put(id, current.started));
+        return started;
+    }
+
+    private void begin(UUID id) {
+        writes.compute(id, (key, current) -> {
+            var updated = Objects.isNull(current) ? new Writes() : current;
+            updated.pending++;
+            updated.started++;
+            return updated;
+        });
+    }
+
+    private void end(UUID id) {
+        writes.computeIfPresent(id, (key, current) -> {
+            current.pending--;
+            return current;
+        });
+    }
+
+    /**
+     * Writes of an account currently in flight and started since this instance is up. Only changed inside
+     * {@link ConcurrentHashMap#compute}, which serialises them per account.
+     */
+    private static final class Writes {
+        private volatile int pending;
+        private volatile long started;
+    }
+
+}
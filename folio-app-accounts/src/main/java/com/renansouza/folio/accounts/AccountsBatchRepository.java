@@ -0,0 +1,45 @@
+package com.renansouza.folio.accounts;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.ToIntFunction;
+
+import com.renansouza.folio.accounts.models.AccountsResponse;
+
+public interface AccountsBatchRepository {
+
+    /**
+     * Appends each amount to the ledger of its account using a single JDBC batch and returns how many entries were
+     * appended. Nothing is appended for unknown or deleted accounts.
+     */
+    int appendAmountsById(Map<UUID, BigDecimal> amounts);
+
+    /**
+     * Folds up to {@code limit} of the oldest ledger entries into the account balances and returns how many were folded.
+     */
+    int compactLedger(int limit);
+
+    /**
+     * Adds each amount to one of the balance shards of its account, the one picked by {@code shard}, using a single
+     * JDBC batch and returns how many shards were updated.
+     */
+    int addAmountsToShards(Map<UUID, BigDecimal> amounts, ToIntFunction<UUID> shard);
+
+    /**
+     * Folds every balance shard at or above the shard count of its account into the account balance and returns how
+     * many were folded.
+     */
+    int foldShards();
+
+    Map<UUID, Integer> findShardCounts();
+
+    void updateShardCount(UUID id, int shards);
+
+    List<AccountsResponse> findAllBalances();
+
+    List<AccountsResponse> findBalancesByIdIn(Collection<UUID> ids);
+
+}
@@ -0,0 +1,143 @@
+package com.renansouza.folio.accounts;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.ToIntFunction;
+
+import com.renansouza.folio.accounts.models.AccountsResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+@RequiredArgsConstructor
+class AccountsBatchRepositoryImpl implements AccountsBatchRepository {
+
+    private static final String APPEND_AMOUNT = "INSERT INTO account_ledger (account_id, amount) SELECT id, ? FROM accounts WHERE id = ? AND deleted = false";
+
+    /**
+     * Deletes the oldest entries and adds them to the balances in one statement, so a balance read always sees each
+     * entry either in the snapshot or in the tail. Entries locked by a concurrent compaction are left to it.
+     */
+    private static final String COMPACT = """
+            WITH folded AS (
+                DELETE FROM account_ledger WHERE id IN (
+                    SELECT id FROM account_ledger ORDER BY id LIMIT ? FOR UPDATE SKIP LOCKED)
+                RETURNING account_id, amount
+            ), totals AS (
+                SELECT account_id, SUM(amount) AS amount, COUNT(*) AS entries FROM folded GROUP BY account_id
+            )
+            UPDATE accounts a SET amount = a.amount + t.amount, version = a.version + 1
+            FROM totals t WHERE a.id = t.account_id
+            RETURNING t.entries
+            """;
+
+    private static final String ADD_TO_SHARD = """
+            INSERT INTO account_balance_shards (account_id, shard, amount) SELECT id, ?, ? FROM accounts WHERE id = ? AND deleted = false
+            ON CONFLICT (account_id, shard) DO UPDATE SET amount = account_balance_shards.amount + EXCLUDED.amount
+            """;
+
+    /**
+     * Shards left over by a shrink, or written by a consumer that had not seen it yet, are folded on the next run.
+     */
+    private static final String FOLD_SHARDS = """
+            WITH folded AS (
+                DELETE FROM account_balance_shards s USING accounts a
+                WHERE s.account_id = a.id AND s.shard >= a.shards
+                RETURNING s.account_id, s.amount
+            ), totals AS (
+                SELECT account_id, SUM(amount) AS amount, COUNT(*) AS shards FROM folded GROUP BY account_id
+            )
+            UPDATE accounts a SET amount = a.amount + t.amount, version = a.version + 1
+            FROM totals t WHERE a.id = t.account_id
+            RETURNING t.shards
+            """;
+
+    private static final String SHARD_COUNTS = "SELECT id, shards FROM accounts WHERE shards > 0 AND deleted = false";
+    private static final String UPDATE_SHARD_COUNT = "UPDATE accounts SET shards = ? WHERE id = ?";
+
+    /**
+     * The balance is the last snapshot plus the ledger entries not folded yet and the balance shards, read in a single
+     * statement.
+     */
+    private static final String BALANCES = """
+            SELECT a.id, a.broker, a.amount
+                + COALESCE((SELECT SUM(l.amount) FROM account_ledger l WHERE l.account_id = a.id), 0)
+                + COALESCE((SELECT SUM(s.amount) FROM account_balance_shards s WHERE s.account_id = a.id), 0) AS amount
+            FROM accounts a WHERE a.deleted = false
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public int appendAmountsById(Map<UUID, BigDecimal> amounts) {
+        var arguments = new ArrayList<Object[]>(amounts.size());
+        amounts.forEach((id, amount) -> arguments.add(new Object[]{amount, id}));
+
+        return Arrays.stream(jdbcTemplate.batchUpdate(APPEND_AMOUNT, arguments))
+                .map(count -> Math.max(count, 0))
+                .sum();
+    }
+
+    @Override
+    public int compactLedger(int limit) {
+        return jdbcTemplate.queryForList(COMPACT, Long.class, limit).stream()
+                .mapToInt(Long::intValue)
+                .sum();
+    }
+
+    @Override
+    public int addAmountsToShards(Map<UUID, BigDecimal> amounts, ToIntFunction<UUID> shard) {
+        var arguments = new ArrayList<Object[]>(amounts.size());
+        amounts.forEach((id, amount) -> arguments.add(new Object[]{shard.applyAsInt(id), amount, id}));
+
+        return Arrays.stream(jdbcTemplate.batchUpdate(ADD_TO_SHARD, arguments))
+                .map(count -> Math.max(count, 0))
+                .sum();
+    }
+
+    @Override
+    public int foldShards() {
+        return jdbcTemplate.queryForList(FOLD_SHARDS, Long.class).stream()
+                .mapToInt(Long::intValue)
+                .sum();
+    }
+
+    @Override
+    public Map<UUID, Integer> findShardCounts() {
+        var counts = new HashMap<UUID, Integer>();
+        jdbcTemplate.query(SHARD_COUNTS, rs -> {
+            counts.put(rs.getObject("id", UUID.class), rs.getInt("shards"));
+        });
+
+        return counts;
+    }
+
+    @Override
+    public void updateShardCount(UUID id, int shards) {
+        jdbcTemplate.update(UPDATE_SHARD_COUNT, shards, id);
+    }
+
+    @Override
+    public List<AccountsResponse> findAllBalances() {
+        return jdbcTemplate.query(BALANCES, AccountsBatchRepositoryImpl::balance);
+    }
+
+    @Override
+    public List<AccountsResponse> findBalancesByIdIn(Collection<UUID> ids) {
+        return jdbcTemplate.query(BALANCES + " AND a.id = ANY(?)",
+                statement -> statement.setArray(1, statement.getConnection().createArrayOf("uuid", ids.toArray())),
+                AccountsBatchRepositoryImpl::balance);
+    }
+
+    private static AccountsResponse balance(ResultSet rs, int row) throws SQLException {
+        return new AccountsResponse(rs.getObject("id", UUID.class), rs.getString("broker"), rs.getBigDecimal("amount"));
+    }
+
+}
@@ -0,0 +1,78 @@
+package com.renansouza.folio.accounts;
+
+import java.util.List;
+import java.util.UUID;
+
+import com.renansouza.folio.accounts.models.AccountsResponse;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/v1/accounts")
+@Tag(name = "accounts", description = "Account balances APIs")
+@ApiResponses(value = {
+        @ApiResponse(responseCode = "400", description = "Payload invalid"),
+        @ApiResponse(responseCode = "404", description = "Account not found"),
+        @ApiResponse(responseCode = "500", description = "Something went wrong"),
+})
+public class AccountsController {
+
+    private final AccountsService service;
+
+    @Operation(summary = "Get the balance of every account")
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Found one or more accounts",
+                    content = { @Content(schema = @Schema(implementation = AccountsResponse[].class)) }),
+            @ApiResponse(
+                    responseCode = "204",
+                    description = "Found zero accounts")
+    })
+    @GetMapping
+    ResponseEntity<List<AccountsResponse>> getAccounts() {
+        var accounts = service.findAll();
+        if (accounts.isEmpty()) return ResponseEntity.noContent().build();
+        return ResponseEntity.ok(accounts);
+    }
+
+    @Operation(summary = "Get the balance of an account")
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Found the account",
+                    content = { @Content(schema = @Schema(implementation = AccountsResponse.class)) })
+    })
+    @GetMapping("/{id}")
+    ResponseEntity<AccountsResponse> getAccount(@PathVariable UUID id) {
+        return ResponseEntity.ok(service.find(id));
+    }
+
+    @Operation(
+            summary = "Get the balances of several accounts",
+            description = "Takes a JSON array of account ids and returns the accounts found, in the same order. Unknown ids are left out.")
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Found zero or more accounts",
+                    content = { @Content(schema = @Schema(implementation = AccountsResponse[].class)) })
+    })
+    @PostMapping("/balances")
+    ResponseEntity<List<AccountsResponse>> getBalances(@RequestBody List<UUID> ids) {
+        return ResponseEntity.ok(service.find(ids));
+    }
+
+}
@@ -0,0 +1,60 @@
+package com.renansouza.folio.accounts;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+import com.renansouza.folio.accounts.config.AccountsNotificationConverter;
+import com.renansouza.folio.accounts.models.AccountsNotification;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.messaging.Message;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Measures how long a transaction takes to show up in the balances, from the commit time the transactions service
+ * stamps on each notification to the commit that applies it here. Notifications published before the stamp existed
+ * are skipped.
+ */
+@Component
+public class AccountsLatency {
+
+    private final Timer latency;
+
+    public AccountsLatency(MeterRegistry registry) {
+        this.latency = Timer.builder("accounts.notifications.latency")
+                .description("Time from the transaction commit to its amount being applied to the balance")
+                .register(registry);
+    }
+
+    /**
+     * Records the latency of the notifications once the current transaction commits, or right away outside of one.
+     */
+    public void recordAfterCommit(List<Message<AccountsNotification>> messages) {
+        var committedAt = messages.stream()
+                .map(message -> message.getHeaders().get(AccountsNotificationConverter.COMMITTED_AT, Long.class))
+                .filter(Objects::nonNull)
+                .toList();
+        if (committedAt.isEmpty()) return;
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    record(committedAt);
+                }
+            });
+            return;
+        }
+
+        record(committedAt);
+    }
+
+    private void record(List<Long> committedAt) {
+        var now = System.currentTimeMillis();
+        committedAt.forEach(at -> latency.record(Math.max(0, now - at), TimeUnit.MILLISECONDS));
+    }
+
+}
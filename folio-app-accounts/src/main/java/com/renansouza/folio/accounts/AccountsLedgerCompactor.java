@@ -0,0 +1,50 @@
+package com.renansouza.folio.accounts;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Folds the account_ledger tail into the balance snapshots in the accounts table, so the consumers only ever insert
+ * ledger entries and the account rows are locked once per compaction instead of once per notification.
+ */
+@Slf4j
+@Component
+public class AccountsLedgerCompactor {
+
+    private final AccountsRepository repository;
+    private final int batchSize;
+    private final Counter folded;
+
+    public AccountsLedgerCompactor(AccountsRepository repository,
+                                   MeterRegistry registry,
+                                   @Value("${application.ledger.compactionBatchSize:10000}") int batchSize) {
+        this.repository = repository;
+        this.batchSize = batchSize;
+        this.folded = Counter.builder("accounts.ledger.folded")
+                .description("Ledger entries folded into the account balances")
+                .register(registry);
+    }
+
+    /**
+     * Folds batches until the ledger holds less than a batch. Each batch commits on its own, so a long backlog never
+     * keeps the account rows locked for long.
+     */
+    @Scheduled(fixedDelayString = "${application.ledger.compactionDelay:1000}")
+    public void compact() {
+        try {
+            int count;
+            do {
+                count = repository.compactLedger(batchSize);
+                folded.increment(count);
+            } while (count >= batchSize);
+        } catch (DataAccessException ex) {
+            log.warn("Failed to compact the account ledger", ex);
+        }
+    }
+
+}
@@ -1,20 +1,85 @@
 package com.renansouza.folio.accounts;
 
+import java.util.ArrayList;
+import java.util.List;
+
+import com.renansouza.folio.accounts.config.RabbitMQConfig;
 import com.renansouza.folio.accounts.models.AccountsNotification;
-import lombok.RequiredArgsConstructor;
-import org.springframework.amqp.rabbit.annotation.RabbitListener;
-import org.springframework.messaging.handler.annotation.Payload;
+import io.micrometer.core.annotation.Timed;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.AmqpTemplate;
+import org.springframework.amqp.core.BatchMessageListener;
+import org.springframework.amqp.support.SimpleAmqpHeaderMapper;
+import org.springframework.amqp.support.converter.MessageConversionException;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.support.MessageBuilder;
 import org.springframework.stereotype.Component;
 
+/**
+ * Applies each batch of notifications read from an accounts queue. The queues it listens to are picked by
+ * {@link AccountsPartitionListeners}. A message that cannot be read is moved to the dead-letter queue on its own, so
+ * it never takes the rest of its batch down with it.
+ */
+@Slf4j
 @Component
-@RequiredArgsConstructor
-public class AccountsListener {
+public class AccountsListener implements BatchMessageListener {
+
+    private final SimpleAmqpHeaderMapper headerMapper = new SimpleAmqpHeaderMapper();
 
     private final AccountsService service;
+    private final MessageConverter messageConverter;
+    private final AmqpTemplate template;
+    private final String deadLetterQueue;
+
+    public AccountsListener(AccountsService service,
+                            MessageConverter messageConverter,
+                            AmqpTemplate template,
+                            @Value("${rabbitmq.queue-name:accounts}") String queueName) {
+        this.service = service;
+        this.messageConverter = messageConverter;
+        this.template = template;
+        this.deadLetterQueue = queueName + RabbitMQConfig.DEAD_LETTER_SUFFIX;
+    }
+
+    @Override
+    @Timed("accounts.listener")
+    public void onMessageBatch(List<org.springframework.amqp.core.Message> messages) {
+        var notifications = new ArrayList<Message<AccountsNotification>>(messages.size());
+        for (var message : messages) {
+            try {
+                notifications.add(toNotification(message));
+            } catch (MessageConversionException | ClassCastException ex) {
+                deadLetter(message, ex);
+            }
+        }
+
+        if (!notifications.isEmpty()) getAccountUpdates(notifications);
+    }
+
+    void getAccountUpdates(List<Message<AccountsNotification>> messages) {
+        service.updateAccountAmounts(messages);
+    }
+
+    /**
+     * JSON notifications carry the publisher's class name, so they are read as the local one instead.
+     */
+    private Message<AccountsNotification> toNotification(org.springframework.amqp.core.Message message) {
+        message.getMessageProperties().setInferredArgumentType(AccountsNotification.class);
+        var notification = (AccountsNotification) messageConverter.fromMessage(message);
+
+        return MessageBuilder.withPayload(notification)
+                .copyHeaders(headerMapper.toHeaders(message.getMessageProperties()))
+                .build();
+    }
 
-    @RabbitListener(queues = "${rabbitmq.queue-name:accounts}")
-    void getAccountUpdate(@Payload AccountsNotification notification) {
-        service.updateAccountAmount(notification);
+    /**
+     * Parks the message before the batch is acknowledged. If that fails the whole batch is redelivered instead.
+     */
+    private void deadLetter(org.springframework.amqp.core.Message message, RuntimeException cause) {
+        log.error("Moving unreadable account notification {} to {}", message.getMessageProperties().getMessageId(), deadLetterQueue, cause);
+        template.send(deadLetterQueue, message);
     }
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,124 @@
+package com.renansouza.folio.accounts;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.locks.ReentrantLock;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.core.AmqpAdmin;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerEndpoint;
+import org.springframework.amqp.rabbit.listener.RabbitListenerEndpointRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Starts one single-consumer container per accounts queue, so every partition is read in order while partitions are
+ * processed in parallel. Besides the configured partitions it drains the queue used before partitioning and any
+ * partition left over from a larger count, so changing {@code rabbitmq.partitions} never strands messages. Queues are
+ * looked up again every {@code rabbitmq.partition-discovery-delay} milliseconds to pick up partitions added since.
+ * The messages waiting in each queue are exported as the {@code accounts.queue.depth} gauge.
+ */
+@Slf4j
+@Component
+public class AccountsPartitionListeners {
+
+    static final String ID_PREFIX = "accounts-listener-";
+
+    private static final int MAX_PARTITIONS = 1024;
+
+    private final RabbitListenerEndpointRegistry registry;
+    private final SimpleRabbitListenerContainerFactory factory;
+    private final AmqpAdmin admin;
+    private final AccountsListener listener;
+    private final MeterRegistry meterRegistry;
+    private final String queueName;
+    private final int partitions;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    public AccountsPartitionListeners(RabbitListenerEndpointRegistry registry,
+                                      @Qualifier("batchListenerContainerFactory") SimpleRabbitListenerContainerFactory factory,
+                                      AmqpAdmin admin,
+                                      AccountsListener listener,
+                                      MeterRegistry meterRegistry,
+                                      @Value("${rabbitmq.queue-name:accounts}") String queueName,
+                                      @Value("${rabbitmq.partitions:4}") int partitions) {
+        this.registry = registry;
+        this.factory = factory;
+        this.admin = admin;
+        this.listener = listener;
+        this.meterRegistry = meterRegistry;
+        this.queueName = queueName;
+        this.partitions = partitions;
+    }
+
+    @Scheduled(fixedDelayString = "${rabbitmq.partition-discovery-delay:60000}")
+    public void discover() {
+        lock.lock();
+        try {
+            var queues = new ArrayList<String>();
+            for (var partition = 0; partition < partitions; partition++) {
+                queues.add(queueName + "." + partition);
+            }
+            try {
+                queues.addAll(leftovers());
+            } catch (AmqpException ex) {
+                log.warn("Failed to look up leftover accounts queues", ex);
+            }
+
+            queues.stream()
+                    .filter(queue -> Objects.isNull(registry.getListenerContainer(ID_PREFIX + queue)))
+                    .forEach(this::listen);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * The queue used before partitioning, and the partition queues past the configured count up to the first missing.
+     */
+    private List<String> leftovers() {
+        var queues = new ArrayList<String>();
+        if (exists(queueName)) queues.add(queueName);
+        for (var partition = partitions; partition < MAX_PARTITIONS && exists(queueName + "." + partition); partition++) {
+            queues.add(queueName + "." + partition);
+        }
+
+        return queues;
+    }
+
+    private boolean exists(String queue) {
+        return Objects.nonNull(admin.getQueueInfo(queue));
+    }
+
+    private double depth(String queue) {
+        try {
+            var info = admin.getQueueInfo(queue);
+            return Objects.isNull(info) ? Double.NaN : info.getMessageCount();
+        } catch (AmqpException ex) {
+            return Double.NaN;
+        }
+    }
+
+    private void listen(String queue) {
+        var endpoint = new SimpleRabbitListenerEndpoint();
+        endpoint.setId(ID_PREFIX + queue);
+        endpoint.setQueueNames(queue);
+        endpoint.setConcurrency("1");
+        endpoint.setBatchListener(true);
+        endpoint.setMessageListener(listener);
+        registry.registerListenerContainer(endpoint, factory, true);
+        Gauge.builder("accounts.queue.depth", () -> depth(queue))
+                .tag("queue", queue)
+                .description("Account notifications waiting in the queue")
+                .register(meterRegistry);
+        log.info("Listening to accounts queue {}", queue);
+    }
+
+}
@@ -1,17 +1,99 @@
 package com.renansouza.folio.accounts;
 
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.UUID;
+
+import com.renansouza.folio.accounts.exceptions.AccountNotFoundException;
+import com.renansouza.folio.accounts.exceptions.InvalidBalancesRequestException;
 import com.renansouza.folio.accounts.models.AccountsNotification;
-import lombok.RequiredArgsConstructor;
+import com.renansouza.folio.accounts.models.AccountsResponse;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.Message;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
-@RequiredArgsConstructor
 public class AccountsService {
 
     private final AccountsRepository repository;
+    private final ProcessedMessages processed;
+    private final AccountsBalances balances;
+    private final AccountsShards shards;
+    private final AccountsLatency latency;
+    private final int maxLookupSize;
+    private final Counter consumed;
+    private final Counter duplicates;
+    private final Counter appended;
+
+    public AccountsService(AccountsRepository repository,
+                           ProcessedMessages processed,
+                           AccountsBalances balances,
+                           AccountsShards shards,
+                           AccountsLatency latency,
+                           MeterRegistry registry,
+                           @Value("${application.balances.maxLookupSize:1000}") int maxLookupSize) {
+        this.repository = repository;
+        this.processed = processed;
+        this.balances = balances;
+        this.shards = shards;
+        this.latency = latency;
+        this.maxLookupSize = maxLookupSize;
+        this.consumed = Counter.builder("accounts.notifications.consumed")
+                .description("Account notifications applied to the balances")
+                .register(registry);
+        this.duplicates = Counter.builder("accounts.notifications.duplicated")
+                .description("Account notifications dropped because they were already applied")
+                .register(registry);
+        this.appended = Counter.builder("accounts.ledger.appended")
+                .description("Ledger entries appended while applying the notifications")
+                .register(registry);
+    }
+
+    /**
+     * Drops the notifications already applied, sums the remaining ones per account and appends each sum to the account
+     * ledger. Appending never locks the account row, so concurrent consumers do not wait on each other even when they
+     * all update the same account; {@link AccountsLedgerCompactor} folds the entries into the balances later. The
+     * accounts {@link AccountsShards} marks as hot add their sums to a balance shard in place instead. The sums are
+     * added to the near cache once the transaction commits.
+     */
+    @Timed("accounts.service")
+    @Transactional
+    void updateAccountAmounts(List<Message<AccountsNotification>> messages) {
+        var notifications = processed.record(messages);
+        duplicates.increment(messages.size() - notifications.size());
+        if (notifications.isEmpty()) return;
+
+        var amounts = new TreeMap<UUID, BigDecimal>();
+        notifications.forEach(message -> amounts.merge(message.getPayload().account(), message.getPayload().amount(), BigDecimal::add));
+
+        var ledger = new TreeMap<UUID, BigDecimal>();
+        var sharded = new TreeMap<UUID, BigDecimal>();
+        amounts.forEach((account, amount) -> (shards.isSharded(account) ? sharded : ledger).put(account, amount));
+
+        if (!ledger.isEmpty()) appended.increment(repository.appendAmountsById(ledger));
+        if (!sharded.isEmpty()) repository.addAmountsToShards(sharded, shards::shardOf);
+        shards.record(amounts.keySet());
+        consumed.increment(notifications.size());
+        balances.applyAfterCommit(amounts);
+        latency.recordAfterCommit(notifications);
+    }
+
+    List<AccountsResponse> findAll() {
+        return balances.findAll();
+    }
+
+    AccountsResponse find(UUID id) {
+        return balances.find(id).orElseThrow(() -> new AccountNotFoundException(id));
+    }
 
-    void updateAccountAmount(AccountsNotification notification) {
-        repository.updateAmountById(notification.account(), notification.amount());
+    List<AccountsResponse> find(List<UUID> ids) {
+        if (ids.size() > maxLookupSize) throw new InvalidBalancesRequestException(ids.size(), maxLookupSize);
+        return balances.find(ids);
     }
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,157 @@
+package com.renansouza.folio.accounts;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Picks which accounts update a set of balance shards in place instead of appending to the ledger. An account whose
+ * updates per second reach {@code hotRate} gets one shard per {@code ratePerShard} updates per second, up to
+ * {@code maxShards}, and is collapsed back into its balance once the rate falls under half of {@code hotRate}.
+ * Successive updates of an account take its shards in turn, so no single row takes every update of the hottest
+ * accounts, and they stop churning ledger rows.
+ *
+ * <p>The shard is picked round-robin rather than by hashing the message id or the thread. Every accounts queue has a
+ * single active consumer, so all the updates of an account arrive on the same listener thread and a thread hash
+ * would always pick the same shard. The notification sums of a batch are merged per account, so there is no single
+ * message id to hash either, and a counter spreads the updates evenly where a hash only would on average.
+ *
+ * <p>Each instance decides from the update rates it observed itself, and only keeps the accounts it found hot in
+ * memory. The shard counts are stored on the accounts and read back on every run, but an instance that receives no
+ * updates for an account, because another instance consumes its partition, sees it as cold and collapses it; the
+ * consumer shards it again on its next run. Meanwhile that account is ledger-appended on one instance and sharded on
+ * the other. Mixing both paths is safe for {@code BALANCES}: the balance is the account amount plus every ledger entry
+ * and every shard, whichever path wrote them. Compacting the ledger and folding the shards past the stored count both
+ * move amounts into the account in a single statement, so a read sees each amount exactly once. The cost is extra
+ * folding, not a wrong balance.
+ */
+@Slf4j
+@Component
+public class AccountsShards {
+
+    static final int UNSHARDED = 0;
+
+    private static final int MIN_SHARDS = 2;
+
+    private final AccountsRepository repository;
+    private final boolean enabled;
+    private final double hotRate;
+    private final double ratePerShard;
+    private final int maxShards;
+
+    private final ConcurrentHashMap<UUID, Integer> shards = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<UUID, LongAdder> updates = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<UUID, AtomicInteger> turns = new ConcurrentHashMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private long windowStart = System.nanoTime();
+
+    public AccountsShards(AccountsRepository repository,
+                          MeterRegistry registry,
+                          @Value("${application.shards.enabled:false}") boolean enabled,
+                          @Value("${application.shards.hotRate:50}") double hotRate,
+                          @Value("${application.shards.ratePerShard:25}") double ratePerShard,
+                          @Value("${application.shards.maxShards:16}") int maxShards) {
+        this.repository = repository;
+        this.enabled = enabled;
+        this.hotRate = hotRate;
+        this.ratePerShard = ratePerShard;
+        this.maxShards = maxShards;
+        Gauge.builder("accounts.shards.sharded", shards, ConcurrentHashMap::size)
+                .description("Accounts whose updates are spread over balance shards")
+                .register(registry);
+    }
+
+    /**
+     * Counts one update of each account, which the next {@link #tune()} turns into a rate.
+     */
+    public void record(Collection<UUID> accounts) {
+        if (!enabled) return;
+        accounts.forEach(account -> updates.computeIfAbsent(account, key -> new LongAdder()).increment());
+    }
+
+    public boolean isSharded(UUID account) {
+        return shards.containsKey(account);
+    }
+
+    /**
+     * The shard the next update of the account goes to, round-robin over its shards.
+     */
+    public int shardOf(UUID account) {
+        var count = shards.getOrDefault(account, 1);
+        return Math.floorMod(turns.computeIfAbsent(account, key -> new AtomicInteger()).getAndIncrement(), count);
+    }
+
+    /**
+     * Resizes the shards of every account from the update rate observed since the last run, then folds the shards past
+     * the new counts into the balances.
+     */
+    @Scheduled(fixedDelayString = "${application.shards.tuneDelay:10000}")
+    public void tune() {
+        lock.lock();
+        try {
+            if (!enabled) return;
+
+            var now = System.nanoTime();
+            var seconds = Math.max((now - windowStart) / 1_000_000_000d, 1e-3);
+            windowStart = now;
+
+            var counts = new HashMap<UUID, Long>();
+            updates.forEach((account, adder) -> {
+                var count = adder.sumThenReset();
+                if (count == 0) {
+                    updates.remove(account, adder);
+                } else {
+                    counts.put(account, count);
+                }
+            });
+
+            try {
+                var current = repository.findShardCounts();
+                var resized = new HashMap<UUID, Integer>();
+                var accounts = new HashSet<>(current.keySet());
+                accounts.addAll(counts.keySet());
+                for (var account : accounts) {
+                    var before = current.getOrDefault(account, UNSHARDED);
+                    var after = desired(counts.getOrDefault(account, 0L) / seconds, before);
+                    if (after != before) {
+                        repository.updateShardCount(account, after);
+                        log.info("Account {} moved from {} to {} balance shards", account, before, after);
+                    }
+                    if (after != UNSHARDED) resized.put(account, after);
+                }
+
+                shards.keySet().retainAll(resized.keySet());
+                turns.keySet().retainAll(resized.keySet());
+                shards.putAll(resized);
+                repository.foldShards();
+            } catch (DataAccessException ex) {
+                log.warn("Failed to tune the account balance shards", ex);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int desired(double rate, int current) {
+        if (rate >= hotRate) {
+            return (int) Math.min(maxShards, Math.max(MIN_SHARDS, Math.ceil(rate / ratePerShard)));
+        }
+        if (current != UNSHARDED && rate >= hotRate / 2) return current;
+
+        return UNSHARDED;
+    }
+
+}
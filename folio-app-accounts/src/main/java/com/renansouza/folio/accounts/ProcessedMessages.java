@@ -0,0 +1,96 @@
+package com.renansouza.folio.accounts;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.amqp.support.AmqpHeaders;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.messaging.Message;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Ids of the messages already applied, kept in the processed_messages table with a bounded in-memory cache in front of
+ * it, so most redeliveries are dropped without touching the database.
+ */
+@Component
+public class ProcessedMessages {
+
+    private static final String INSERT = "INSERT INTO processed_messages (id, created_at) VALUES (?, ?) ON CONFLICT DO NOTHING";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Cache<String, Boolean> recent;
+
+    public ProcessedMessages(JdbcTemplate jdbcTemplate,
+                             @Value("${application.deduplication.cacheMaxSize:100000}") long cacheMaxSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.recent = Caffeine.newBuilder().maximumSize(cacheMaxSize).build();
+    }
+
+    /**
+     * Records the messages as processed and returns the ones seen for the first time. The ids are inserted in the
+     * caller's transaction, so they are only kept when the balance updates commit too, and a concurrent consumer
+     * holding the same id waits on the primary key until then. Messages without an id are always returned.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public <T> List<Message<T>> record(List<Message<T>> messages) {
+        var fresh = new ArrayList<Message<T>>(messages.size());
+        var candidates = new TreeMap<String, Message<T>>();
+        for (var message : messages) {
+            var id = message.getHeaders().get(AmqpHeaders.MESSAGE_ID, String.class);
+            if (Objects.isNull(id)) {
+                fresh.add(message);
+            } else if (Objects.isNull(recent.getIfPresent(id))) {
+                candidates.putIfAbsent(id, message);
+            }
+        }
+        if (candidates.isEmpty()) return fresh;
+
+        var inserted = insert(candidates);
+        fresh.addAll(inserted.values());
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                candidates.keySet().forEach(id -> recent.put(id, Boolean.TRUE));
+            }
+        });
+
+        return fresh;
+    }
+
+    private <T> Map<String, Message<T>> insert(TreeMap<String, Message<T>> candidates) {
+        var arguments = new ArrayList<Object[]>(candidates.size());
+        candidates.forEach((id, message) -> arguments.add(new Object[]{id, createdAt(message)}));
+
+        var counts = jdbcTemplate.batchUpdate(INSERT, arguments);
+        var inserted = new TreeMap<String, Message<T>>();
+        var index = 0;
+        for (var entry : candidates.entrySet()) {
+            if (counts[index++] != 0) inserted.put(entry.getKey(), entry.getValue());
+        }
+
+        return inserted;
+    }
+
+    /**
+     * The publish timestamp is part of the key, so a redelivery lands on the same partition as the original delivery.
+     */
+    private static Timestamp createdAt(Message<?> message) {
+        var timestamp = message.getHeaders().get(AmqpHeaders.TIMESTAMP, Date.class);
+        return Objects.isNull(timestamp) ? Timestamp.from(Instant.now()) : new Timestamp(timestamp.getTime());
+    }
+
+}
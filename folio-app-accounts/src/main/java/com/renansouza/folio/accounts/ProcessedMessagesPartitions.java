@@ -0,0 +1,92 @@
+package com.renansouza.folio.accounts;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.regex.Pattern;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps one processed_messages partition per day: creates the partitions for the next days ahead of time and drops the
+ * ones past the retention, which is much cheaper than deleting the expired ids row by row.
+ */
+@Slf4j
+@Component
+public class ProcessedMessagesPartitions {
+
+    private static final String TABLE = "processed_messages";
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.BASIC_ISO_DATE;
+    private static final Pattern PARTITION = Pattern.compile(TABLE + "_(\\d{8})");
+
+    private static final String CREATE = "CREATE TABLE IF NOT EXISTS %s PARTITION OF " + TABLE + " FOR VALUES FROM ('%s') TO ('%s')";
+    private static final String DROP = "DROP TABLE IF EXISTS %s";
+    private static final String PARTITIONS = """
+            SELECT c.relname FROM pg_inherits i
+            JOIN pg_class c ON c.oid = i.inhrelid
+            JOIN pg_class p ON p.oid = i.inhparent
+            WHERE p.relname = ?
+            """;
+    private static final String DELETE_DEFAULT = "DELETE FROM " + TABLE + "_default WHERE created_at < ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Duration retention;
+    private final int daysAhead;
+
+    public ProcessedMessagesPartitions(JdbcTemplate jdbcTemplate,
+                                       @Value("${application.deduplication.retention:604800000}") long retention,
+                                       @Value("${application.deduplication.daysAhead:3}") int daysAhead) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.retention = Duration.ofMillis(retention);
+        this.daysAhead = daysAhead;
+    }
+
+    @Scheduled(fixedDelayString = "${application.deduplication.maintenanceDelay:3600000}")
+    public void maintain() {
+        var now = Instant.now();
+        var today = LocalDate.ofInstant(now, ZoneOffset.UTC);
+        for (int day = 0; day <= daysAhead; day++) {
+            create(today.plusDays(day));
+        }
+
+        var cutoff = now.minus(retention);
+        var lastExpired = LocalDate.ofInstant(cutoff, ZoneOffset.UTC).minusDays(1);
+        for (var partition : jdbcTemplate.queryForList(PARTITIONS, String.class, TABLE)) {
+            var matcher = PARTITION.matcher(partition);
+            if (matcher.matches() && !LocalDate.parse(matcher.group(1), SUFFIX).isAfter(lastExpired)) {
+                jdbcTemplate.execute(DROP.formatted(partition));
+            }
+        }
+
+        jdbcTemplate.update(DELETE_DEFAULT, Timestamp.from(cutoff));
+    }
+
+    /**
+     * Postgres refuses a new partition when the default one already holds rows in its range, in which case those ids
+     * simply stay in the default partition until they expire.
+     */
+    private void create(LocalDate day) {
+        try {
+            jdbcTemplate.execute(CREATE.formatted(name(day), start(day), start(day.plusDays(1))));
+        } catch (DataAccessException ex) {
+            log.warn("Failed to create the {} partition", name(day), ex);
+        }
+    }
+
+    static String name(LocalDate day) {
+        return TABLE + "_" + day.format(SUFFIX);
+    }
+
+    private static String start(LocalDate day) {
+        return day.atStartOfDay(ZoneOffset.UTC).toOffsetDateTime().toString();
+    }
+
+}
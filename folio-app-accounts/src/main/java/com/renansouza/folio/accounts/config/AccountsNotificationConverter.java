@@ -0,0 +1,72 @@
+package com.renansouza.folio.accounts.config;
+
+import java.math.BigDecimal;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+import com.renansouza.folio.accounts.models.AccountsNotification;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.MessageConversionException;
+import org.springframework.amqp.support.converter.MessageConverter;
+
+/**
+ * Reads {@link AccountsNotification} from the compact binary layout published by the transactions service, and any
+ * other content type, such as JSON notifications still in the queue, through the delegate.
+ * <p>
+ * Layout, big-endian: the format version (1 byte), the account key length (2 bytes) followed by its UTF-8 bytes, and
+ * the signed amount in cents (8 bytes).
+ */
+public class AccountsNotificationConverter implements MessageConverter {
+
+    public static final String CONTENT_TYPE = "application/vnd.folio.accounts-notification";
+    public static final byte VERSION = 1;
+
+    /**
+     * Epoch milliseconds the transaction was committed at, stamped by the transactions service.
+     */
+    public static final String COMMITTED_AT = "x-committed-at";
+
+    private static final int SCALE = 2;
+
+    private final MessageConverter delegate;
+
+    public AccountsNotificationConverter(MessageConverter delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public Message toMessage(Object object, MessageProperties messageProperties) {
+        return delegate.toMessage(object, messageProperties);
+    }
+
+    @Override
+    public Object fromMessage(Message message) {
+        if (!CONTENT_TYPE.equals(message.getMessageProperties().getContentType())) {
+            return delegate.fromMessage(message);
+        }
+
+        return decode(message.getBody());
+    }
+
+    public static AccountsNotification decode(byte[] body) {
+        var buffer = ByteBuffer.wrap(body);
+        try {
+            var version = buffer.get();
+            if (version != VERSION) {
+                throw new MessageConversionException("Unsupported notification version " + version);
+            }
+
+            var account = new byte[Short.toUnsignedInt(buffer.getShort())];
+            buffer.get(account);
+
+            return new AccountsNotification(UUID.fromString(new String(account, StandardCharsets.UTF_8)),
+                    BigDecimal.valueOf(buffer.getLong(), SCALE));
+        } catch (BufferUnderflowException | IllegalArgumentException ex) {
+            throw new MessageConversionException("Malformed notification of " + body.length + " bytes", ex);
+        }
+    }
+
+}
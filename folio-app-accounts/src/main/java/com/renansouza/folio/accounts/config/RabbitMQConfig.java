@@ -1,8 +1,18 @@
 package com.renansouza.folio.accounts.config;
 
+import java.util.ArrayList;
+import java.util.Map;
+
 import lombok.Generated;
+import org.springframework.amqp.core.Declarable;
+import org.springframework.amqp.core.Declarables;
+import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
 import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
 import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.amqp.SimpleRabbitListenerContainerFactoryConfigurer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -10,9 +20,72 @@ import org.springframework.context.annotation.Configuration;
 @Configuration
 public class RabbitMQConfig {
 
+    /**
+     * Lets one consumer at a time read a partition, so the deltas of an account are applied in the order published
+     * even with several instances running. Must match the arguments the transactions service declares.
+     */
+    public static final Map<String, Object> PARTITION_ARGUMENTS = Map.of("x-single-active-consumer", true);
+
+    /**
+     * Appended to the queue name to get the queue where notifications that cannot be read are parked.
+     */
+    public static final String DEAD_LETTER_SUFFIX = ".dead-letter";
+
+    @Value("${rabbitmq.queue-name:accounts}")
+    private String queueName;
+
+    @Value("${rabbitmq.partitions:4}")
+    private int partitions;
+
+    @Value("${rabbitmq.batch.size:100}")
+    private int batchSize;
+
+    @Value("${rabbitmq.batch.receive-timeout:50}")
+    private long receiveTimeout;
+
+    /**
+     * Reads the binary account notifications and falls back to JSON for anything else.
+     */
     @Bean
     MessageConverter messageConverter(){
-        return new Jackson2JsonMessageConverter();
+        return new AccountsNotificationConverter(new Jackson2JsonMessageConverter());
+    }
+
+    /**
+     * Declares the partition queues up front so their listeners can start before the transactions service binds them.
+     */
+    @Bean
+    Declarables partitionQueues() {
+        var queues = new ArrayList<Declarable>();
+        for (var partition = 0; partition < partitions; partition++) {
+            queues.add(new Queue(queueName + "." + partition, true, false, false, PARTITION_ARGUMENTS));
+        }
+
+        return new Declarables(queues);
+    }
+
+    @Bean
+    Queue deadLetterQueue() {
+        return new Queue(queueName + DEAD_LETTER_SUFFIX);
+    }
+
+    /**
+     * Hands the listener up to {@code rabbitmq.batch.size} messages at once, waiting at most
+     * {@code rabbitmq.batch.receive-timeout} milliseconds for a batch to fill. The whole batch is acknowledged together
+     * once the listener returns.
+     */
+    @Bean
+    SimpleRabbitListenerContainerFactory batchListenerContainerFactory(SimpleRabbitListenerContainerFactoryConfigurer configurer,
+                                                                       ConnectionFactory connectionFactory) {
+        var factory = new SimpleRabbitListenerContainerFactory();
+        configurer.configure(factory, connectionFactory);
+        factory.setBatchListener(true);
+        factory.setConsumerBatchEnabled(true);
+        factory.setBatchSize(batchSize);
+        factory.setPrefetchCount(batchSize);
+        factory.setReceiveTimeout(receiveTimeout);
+
+        return factory;
     }
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,31 @@
+package com.renansouza.folio.accounts.config;
+
+import java.util.concurrent.Executors;
+
+import lombok.Generated;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.web.embedded.undertow.UndertowDeploymentInfoCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * With {@code spring.threads.virtual.enabled} Spring Boot already moves the Rabbit listener containers, the scheduler
+ * and the MVC async executor to virtual threads, but not Undertow. This dispatches every servlet request to a new
+ * virtual thread instead of the bounded XNIO worker pool.
+ */
+@Generated
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadsConfig {
+
+    @Bean
+    UndertowDeploymentInfoCustomizer virtualThreadsDeploymentInfoCustomizer() {
+        return deploymentInfo -> {
+            var executor = Executors.newVirtualThreadPerTaskExecutor();
+            deploymentInfo.setExecutor(executor);
+            deploymentInfo.setAsyncExecutor(executor);
+        };
+    }
+
+}
@@ -0,0 +1,9 @@
+package com.renansouza.folio.accounts.exceptions;
+
+import java.util.UUID;
+
+public class AccountNotFoundException extends RuntimeException {
+    public AccountNotFoundException(UUID id) {
+        super(String.format("The provided id %s account was not found", id));
+    }
+}
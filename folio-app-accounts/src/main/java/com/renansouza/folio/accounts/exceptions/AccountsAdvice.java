@@ -0,0 +1,51 @@
+package com.renansouza.folio.accounts.exceptions;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Optional;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExceptionHandler;
+
+@ControllerAdvice
+public class AccountsAdvice extends ResponseEntityExceptionHandler {
+
+    @ExceptionHandler(value = AccountNotFoundException.class)
+    protected ResponseEntity<Object> handleNotFound(RuntimeException ex, WebRequest request) {
+        var req = ((ServletWebRequest) request).getRequest();
+        var errorAttributes = getErrorAttributes(
+                HttpStatus.NOT_FOUND,
+                ex.getLocalizedMessage(),
+                Optional.ofNullable(req.getPathInfo()).orElse(req.getServletPath()));
+
+        return handleExceptionInternal(ex, errorAttributes, new HttpHeaders(), HttpStatus.NOT_FOUND, request);
+    }
+
+    @ExceptionHandler(value = InvalidBalancesRequestException.class)
+    protected ResponseEntity<Object> handleBadRequest(RuntimeException ex, WebRequest request) {
+        var req = ((ServletWebRequest) request).getRequest();
+        var errorAttributes = getErrorAttributes(
+                HttpStatus.BAD_REQUEST,
+                ex.getLocalizedMessage(),
+                Optional.ofNullable(req.getPathInfo()).orElse(req.getServletPath()));
+
+        return handleExceptionInternal(ex, errorAttributes, new HttpHeaders(), HttpStatus.BAD_REQUEST, request);
+    }
+
+    private HashMap<String, Object> getErrorAttributes(HttpStatus status, String message, String path) {
+        var errorAttributes = new HashMap<String, Object>();
+        errorAttributes.put("timestamp", LocalDateTime.now());
+        errorAttributes.put("status", status.value());
+        errorAttributes.put("error", status);
+        errorAttributes.put("message", message);
+        errorAttributes.put("path", path);
+
+        return errorAttributes;
+    }
+}
@@ -0,0 +1,7 @@
+package com.renansouza.folio.accounts.exceptions;
+
+public class InvalidBalancesRequestException extends RuntimeException {
+    public InvalidBalancesRequestException(int size, int maxSize) {
+        super(String.format("The provided %s account ids are more than the %s allowed in a single lookup", size, maxSize));
+    }
+}
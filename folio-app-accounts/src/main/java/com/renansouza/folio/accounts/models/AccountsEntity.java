@@ -31,9 +31,25 @@ public class AccountsEntity {
     @Column(nullable = false, unique = true, length = 100)
     private String broker;
 
+    /**
+     * Balance as of the last ledger compaction, the entries still in account_ledger are not included.
+     */
     @Column(nullable = false, precision = 9, scale = 2)
     private BigDecimal amount;
 
+    /**
+     * Bumped by every compaction that folds entries into the amount.
+     */
+    @Column(nullable = false)
+    private long version;
+
+    /**
+     * Number of account_balance_shards rows the consumers spread this account's updates over, zero while they append
+     * to the ledger.
+     */
+    @Column(nullable = false)
+    private int shards;
+
     public AccountsEntity(String broker) {
         this.broker = broker;
     }
@@ -0,0 +1,12 @@
+package com.renansouza.folio.accounts.models;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+public record AccountsResponse(UUID id, String broker, BigDecimal amount) {
+
+    public AccountsResponse plus(BigDecimal delta) {
+        return new AccountsResponse(id, broker, amount.add(delta));
+    }
+
+}
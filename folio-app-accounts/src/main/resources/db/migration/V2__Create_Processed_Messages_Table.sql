@@ -0,0 +1,7 @@
+CREATE TABLE processed_messages (
+  id VARCHAR(64) NOT NULL,
+   created_at TIMESTAMP WITH TIME ZONE NOT NULL,
+   CONSTRAINT pk_processed_messages PRIMARY KEY (id, created_at)
+) PARTITION BY RANGE (created_at);
+
+CREATE TABLE processed_messages_default PARTITION OF processed_messages DEFAULT;
@@ -0,0 +1,10 @@
+CREATE TABLE account_ledger (
+  id BIGINT GENERATED ALWAYS AS IDENTITY,
+   account_id UUID NOT NULL,
+   amount DECIMAL(9, 2) NOT NULL,
+   created_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT now(),
+   CONSTRAINT pk_account_ledger PRIMARY KEY (id),
+   CONSTRAINT fk_account_ledger_accounts FOREIGN KEY (account_id) REFERENCES accounts (id)
+);
+
+CREATE INDEX idx_account_ledger_account_id ON account_ledger (account_id);
@@ -0,0 +1,9 @@
+ALTER TABLE accounts ADD COLUMN shards SMALLINT NOT NULL DEFAULT 0;
+
+CREATE TABLE account_balance_shards (
+  account_id UUID NOT NULL,
+   shard SMALLINT NOT NULL,
+   amount DECIMAL(9, 2) NOT NULL,
+   CONSTRAINT pk_account_balance_shards PRIMARY KEY (account_id, shard),
+   CONSTRAINT fk_account_balance_shards_accounts FOREIGN KEY (account_id) REFERENCES accounts (id)
+);
@@ -0,0 +1,151 @@
+package com.renansouza.folio.accounts;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import com.renansouza.folio.accounts.models.AccountsResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@Tag("Unit")
+class AccountsBalancesTest {
+
+    private static final UUID FIRST = UUID.randomUUID();
+    private static final UUID SECOND = UUID.randomUUID();
+
+    @Mock
+    private AccountsRepository repository;
+
+    private SimpleMeterRegistry registry;
+    private AccountsBalances balances;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        registry = new SimpleMeterRegistry();
+        balances = new AccountsBalances(repository, registry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void readsFromTheCacheOnceLoaded() {
+        // Given
+        when(repository.findAllBalances()).thenReturn(List.of(balance(SECOND, "BROKER B", "2.00"), balance(FIRST, "BROKER A", "1.00")));
+
+        // When
+        var first = balances.findAll();
+        var second = balances.findAll();
+        var single = balances.find(FIRST);
+
+        // Then
+        assertThat(first).extracting(AccountsResponse::broker).containsExactly("BROKER A", "BROKER B");
+        assertThat(second).isEqualTo(first);
+        assertThat(single).contains(balance(FIRST, "BROKER A", "1.00"));
+        verify(repository, times(1)).findAllBalances();
+        verify(repository, never()).findBalancesByIdIn(anyCollection());
+    }
+
+    @Test
+    void loadsMissesOnceWithASingleQuery() {
+        // Given
+        var unknown = UUID.randomUUID();
+        when(repository.findAllBalances()).thenReturn(List.of(balance(FIRST, "BROKER A", "1.00")));
+        when(repository.findBalancesByIdIn(List.of(SECOND, unknown))).thenReturn(List.of(balance(SECOND, "BROKER B", "2.00")));
+        balances.refresh();
+
+        // When
+        var found = balances.find(List.of(SECOND, FIRST, unknown));
+
+        // Then
+        assertThat(found).extracting(AccountsResponse::id).containsExactly(SECOND, FIRST);
+        assertThat(registry.get("accounts.balances.misses").counter().count()).isEqualTo(2);
+        assertThat(registry.get("accounts.balances.cached").gauge().value()).isEqualTo(2);
+    }
+
+    @Test
+    void appliesAmountsOnlyOnceCommitted() {
+        // Given
+        when(repository.findAllBalances()).thenReturn(List.of(balance(FIRST, "BROKER A", "1.00")));
+        balances.refresh();
+        TransactionSynchronizationManager.initSynchronization();
+
+        // When
+        balances.applyAfterCommit(Map.of(FIRST, new BigDecimal("2.50")));
+        var beforeCommit = balances.find(FIRST);
+        complete();
+
+        // Then
+        assertThat(beforeCommit).contains(balance(FIRST, "BROKER A", "1.00"));
+        assertThat(balances.find(FIRST)).contains(balance(FIRST, "BROKER A", "3.50"));
+        verify(repository, never()).findBalancesByIdIn(anyCollection());
+    }
+
+    @Test
+    void doesNotCacheBalancesReadDuringAWrite() {
+        // Given
+        when(repository.findBalancesByIdIn(List.of(FIRST))).thenReturn(List.of(balance(FIRST, "BROKER A", "3.50")));
+        TransactionSynchronizationManager.initSynchronization();
+        balances.applyAfterCommit(Map.of(FIRST, new BigDecimal("2.50")));
+
+        // When
+        var duringWrite = balances.find(FIRST);
+        complete();
+        var afterWrite = balances.find(FIRST);
+        var cached = balances.find(FIRST);
+
+        // Then
+        assertThat(duringWrite).contains(balance(FIRST, "BROKER A", "3.50"));
+        assertThat(afterWrite).contains(balance(FIRST, "BROKER A", "3.50"));
+        assertThat(cached).contains(balance(FIRST, "BROKER A", "3.50"));
+        verify(repository, times(2)).findBalancesByIdIn(List.of(FIRST));
+    }
+
+    @Test
+    void refreshDropsAccountsDeletedElsewhere() {
+        // Given
+        when(repository.findAllBalances())
+                .thenReturn(List.of(balance(FIRST, "BROKER A", "1.00"), balance(SECOND, "BROKER B", "2.00")))
+                .thenReturn(List.of(balance(SECOND, "BROKER B", "3.00")));
+        balances.refresh();
+
+        // When
+        balances.refresh();
+
+        // Then
+        assertThat(balances.findAll()).containsExactly(balance(SECOND, "BROKER B", "3.00"));
+    }
+
+    private static void complete() {
+        var synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+        synchronizations.forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    private static AccountsResponse balance(UUID id, String broker, String amount) {
+        return new AccountsResponse(id, broker, new BigDecimal(amount));
+    }
+
+}
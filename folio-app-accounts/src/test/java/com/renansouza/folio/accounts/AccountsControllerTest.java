@@ -0,0 +1,115 @@
+package com.renansouza.folio.accounts;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import com.renansouza.folio.accounts.exceptions.AccountNotFoundException;
+import com.renansouza.folio.accounts.exceptions.InvalidBalancesRequestException;
+import com.renansouza.folio.accounts.models.AccountsResponse;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.Matchers.hasSize;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@Tag("Unit")
+@WebMvcTest(AccountsController.class)
+class AccountsControllerTest {
+
+    private static final String PATH = "/v1/accounts";
+    private static final UUID ID = UUID.fromString("0f8fad5b-d9cb-469f-a165-70867728950e");
+    private static final AccountsResponse ACCOUNT = new AccountsResponse(ID, "BROKER A", new BigDecimal("10.50"));
+
+    @Autowired
+    private MockMvc mvc;
+
+    @MockBean
+    AccountsService service;
+
+    @Test
+    @DisplayName("get zero accounts.")
+    void getZeroAccounts() throws Exception {
+        mvc.perform(get(PATH)).andExpect(status().isNoContent());
+    }
+
+    @Test
+    @DisplayName("get every account.")
+    void getAccounts() throws Exception {
+        // Given
+        when(service.findAll()).thenReturn(List.of(ACCOUNT));
+
+        // Then
+        mvc.perform(get(PATH))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].broker", is("BROKER A")))
+                .andExpect(jsonPath("$[0].amount", is(10.5)));
+    }
+
+    @Test
+    @DisplayName("get an account by id.")
+    void getAccount() throws Exception {
+        // Given
+        when(service.find(ID)).thenReturn(ACCOUNT);
+
+        // Then
+        mvc.perform(get(PATH + "/" + ID))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id", is(ID.toString())));
+    }
+
+    @Test
+    @DisplayName("get an unknown account.")
+    void getUnknownAccount() throws Exception {
+        // Given
+        when(service.find(ID)).thenThrow(new AccountNotFoundException(ID));
+
+        // Then
+        mvc.perform(get(PATH + "/" + ID))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.status", is(404)));
+    }
+
+    @Test
+    @DisplayName("get the balances of several accounts.")
+    void getBalances() throws Exception {
+        // Given
+        var unknown = UUID.randomUUID();
+        when(service.find(List.of(ID, unknown))).thenReturn(List.of(ACCOUNT));
+
+        // Then
+        mvc.perform(post(PATH + "/balances")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[\"%s\",\"%s\"]".formatted(ID, unknown)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id", is(ID.toString())));
+    }
+
+    @Test
+    @DisplayName("get the balances of too many accounts.")
+    void getTooManyBalances() throws Exception {
+        // Given
+        when(service.find(List.of(ID))).thenThrow(new InvalidBalancesRequestException(1, 0));
+
+        // Then
+        mvc.perform(post(PATH + "/balances")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[\"%s\"]".formatted(ID)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.status", is(400)));
+    }
+
+}
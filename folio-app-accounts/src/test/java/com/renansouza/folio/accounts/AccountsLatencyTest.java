@@ -0,0 +1,74 @@
+package com.renansouza.folio.accounts;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import com.renansouza.folio.accounts.config.AccountsNotificationConverter;
+import com.renansouza.folio.accounts.models.AccountsNotification;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Tag("Unit")
+class AccountsLatencyTest {
+
+    private SimpleMeterRegistry registry;
+    private AccountsLatency latency;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        latency = new AccountsLatency(registry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    @Test
+    void recordsFromTheCommitTime() {
+        // Given
+        var committedAt = System.currentTimeMillis() - 1_000;
+
+        // When
+        latency.recordAfterCommit(List.of(message(committedAt), message(null)));
+
+        // Then
+        var timer = registry.get("accounts.notifications.latency").timer();
+        assertThat(timer.count()).isEqualTo(1);
+        assertThat(timer.totalTime(TimeUnit.MILLISECONDS)).isGreaterThanOrEqualTo(1_000);
+    }
+
+    @Test
+    void waitsForTheCommit() {
+        // Given
+        TransactionSynchronizationManager.initSynchronization();
+
+        // When
+        latency.recordAfterCommit(List.of(message(System.currentTimeMillis())));
+
+        // Then
+        var timer = registry.get("accounts.notifications.latency").timer();
+        assertThat(timer.count()).isZero();
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertThat(timer.count()).isEqualTo(1);
+    }
+
+    private static Message<AccountsNotification> message(Long committedAt) {
+        return MessageBuilder.withPayload(new AccountsNotification(UUID.randomUUID(), BigDecimal.ONE))
+                .setHeader(AccountsNotificationConverter.COMMITTED_AT, committedAt)
+                .build();
+    }
+
+}
@@ -0,0 +1,59 @@
+package com.renansouza.folio.accounts;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.dao.QueryTimeoutException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@Tag("Unit")
+class AccountsLedgerCompactorTest {
+
+    private static final int BATCH_SIZE = 100;
+
+    @Mock
+    private AccountsRepository repository;
+
+    private SimpleMeterRegistry registry;
+    private AccountsLedgerCompactor compactor;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        registry = new SimpleMeterRegistry();
+        compactor = new AccountsLedgerCompactor(repository, registry, BATCH_SIZE);
+    }
+
+    @Test
+    void compactUntilTheTailIsShorterThanABatch() {
+        // Given
+        when(repository.compactLedger(BATCH_SIZE)).thenReturn(BATCH_SIZE, BATCH_SIZE, 7);
+
+        // When
+        compactor.compact();
+
+        // Then
+        verify(repository, times(3)).compactLedger(BATCH_SIZE);
+        assertThat(registry.get("accounts.ledger.folded").counter().count()).isEqualTo(207);
+    }
+
+    @Test
+    void compactSurvivesDatabaseErrors() {
+        // Given
+        when(repository.compactLedger(BATCH_SIZE)).thenThrow(new QueryTimeoutException("timeout"));
+
+        // When
+        compactor.compact();
+
+        // Then
+        assertThat(registry.get("accounts.ledger.folded").counter().count()).isZero();
+    }
+
+}
@@ -1,42 +1,127 @@
 package com.renansouza.folio.accounts;
 
 import java.math.BigDecimal;
+import java.util.Date;
+import java.util.List;
 import java.util.UUID;
 
 import com.renansouza.folio.accounts.models.AccountsNotification;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
-import org.mockito.InjectMocks;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.amqp.core.AmqpTemplate;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.AmqpHeaders;
+import org.springframework.amqp.support.converter.MessageConversionException;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.support.MessageBuilder;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.same;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 @Tag("Unit")
 class AccountsListenerTest {
 
-    @InjectMocks
     private AccountsListener listener;
 
     @Mock
     private AccountsService service;
 
+    @Mock
+    private MessageConverter messageConverter;
+
+    @Mock
+    private AmqpTemplate template;
+
+    @Captor
+    private ArgumentCaptor<List<Message<AccountsNotification>>> messages;
+
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        listener = new AccountsListener(service, messageConverter, template, "accounts");
+    }
+
+    @Test
+    void getAccountUpdates() {
+        // Given
+        var messages = List.<Message<AccountsNotification>>of(
+                MessageBuilder.withPayload(new AccountsNotification(UUID.randomUUID(), BigDecimal.ONE)).build(),
+                MessageBuilder.withPayload(new AccountsNotification(UUID.randomUUID(), BigDecimal.TEN)).build());
+
+        // When
+        listener.getAccountUpdates(messages);
+
+        // Then
+        verify(service, times(1)).updateAccountAmounts(messages);
     }
 
     @Test
-    void getAccountUpdate() {
+    void onMessageBatch() {
         // Given
         var notification = new AccountsNotification(UUID.randomUUID(), BigDecimal.ONE);
+        var timestamp = new Date();
+        var properties = new MessageProperties();
+        properties.setMessageId("1");
+        properties.setTimestamp(timestamp);
+        when(messageConverter.fromMessage(any())).thenReturn(notification);
 
         // When
-        listener.getAccountUpdate(notification);
+        listener.onMessageBatch(List.of(new org.springframework.amqp.core.Message(new byte[0], properties)));
 
         // Then
-        verify(service, times(1)).updateAccountAmount(notification);
+        verify(service).updateAccountAmounts(messages.capture());
+        var message = messages.getValue().getFirst();
+        assertThat(message.getPayload()).isEqualTo(notification);
+        assertThat(message.getHeaders().get(AmqpHeaders.MESSAGE_ID)).isEqualTo("1");
+        assertThat(message.getHeaders().get(AmqpHeaders.TIMESTAMP)).isEqualTo(timestamp);
+        assertThat(properties.getInferredArgumentType()).isEqualTo(AccountsNotification.class);
     }
-}
\ No newline at end of file
+
+    @Test
+    void onMessageBatchDeadLettersOnlyUnreadableMessages() {
+        // Given
+        var valid = new org.springframework.amqp.core.Message(new byte[] {1}, new MessageProperties());
+        var malformed = new org.springframework.amqp.core.Message(new byte[] {2}, new MessageProperties());
+        var unexpected = new org.springframework.amqp.core.Message(new byte[] {3}, new MessageProperties());
+        var notification = new AccountsNotification(UUID.randomUUID(), BigDecimal.ONE);
+        when(messageConverter.fromMessage(valid)).thenReturn(notification);
+        when(messageConverter.fromMessage(malformed)).thenThrow(new MessageConversionException("malformed"));
+        when(messageConverter.fromMessage(unexpected)).thenReturn(new byte[] {3});
+
+        // When
+        listener.onMessageBatch(List.of(malformed, valid, unexpected));
+
+        // Then
+        verify(template).send(eq("accounts.dead-letter"), same(malformed));
+        verify(template).send(eq("accounts.dead-letter"), same(unexpected));
+        verify(service).updateAccountAmounts(messages.capture());
+        assertThat(messages.getValue()).extracting(Message::getPayload).containsExactly(notification);
+    }
+
+    @Test
+    void onMessageBatchSkipsUpdateWhenNoMessageIsReadable() {
+        // Given
+        var malformed = new org.springframework.amqp.core.Message(new byte[0], new MessageProperties());
+        when(messageConverter.fromMessage(malformed)).thenThrow(new MessageConversionException("malformed"));
+
+        // When
+        listener.onMessageBatch(List.of(malformed));
+
+        // Then
+        verify(template).send("accounts.dead-letter", malformed);
+        verify(service, never()).updateAccountAmounts(any());
+    }
+
+}
@@ -0,0 +1,97 @@
+package com.renansouza.folio.accounts;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+import com.renansouza.folio.accounts.config.AccountsNotificationConverter;
+import com.renansouza.folio.accounts.models.AccountsNotification;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.amqp.support.converter.MessageConversionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@Tag("Unit")
+class AccountsNotificationConverterTest {
+
+    private static final UUID ACCOUNT = UUID.fromString("0f8fad5b-d9cb-469f-a165-70867728950e");
+
+    private final AccountsNotificationConverter converter = new AccountsNotificationConverter(new Jackson2JsonMessageConverter());
+
+    @Test
+    void readsTheBinaryLayout() {
+        // Given
+        var message = binary(AccountsNotificationConverter.VERSION, ACCOUNT.toString(), -12_345_678L);
+
+        // When & Then
+        assertThat(converter.fromMessage(message)).isEqualTo(new AccountsNotification(ACCOUNT, new BigDecimal("-123456.78")));
+    }
+
+    @Test
+    void stillReadsJson() {
+        // Given
+        var properties = new MessageProperties();
+        properties.setContentType(MessageProperties.CONTENT_TYPE_JSON);
+        properties.setInferredArgumentType(AccountsNotification.class);
+        var json = """
+                {"account":"%s","amount":-123456.78}""".formatted(ACCOUNT);
+
+        // When & Then
+        assertThat(converter.fromMessage(new Message(json.getBytes(StandardCharsets.UTF_8), properties)))
+                .isEqualTo(new AccountsNotification(ACCOUNT, new BigDecimal("-123456.78")));
+    }
+
+    @Test
+    void writesThroughTheDelegate() {
+        // Given
+        var notification = new AccountsNotification(ACCOUNT, BigDecimal.ONE);
+
+        // When
+        var message = converter.toMessage(notification, new MessageProperties());
+
+        // Then
+        assertThat(message.getMessageProperties().getContentType()).isEqualTo(MessageProperties.CONTENT_TYPE_JSON);
+        assertThat(new String(message.getBody(), StandardCharsets.UTF_8)).contains(ACCOUNT.toString());
+    }
+
+    @Test
+    void rejectsUnknownVersions() {
+        // Given
+        var message = binary((byte) 2, ACCOUNT.toString(), 1L);
+
+        // When & Then
+        assertThrows(MessageConversionException.class, () -> converter.fromMessage(message));
+    }
+
+    @Test
+    void rejectsMalformedBodies() {
+        // Given
+        var notAnAccount = binary(AccountsNotificationConverter.VERSION, "BROKER A", 1L);
+        var truncated = new Message(new byte[]{AccountsNotificationConverter.VERSION, 0, 36}, notAnAccount.getMessageProperties());
+
+        // When & Then
+        assertThrows(MessageConversionException.class, () -> converter.fromMessage(notAnAccount));
+        assertThrows(MessageConversionException.class, () -> converter.fromMessage(truncated));
+    }
+
+    private static Message binary(byte version, String account, long cents) {
+        var key = account.getBytes(StandardCharsets.UTF_8);
+        var body = ByteBuffer.allocate(1 + 2 + key.length + 8)
+                .put(version)
+                .putShort((short) key.length)
+                .put(key)
+                .putLong(cents)
+                .array();
+
+        var properties = new MessageProperties();
+        properties.setContentType(AccountsNotificationConverter.CONTENT_TYPE);
+        return new Message(body, properties);
+    }
+
+}
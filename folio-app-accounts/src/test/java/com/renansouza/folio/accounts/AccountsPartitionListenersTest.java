@@ -0,0 +1,144 @@
+package com.renansouza.folio.accounts;
+
+import java.util.Set;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.amqp.AmqpConnectException;
+import org.springframework.amqp.core.AmqpAdmin;
+import org.springframework.amqp.core.QueueInformation;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerEndpoint;
+import org.springframework.amqp.rabbit.listener.MessageListenerContainer;
+import org.springframework.amqp.rabbit.listener.RabbitListenerEndpointRegistry;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@Tag("Unit")
+class AccountsPartitionListenersTest {
+
+    private static final String QUEUE = "accounts";
+
+    @Mock
+    private RabbitListenerEndpointRegistry registry;
+
+    @Mock
+    private SimpleRabbitListenerContainerFactory factory;
+
+    @Mock
+    private AmqpAdmin admin;
+
+    @Mock
+    private AccountsListener listener;
+
+    private SimpleMeterRegistry meterRegistry;
+    private AccountsPartitionListeners partitionListeners;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+        partitionListeners = new AccountsPartitionListeners(registry, factory, admin, listener, meterRegistry, QUEUE, 2);
+    }
+
+    @Test
+    void listensToEveryPartitionWithOneConsumer() {
+        // When
+        partitionListeners.discover();
+
+        // Then
+        var endpoints = registered(2);
+        assertThat(endpoints.getAllValues()).extracting(endpoint -> endpoint.getQueueNames().iterator().next())
+                .containsExactly("accounts.0", "accounts.1");
+        assertThat(endpoints.getAllValues()).allMatch(endpoint -> "1".equals(endpoint.getConcurrency())
+                && endpoint.getBatchListener() && endpoint.getMessageListener() == listener);
+    }
+
+    @Test
+    void drainsTheLegacyQueueAndLeftoverPartitions() {
+        // Given
+        existing("accounts", "accounts.2", "accounts.3", "accounts.5");
+
+        // When
+        partitionListeners.discover();
+
+        // Then
+        assertThat(registered(5).getAllValues()).extracting(endpoint -> endpoint.getQueueNames().iterator().next())
+                .containsExactly("accounts.0", "accounts.1", "accounts", "accounts.2", "accounts.3");
+    }
+
+    @Test
+    void exportsTheDepthOfEachQueue() {
+        // Given
+        when(admin.getQueueInfo("accounts.0")).thenReturn(new QueueInformation("accounts.0", 7, 1));
+
+        // When
+        partitionListeners.discover();
+
+        // Then
+        assertThat(meterRegistry.get("accounts.queue.depth").tag("queue", "accounts.0").gauge().value()).isEqualTo(7);
+        assertThat(meterRegistry.get("accounts.queue.depth").tag("queue", "accounts.1").gauge().value()).isNaN();
+    }
+
+    @Test
+    void skipsQueuesAlreadyListenedTo() {
+        // Given
+        when(registry.getListenerContainer(AccountsPartitionListeners.ID_PREFIX + "accounts.0")).thenReturn(mock(MessageListenerContainer.class));
+
+        // When
+        partitionListeners.discover();
+
+        // Then
+        assertThat(registered(1).getValue().getQueueNames()).containsExactly("accounts.1");
+    }
+
+    @Test
+    void listensToThePartitionsWhenTheBrokerIsDown() {
+        // Given
+        when(admin.getQueueInfo(anyString())).thenThrow(new AmqpConnectException(new RuntimeException("down")));
+
+        // When
+        partitionListeners.discover();
+
+        // Then
+        assertThat(registered(2).getAllValues()).extracting(endpoint -> endpoint.getQueueNames().iterator().next())
+                .containsExactly("accounts.0", "accounts.1");
+    }
+
+    @Test
+    void registersNothingWithoutPartitions() {
+        // Given
+        partitionListeners = new AccountsPartitionListeners(registry, factory, admin, listener, meterRegistry, QUEUE, 0);
+
+        // When
+        partitionListeners.discover();
+
+        // Then
+        verify(registry, never()).registerListenerContainer(any(), any(), eq(true));
+    }
+
+    private void existing(String... queues) {
+        Set.of(queues).forEach(queue -> when(admin.getQueueInfo(queue)).thenReturn(new QueueInformation(queue, 0, 0)));
+    }
+
+    private ArgumentCaptor<SimpleRabbitListenerEndpoint> registered(int count) {
+        var endpoints = ArgumentCaptor.forClass(SimpleRabbitListenerEndpoint.class);
+        verify(registry, times(count)).registerListenerContainer(endpoints.capture(), eq(factory), eq(true));
+
+        return endpoints;
+    }
+
+}
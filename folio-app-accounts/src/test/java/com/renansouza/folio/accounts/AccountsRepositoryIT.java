@@ -0,0 +1,159 @@
+package com.renansouza.folio.accounts;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import com.renansouza.folio.accounts.models.AccountsResponse;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Tag("Integration")
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class AccountsRepositoryIT {
+
+    private static final UUID FIRST = UUID.fromString("0f8fad5b-d9cb-469f-a165-70867728950e");
+    private static final UUID SECOND = UUID.fromString("7c9e6679-7425-40de-944b-e07fc1f90ae7");
+    private static final UUID DELETED = UUID.fromString("c9bf9e57-1685-4c89-bafb-ff5af830be8a");
+    private static final UUID UNKNOWN = UUID.fromString("e4eaaaf2-d142-11e1-b3e4-080027620cdd");
+
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16.3-alpine");
+
+    @BeforeAll
+    static void beforeAll() {
+        postgres.start();
+    }
+
+    @AfterAll
+    static void afterAll() {
+        postgres.stop();
+    }
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @Autowired
+    private AccountsRepository repository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        insert(FIRST, "BROKER A", "100.00", false);
+        insert(SECOND, "BROKER B", "0.00", false);
+        insert(DELETED, "BROKER C", "50.00", true);
+    }
+
+    @Test
+    @DisplayName("should append amounts to the ledger of active accounts only.")
+    void appendAmountsById() {
+        var appended = repository.appendAmountsById(Map.of(
+                FIRST, new BigDecimal("10.50"),
+                SECOND, new BigDecimal("-5.25"),
+                DELETED, BigDecimal.ONE,
+                UNKNOWN, BigDecimal.ONE));
+
+        assertThat(appended).isEqualTo(2);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM account_ledger", Long.class)).isEqualTo(2);
+        assertThat(repository.findAllBalances()).containsExactlyInAnyOrder(
+                new AccountsResponse(FIRST, "BROKER A", new BigDecimal("110.50")),
+                new AccountsResponse(SECOND, "BROKER B", new BigDecimal("-5.25")));
+    }
+
+    @Test
+    @DisplayName("should fold the oldest ledger entries into the balances without changing them.")
+    void compactLedger() {
+        repository.appendAmountsById(Map.of(FIRST, BigDecimal.ONE));
+        repository.appendAmountsById(Map.of(FIRST, BigDecimal.TEN, SECOND, BigDecimal.TWO));
+        var before = repository.findAllBalances();
+
+        assertThat(repository.compactLedger(1)).isEqualTo(1);
+        assertThat(repository.findAllBalances()).containsExactlyInAnyOrderElementsOf(before);
+
+        assertThat(repository.compactLedger(100)).isEqualTo(2);
+        assertThat(repository.compactLedger(100)).isZero();
+        assertThat(repository.findAllBalances()).containsExactlyInAnyOrderElementsOf(before);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM account_ledger", Long.class)).isZero();
+        assertThat(amount(FIRST)).isEqualByComparingTo("111.00");
+        assertThat(version(FIRST)).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("should add amounts to the picked shard of active accounts.")
+    void addAmountsToShards() {
+        repository.updateShardCount(FIRST, 4);
+
+        assertThat(repository.addAmountsToShards(Map.of(FIRST, BigDecimal.ONE, DELETED, BigDecimal.ONE), id -> 3)).isEqualTo(1);
+        assertThat(repository.addAmountsToShards(Map.of(FIRST, BigDecimal.TEN), id -> 3)).isEqualTo(1);
+        assertThat(repository.addAmountsToShards(Map.of(FIRST, BigDecimal.TWO), id -> 0)).isEqualTo(1);
+
+        assertThat(jdbcTemplate.queryForObject("SELECT amount FROM account_balance_shards WHERE account_id = ? AND shard = 3", BigDecimal.class, FIRST))
+                .isEqualByComparingTo("11.00");
+        assertThat(repository.findBalancesByIdIn(List.of(FIRST)))
+                .containsExactly(new AccountsResponse(FIRST, "BROKER A", new BigDecimal("113.00")));
+    }
+
+    @Test
+    @DisplayName("should fold the shards past the shard count of each account into its balance.")
+    void foldShards() {
+        repository.updateShardCount(FIRST, 4);
+        repository.addAmountsToShards(Map.of(FIRST, BigDecimal.ONE), id -> 0);
+        repository.addAmountsToShards(Map.of(FIRST, BigDecimal.TEN), id -> 3);
+        repository.updateShardCount(FIRST, 2);
+
+        assertThat(repository.foldShards()).isEqualTo(1);
+        assertThat(repository.foldShards()).isZero();
+        assertThat(amount(FIRST)).isEqualByComparingTo("110.00");
+        assertThat(repository.findBalancesByIdIn(List.of(FIRST)))
+                .containsExactly(new AccountsResponse(FIRST, "BROKER A", new BigDecimal("111.00")));
+    }
+
+    @Test
+    @DisplayName("should only list the shard counts of sharded active accounts.")
+    void findShardCounts() {
+        repository.updateShardCount(FIRST, 4);
+        repository.updateShardCount(DELETED, 2);
+
+        assertThat(repository.findShardCounts()).containsExactly(Map.entry(FIRST, 4));
+    }
+
+    @Test
+    @DisplayName("should read the balances of the given active accounts.")
+    void findBalancesByIdIn() {
+        assertThat(repository.findBalancesByIdIn(List.of(SECOND, DELETED, UNKNOWN)))
+                .containsExactly(new AccountsResponse(SECOND, "BROKER B", new BigDecimal("0.00")));
+    }
+
+    private void insert(UUID id, String broker, String amount, boolean deleted) {
+        jdbcTemplate.update("INSERT INTO accounts (id, broker, amount, deleted) VALUES (?, ?, ?, ?)", id, broker, new BigDecimal(amount), deleted);
+    }
+
+    private BigDecimal amount(UUID id) {
+        return jdbcTemplate.queryForObject("SELECT amount FROM accounts WHERE id = ?", BigDecimal.class, id);
+    }
+
+    private long version(UUID id) {
+        return jdbcTemplate.queryForObject("SELECT version FROM accounts WHERE id = ?", Long.class, id);
+    }
+
+}
@@ -1,45 +1,172 @@
 package com.renansouza.folio.accounts;
 
 import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
 
+import com.renansouza.folio.accounts.exceptions.AccountNotFoundException;
+import com.renansouza.folio.accounts.exceptions.InvalidBalancesRequestException;
 import com.renansouza.folio.accounts.models.AccountsNotification;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.mockito.verification.VerificationMode;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.support.MessageBuilder;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 @Tag("Unit")
 class AccountsServiceTest {
 
     private static final VerificationMode ONCE = times(1);
+    private static final int MAX_LOOKUP_SIZE = 2;
 
     @Mock
     private AccountsRepository repository;
 
-    @InjectMocks
+    @Mock
+    private ProcessedMessages processed;
+
+    @Mock
+    private AccountsBalances balances;
+
+    @Mock
+    private AccountsShards shards;
+
+    @Mock
+    private AccountsLatency latency;
+
+    private SimpleMeterRegistry registry;
+
     private AccountsService service;
 
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        registry = new SimpleMeterRegistry();
+        service = new AccountsService(repository, processed, balances, shards, latency, registry, MAX_LOOKUP_SIZE);
     }
 
     @Test
-    void updateAccountAmount() {
+    void updateAccountAmounts() {
         // Given
-        var notification = new AccountsNotification(UUID.randomUUID(), BigDecimal.ONE);
+        var first = UUID.randomUUID();
+        var second = UUID.randomUUID();
+        var messages = List.of(
+                message(new AccountsNotification(first, BigDecimal.ONE)),
+                message(new AccountsNotification(second, BigDecimal.TEN)),
+                message(new AccountsNotification(first, new BigDecimal("-0.50"))));
+        when(processed.record(messages)).thenReturn(messages);
+        when(repository.appendAmountsById(any())).thenReturn(2);
 
         // When
-        service.updateAccountAmount(notification);
+        service.updateAccountAmounts(messages);
 
         // Then
-        verify(repository, ONCE).updateAmountById(notification.account(), notification.amount());
+        var amounts = Map.of(first, new BigDecimal("0.50"), second, BigDecimal.TEN);
+        verify(repository, ONCE).appendAmountsById(amounts);
+        verify(balances, ONCE).applyAfterCommit(amounts);
+        verify(repository, never()).addAmountsToShards(any(), any());
+        verify(shards, ONCE).record(amounts.keySet());
+        verify(latency, ONCE).recordAfterCommit(messages);
+        assertEquals(3, registry.get("accounts.notifications.consumed").counter().count());
+        assertEquals(2, registry.get("accounts.ledger.appended").counter().count());
+        assertEquals(0, registry.get("accounts.notifications.duplicated").counter().count());
+    }
+
+    @Test
+    void updateAccountAmountsOfShardedAccounts() {
+        // Given
+        var hot = UUID.randomUUID();
+        var cold = UUID.randomUUID();
+        var messages = List.of(
+                message(new AccountsNotification(hot, BigDecimal.ONE)),
+                message(new AccountsNotification(cold, BigDecimal.TEN)));
+        when(processed.record(messages)).thenReturn(messages);
+        when(shards.isSharded(hot)).thenReturn(true);
+        when(repository.appendAmountsById(any())).thenReturn(1);
+
+        // When
+        service.updateAccountAmounts(messages);
+
+        // Then
+        verify(repository, ONCE).appendAmountsById(Map.of(cold, BigDecimal.TEN));
+        verify(repository, ONCE).addAmountsToShards(eq(Map.of(hot, BigDecimal.ONE)), any());
+        verify(balances, ONCE).applyAfterCommit(Map.of(hot, BigDecimal.ONE, cold, BigDecimal.TEN));
+        assertEquals(1, registry.get("accounts.ledger.appended").counter().count());
+    }
+
+    @Test
+    void updateAccountAmountsSkipsDuplicates() {
+        // Given
+        var account = UUID.randomUUID();
+        var applied = message(new AccountsNotification(account, BigDecimal.ONE));
+        var duplicated = message(new AccountsNotification(account, BigDecimal.ONE));
+        var messages = List.of(applied, duplicated);
+        when(processed.record(messages)).thenReturn(List.of(applied));
+        when(repository.appendAmountsById(any())).thenReturn(1);
+
+        // When
+        service.updateAccountAmounts(messages);
+
+        // Then
+        verify(repository, ONCE).appendAmountsById(Map.of(account, BigDecimal.ONE));
+        verify(latency, ONCE).recordAfterCommit(List.of(applied));
+        assertEquals(1, registry.get("accounts.notifications.consumed").counter().count());
+        assertEquals(1, registry.get("accounts.notifications.duplicated").counter().count());
+    }
+
+    @Test
+    void updateAccountAmountsWhenAllDuplicated() {
+        // Given
+        var messages = List.of(message(new AccountsNotification(UUID.randomUUID(), BigDecimal.ONE)));
+        when(processed.record(messages)).thenReturn(List.of());
+
+        // When
+        service.updateAccountAmounts(messages);
+
+        // Then
+        verify(repository, never()).appendAmountsById(any());
+        verify(balances, never()).applyAfterCommit(any());
+        verify(latency, never()).recordAfterCommit(any());
+        assertEquals(1, registry.get("accounts.notifications.duplicated").counter().count());
+    }
+
+    @Test
+    void findUnknownAccount() {
+        // Given
+        var id = UUID.randomUUID();
+        when(balances.find(id)).thenReturn(Optional.empty());
+
+        // When & Then
+        assertThrows(AccountNotFoundException.class, () -> service.find(id));
+    }
+
+    @Test
+    void findTooManyAccounts() {
+        // Given
+        var ids = List.of(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID());
+
+        // When & Then
+        assertThrows(InvalidBalancesRequestException.class, () -> service.find(ids));
+        verify(balances, never()).find(anyCollection());
+    }
+
+    private static Message<AccountsNotification> message(AccountsNotification notification) {
+        return MessageBuilder.withPayload(notification).build();
     }
-}
\ No newline at end of file
+}
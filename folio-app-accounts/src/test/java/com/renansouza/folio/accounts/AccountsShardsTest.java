@@ -0,0 +1,124 @@
+package com.renansouza.folio.accounts;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@Tag("Unit")
+class AccountsShardsTest {
+
+    private static final UUID HOT = UUID.randomUUID();
+    private static final UUID COLD = UUID.randomUUID();
+    private static final int MAX_SHARDS = 8;
+
+    @Mock
+    private AccountsRepository repository;
+
+    private SimpleMeterRegistry registry;
+    private AccountsShards shards;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        registry = new SimpleMeterRegistry();
+        shards = new AccountsShards(repository, registry, true, 50, 25, MAX_SHARDS);
+    }
+
+    @Test
+    void desiredFollowsTheRate() {
+        assertThat(shards.desired(10, AccountsShards.UNSHARDED)).isEqualTo(AccountsShards.UNSHARDED);
+        assertThat(shards.desired(50, AccountsShards.UNSHARDED)).isEqualTo(2);
+        assertThat(shards.desired(110, 2)).isEqualTo(5);
+        assertThat(shards.desired(10_000, 2)).isEqualTo(MAX_SHARDS);
+    }
+
+    @Test
+    void desiredKeepsTheShardsUntilTheRateHalves() {
+        assertThat(shards.desired(30, 4)).isEqualTo(4);
+        assertThat(shards.desired(24, 4)).isEqualTo(AccountsShards.UNSHARDED);
+    }
+
+    @Test
+    void tuneShardsHotAccounts() {
+        // Given
+        when(repository.findShardCounts()).thenReturn(Map.of());
+        for (int i = 0; i < 1_000_000; i++) shards.record(List.of(HOT));
+        shards.record(List.of(COLD));
+
+        // When
+        shards.tune();
+
+        // Then
+        verify(repository, times(1)).updateShardCount(HOT, MAX_SHARDS);
+        verify(repository, never()).updateShardCount(COLD, AccountsShards.UNSHARDED);
+        verify(repository, times(1)).foldShards();
+        assertThat(shards.isSharded(HOT)).isTrue();
+        assertThat(shards.isSharded(COLD)).isFalse();
+        assertThat(shards.shardOf(HOT)).isBetween(0, MAX_SHARDS - 1);
+        assertThat(registry.get("accounts.shards.sharded").gauge().value()).isEqualTo(1);
+    }
+
+    @Test
+    void shardOfSpreadsTheUpdatesOfAnAccount() {
+        // Given
+        when(repository.findShardCounts()).thenReturn(Map.of(HOT, 4));
+        for (int i = 0; i < 1_000_000; i++) shards.record(List.of(HOT));
+        shards.tune();
+
+        // When
+        var used = new HashSet<Integer>();
+        for (int i = 0; i < MAX_SHARDS; i++) used.add(shards.shardOf(HOT));
+
+        // Then
+        assertThat(used).hasSize(MAX_SHARDS);
+    }
+
+    @Test
+    void tuneCollapsesAccountsThatCooledDown() {
+        // Given
+        var current = new HashMap<UUID, Integer>();
+        current.put(HOT, 4);
+        when(repository.findShardCounts()).thenReturn(current);
+
+        // When
+        shards.tune();
+
+        // Then
+        verify(repository, times(1)).updateShardCount(HOT, AccountsShards.UNSHARDED);
+        verify(repository, times(1)).foldShards();
+        assertThat(shards.isSharded(HOT)).isFalse();
+    }
+
+    @Test
+    void disabledNeverShards() {
+        // Given
+        var disabled = new AccountsShards(repository, new SimpleMeterRegistry(), false, 50, 25, MAX_SHARDS);
+        for (int i = 0; i < 1_000; i++) disabled.record(List.of(HOT));
+
+        // When
+        disabled.tune();
+
+        // Then
+        verify(repository, never()).findShardCounts();
+        verify(repository, never()).updateShardCount(any(), anyInt());
+        assertThat(disabled.isSharded(HOT)).isFalse();
+    }
+
+}
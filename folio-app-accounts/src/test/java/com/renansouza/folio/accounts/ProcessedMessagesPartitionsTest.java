@@ -0,0 +1,59 @@
+package com.renansouza.folio.accounts;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@Tag("Unit")
+class ProcessedMessagesPartitionsTest {
+
+    private static final long ONE_WEEK = 604800000L;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private ProcessedMessagesPartitions partitions;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        partitions = new ProcessedMessagesPartitions(jdbcTemplate, ONE_WEEK, 2);
+    }
+
+    @Test
+    void maintain() {
+        // Given
+        var today = LocalDate.now(ZoneOffset.UTC);
+        var expired = ProcessedMessagesPartitions.name(today.minusDays(8));
+        var retained = ProcessedMessagesPartitions.name(today.minusDays(6));
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class), any()))
+                .thenReturn(List.of("processed_messages_default", expired, retained));
+
+        // When
+        partitions.maintain();
+
+        // Then
+        verify(jdbcTemplate, times(3)).execute(contains("PARTITION OF processed_messages"));
+        verify(jdbcTemplate).execute(contains(ProcessedMessagesPartitions.name(today.plusDays(2))));
+        verify(jdbcTemplate).execute("DROP TABLE IF EXISTS " + expired);
+        verify(jdbcTemplate, never()).execute("DROP TABLE IF EXISTS " + retained);
+        verify(jdbcTemplate, never()).execute("DROP TABLE IF EXISTS processed_messages_default");
+        verify(jdbcTemplate).update(eq("DELETE FROM processed_messages_default WHERE created_at < ?"), any(Object.class));
+    }
+}
@@ -0,0 +1,117 @@
+package com.renansouza.folio.accounts;
+
+import java.math.BigDecimal;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+import com.renansouza.folio.accounts.models.AccountsNotification;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.amqp.support.AmqpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@Tag("Unit")
+class ProcessedMessagesTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private ProcessedMessages processed;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        processed = new ProcessedMessages(jdbcTemplate, 100);
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    @Test
+    void recordReturnsOnlyInsertedIds() {
+        // Given
+        var first = message("1");
+        var second = message("2");
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenReturn(new int[]{1, 0});
+
+        // When
+        var result = processed.record(List.of(first, second));
+
+        // Then
+        assertThat(result).containsExactly(first);
+    }
+
+    @Test
+    void recordDropsDuplicatesWithinTheBatch() {
+        // Given
+        var first = message("1");
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenReturn(new int[]{1});
+
+        // When
+        var result = processed.record(List.of(first, message("1")));
+
+        // Then
+        assertThat(result).containsExactly(first);
+        verify(jdbcTemplate).batchUpdate(anyString(), argThat((List<Object[]> arguments) -> arguments.size() == 1));
+    }
+
+    @Test
+    void recordKeepsMessagesWithoutId() {
+        // Given
+        var message = MessageBuilder.withPayload(notification()).build();
+
+        // When
+        var result = processed.record(List.of(message));
+
+        // Then
+        assertThat(result).containsExactly(message);
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+    }
+
+    @Test
+    void recordSkipsTheDatabaseForCommittedIds() {
+        // Given
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenReturn(new int[]{1});
+        processed.record(List.of(message("1")));
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+        // When
+        var result = processed.record(List.of(message("1")));
+
+        // Then
+        assertThat(result).isEmpty();
+        verify(jdbcTemplate).batchUpdate(eq("INSERT INTO processed_messages (id, created_at) VALUES (?, ?) ON CONFLICT DO NOTHING"), anyList());
+    }
+
+    private static Message<AccountsNotification> message(String id) {
+        return MessageBuilder.withPayload(notification())
+                .setHeader(AmqpHeaders.MESSAGE_ID, id)
+                .setHeader(AmqpHeaders.TIMESTAMP, new Date())
+                .build();
+    }
+
+    private static AccountsNotification notification() {
+        return new AccountsNotification(UUID.randomUUID(), BigDecimal.ONE);
+    }
+}
@@ -0,0 +1,51 @@
+package com.renansouza.folio.benchmarks;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import com.renansouza.folio.transactions.models.TransactionType;
+import com.renansouza.folio.transactions.models.TransactionsEntity;
+import com.renansouza.folio.transactions.models.TransactionsRequest;
+import com.renansouza.folio.transactions.models.TransactionsResponse;
+
+class Fixtures {
+
+    private static final String[] BROKERS = {"BROKER A", "BROKER B", "BROKER C"};
+    private static final String[] ASSETS = {"ASSE1", "ASSE11"};
+
+    private Fixtures() {}
+
+    static TransactionsRequest request(int index) {
+        return new TransactionsRequest(LocalDate.now().minusDays(index), type(index), ASSETS[index % ASSETS.length],
+                price(index), index + 1, BigDecimal.valueOf(4.90), BROKERS[index % BROKERS.length]);
+    }
+
+    static TransactionsEntity entity(int index) {
+        var request = request(index);
+        return new TransactionsEntity(index, request.date(), request.type(), request.asset(), request.price(),
+                request.quantity(), request.fee(), request.broker());
+    }
+
+    static List<TransactionsEntity> entities(int size) {
+        return IntStream.range(0, size).mapToObj(Fixtures::entity).toList();
+    }
+
+    static List<TransactionsResponse> responses(int size) {
+        return IntStream.range(0, size)
+                .mapToObj(Fixtures::request)
+                .map(request -> new TransactionsResponse((long) request.quantity(), request.date(), request.type(),
+                        request.asset(), request.price(), request.quantity(), request.fee(), request.broker()))
+                .toList();
+    }
+
+    private static TransactionType type(int index) {
+        return index % 3 == 0 ? TransactionType.SELL : TransactionType.BUY;
+    }
+
+    private static BigDecimal price(int index) {
+        return BigDecimal.valueOf(1000 + index * 37L, 2);
+    }
+
+}
@@ -0,0 +1,89 @@
+package com.renansouza.folio.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.renansouza.folio.transactions.models.AccountsNotification;
+import com.renansouza.folio.transactions.models.TransactionsMapper;
+import com.renansouza.folio.transactions.models.TransactionsOperation;
+import com.renansouza.folio.transactions.models.TransactionsRequest;
+import com.renansouza.folio.transactions.models.TransactionsResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.web.PagedModel;
+
+/**
+ * Jackson round trips of the payloads the service reads and writes. The page is wrapped in a {@link PagedModel}, the
+ * same DTO the API serialises.
+ */
+@Fork(1)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class JsonBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+
+    private ObjectMapper mapper;
+
+    private TransactionsRequest request;
+    private String requestJson;
+
+    private AccountsNotification notification;
+    private String notificationJson;
+
+    private PagedModel<TransactionsResponse> page;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        mapper = JsonMapper.builder().findAndAddModules().build();
+
+        request = Fixtures.request(1);
+        requestJson = mapper.writeValueAsString(request);
+
+        notification = TransactionsMapper.entityToDto(TransactionsOperation.SAVE, Fixtures.entity(1));
+        notificationJson = mapper.writeValueAsString(notification);
+
+        page = new PagedModel<>(new PageImpl<>(Fixtures.responses(PAGE_SIZE), PageRequest.of(0, PAGE_SIZE), 1000));
+    }
+
+    @Benchmark
+    public TransactionsRequest readRequest() throws JsonProcessingException {
+        return mapper.readValue(requestJson, TransactionsRequest.class);
+    }
+
+    @Benchmark
+    public String writeRequest() throws JsonProcessingException {
+        return mapper.writeValueAsString(request);
+    }
+
+    @Benchmark
+    public AccountsNotification readNotification() throws JsonProcessingException {
+        return mapper.readValue(notificationJson, AccountsNotification.class);
+    }
+
+    @Benchmark
+    public String writeNotification() throws JsonProcessingException {
+        return mapper.writeValueAsString(notification);
+    }
+
+    @Benchmark
+    public byte[] writePage() throws JsonProcessingException {
+        return mapper.writeValueAsBytes(page);
+    }
+
+}
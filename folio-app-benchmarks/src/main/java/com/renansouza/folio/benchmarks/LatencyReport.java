@@ -0,0 +1,100 @@
+package com.renansouza.folio.benchmarks;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.renansouza.folio.benchmarks.LoadScenario.Operation;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Latencies and outcomes of the {@link LoadDriver} requests, per operation. Latencies are kept in microseconds with
+ * three significant digits.
+ */
+final class LatencyReport {
+
+    private static final int SIGNIFICANT_DIGITS = 3;
+    private static final double MICROS_PER_MILLI = 1_000d;
+
+    private final Map<Operation, Histogram> latencies = new EnumMap<>(Operation.class);
+    private final Map<Operation, LongAdder> errors = new EnumMap<>(Operation.class);
+    private final Map<Operation, LongAdder> dropped = new EnumMap<>(Operation.class);
+
+    LatencyReport() {
+        for (var operation : Operation.values()) {
+            latencies.put(operation, new ConcurrentHistogram(SIGNIFICANT_DIGITS));
+            errors.put(operation, new LongAdder());
+            dropped.put(operation, new LongAdder());
+        }
+    }
+
+    void record(Operation operation, long latencyNanos, boolean failed) {
+        latencies.get(operation).recordValue(TimeUnit.NANOSECONDS.toMicros(latencyNanos));
+        if (failed) errors.get(operation).increment();
+    }
+
+    /**
+     * Counts a request of the open model that was due but not sent because every client was waiting for a response.
+     */
+    void drop(Operation operation) {
+        dropped.get(operation).increment();
+    }
+
+    long errors() {
+        return errors.values().stream().mapToLong(LongAdder::sum).sum();
+    }
+
+    void reset() {
+        latencies.values().forEach(Histogram::reset);
+        errors.values().forEach(LongAdder::reset);
+        dropped.values().forEach(LongAdder::reset);
+    }
+
+    String summary(String load, Duration elapsed) {
+        var total = new Histogram(SIGNIFICANT_DIGITS);
+        latencies.values().forEach(total::add);
+
+        var summary = new StringBuilder();
+        summary.append("%s elapsed=%.1fs throughput=%.1f req/s%n"
+                .formatted(load, elapsed.toMillis() / 1_000d, total.getTotalCount() * 1_000d / Math.max(elapsed.toMillis(), 1)));
+        summary.append("%-6s %10s %8s %8s %10s %10s %10s %10s%n"
+                .formatted("", "requests", "errors", "dropped", "p50 ms", "p99 ms", "p99.9 ms", "max ms"));
+        for (var operation : Operation.values()) {
+            summary.append(line(operation.name(), latencies.get(operation), errors.get(operation).sum(), dropped.get(operation).sum()));
+        }
+        summary.append(line("ALL", total, errors(), dropped.values().stream().mapToLong(LongAdder::sum).sum()));
+
+        return summary.toString();
+    }
+
+    /**
+     * The percentile distribution of every operation, in milliseconds, in the format HdrHistogram plotters read.
+     */
+    String distributions() {
+        var bytes = new ByteArrayOutputStream();
+        try (var out = new PrintStream(bytes, true, StandardCharsets.UTF_8)) {
+            latencies.forEach((operation, histogram) -> {
+                out.printf("%n%s%n", operation);
+                if (histogram.getTotalCount() > 0) histogram.outputPercentileDistribution(out, 5, MICROS_PER_MILLI);
+            });
+        }
+
+        return bytes.toString(StandardCharsets.UTF_8);
+    }
+
+    private static String line(String name, Histogram histogram, long errors, long dropped) {
+        return "%-6s %10d %8d %8d %10.2f %10.2f %10.2f %10.2f%n".formatted(name, histogram.getTotalCount(), errors, dropped,
+                millis(histogram, 50), millis(histogram, 99), millis(histogram, 99.9), histogram.getMaxValue() / MICROS_PER_MILLI);
+    }
+
+    private static double millis(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / MICROS_PER_MILLI;
+    }
+
+}
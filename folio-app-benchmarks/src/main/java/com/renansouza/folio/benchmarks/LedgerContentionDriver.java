@@ -0,0 +1,115 @@
+package com.renansouza.folio.benchmarks;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sustained balance updates per second on a single account, applied the way the accounts service used to, updating
+ * the account row, against appending to the account ledger while it is compacted in the background. Each update is
+ * its own transaction, so the row lock is held until the commit as it is in the listener.
+ *
+ * <p>Runs against the accounts database after its migrations:
+ * {@code java -cp target/benchmarks.jar com.renansouza.folio.benchmarks.LedgerContentionDriver <jdbc-url> <user> <password> [consumers] [seconds]}
+ */
+public class LedgerContentionDriver {
+
+    private static final int DEFAULT_CONSUMERS = 8;
+    private static final int DEFAULT_SECONDS = 30;
+    private static final BigDecimal AMOUNT = new BigDecimal("0.01");
+
+    private static final String CREATE = "INSERT INTO accounts (id, broker, amount) VALUES (?, ?, 0)";
+    private static final String UPDATE = "UPDATE accounts SET amount = amount + ?, version = version + 1 WHERE id = ? AND deleted = false";
+    private static final String APPEND = "INSERT INTO account_ledger (account_id, amount) SELECT id, ? FROM accounts WHERE id = ? AND deleted = false";
+    private static final String COMPACT = """
+            WITH folded AS (
+                DELETE FROM account_ledger WHERE id IN (
+                    SELECT id FROM account_ledger ORDER BY id LIMIT 10000 FOR UPDATE SKIP LOCKED)
+                RETURNING account_id, amount
+            ), totals AS (
+                SELECT account_id, SUM(amount) AS amount FROM folded GROUP BY account_id
+            )
+            UPDATE accounts a SET amount = a.amount + t.amount, version = a.version + 1
+            FROM totals t WHERE a.id = t.account_id
+            """;
+    private static final String DELETE = "DELETE FROM accounts WHERE id = ?";
+
+    private LedgerContentionDriver() {}
+
+    public static void main(String[] args) throws Exception {
+        var url = args[0];
+        var user = args[1];
+        var password = args[2];
+        var consumers = args.length > 3 ? Integer.parseInt(args[3]) : DEFAULT_CONSUMERS;
+        var seconds = args.length > 4 ? Integer.parseInt(args[4]) : DEFAULT_SECONDS;
+
+        var account = UUID.randomUUID();
+        try (var connection = DriverManager.getConnection(url, user, password)) {
+            execute(connection, CREATE, account, "BENCHMARK " + account);
+            try {
+                report("row update", run(url, user, password, account, UPDATE, consumers, seconds, false), seconds);
+                report("ledger append", run(url, user, password, account, APPEND, consumers, seconds, true), seconds);
+            } finally {
+                execute(connection, COMPACT);
+                execute(connection, DELETE, account);
+            }
+        }
+    }
+
+    private static long run(String url, String user, String password, UUID account, String sql, int consumers, int seconds,
+                            boolean compact) throws Exception {
+        var deadline = System.nanoTime() + Duration.ofSeconds(seconds).toNanos();
+        try (var executor = Executors.newFixedThreadPool(consumers + 1)) {
+            var futures = new ArrayList<Future<Long>>(consumers);
+            for (int i = 0; i < consumers; i++) {
+                futures.add(executor.submit(() -> {
+                    var updates = 0L;
+                    try (var connection = DriverManager.getConnection(url, user, password);
+                         var statement = connection.prepareStatement(sql)) {
+                        while (System.nanoTime() < deadline) {
+                            statement.setBigDecimal(1, AMOUNT);
+                            statement.setObject(2, account);
+                            updates += statement.executeUpdate();
+                        }
+                    }
+                    return updates;
+                }));
+            }
+
+            if (compact) {
+                executor.submit(() -> {
+                    try (var connection = DriverManager.getConnection(url, user, password)) {
+                        while (System.nanoTime() < deadline) {
+                            execute(connection, COMPACT);
+                            TimeUnit.SECONDS.sleep(1);
+                        }
+                    }
+                    return null;
+                });
+            }
+
+            var total = 0L;
+            for (var future : futures) total += future.get();
+            return total;
+        }
+    }
+
+    private static void execute(Connection connection, String sql, Object... arguments) throws SQLException {
+        try (var statement = connection.prepareStatement(sql)) {
+            for (int i = 0; i < arguments.length; i++) statement.setObject(i + 1, arguments[i]);
+            statement.executeUpdate();
+        }
+    }
+
+    private static void report(String mode, long updates, int seconds) {
+        System.out.printf("%s: updates=%d throughput=%.1f updates/s%n", mode, updates, (double) updates / seconds);
+    }
+
+}
@@ -0,0 +1,164 @@
+package com.renansouza.folio.benchmarks;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * HTTP load driver of the transactions service, mixing reads with writes of generated transactions.
+ *
+ * <p>Without a rate it runs closed-loop, as used to compare a service running on platform threads against the same
+ * service with {@code VIRTUAL_THREADS_ENABLED=true}: each client sends a request, waits for the response and sends the
+ * next one until the duration ends, so the reported throughput is the maximum the service sustains at that
+ * concurrency. With a rate it runs open-model, to catch regressions before deploy: requests are due at a constant
+ * arrival rate whatever the response times, with at most {@code clients} waiting for a response, and each latency is
+ * measured from the time its request was due, so a stalled service shows up in the percentiles instead of just slowing
+ * the load down.
+ *
+ * <p>The service is seeded with transactions first so reads return full pages. After the warmup it prints the
+ * throughput, errors and p50/p99/p99.9/max latencies, and writes them with the HdrHistogram percentile distributions
+ * to {@code load-report.txt}.
+ *
+ * <p>Usage: {@code java -cp target/benchmarks.jar com.renansouza.folio.benchmarks.LoadDriver <url> [clients] [seconds] [rate] [read-ratio]},
+ * or run {@code LoadTest} to drive a service started in process.
+ */
+public class LoadDriver {
+
+    private static final int DEFAULT_CLIENTS = 2000;
+    private static final int DEFAULT_SECONDS = 60;
+    private static final int WARMUP_SECONDS = 10;
+    private static final int SEED_TRANSACTIONS = 10_000;
+    private static final int SEED_BATCH_SIZE = 1_000;
+    private static final long SEED = 42;
+    private static final Duration DRAIN_TIMEOUT = Duration.ofSeconds(60);
+    private static final Path REPORT = Path.of("load-report.txt");
+
+    private LoadDriver() {}
+
+    public static void main(String[] args) throws Exception {
+        var uri = URI.create(args[0]);
+        var clients = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_CLIENTS;
+        var seconds = args.length > 2 ? Integer.parseInt(args[2]) : DEFAULT_SECONDS;
+        var rate = args.length > 3 ? Integer.parseInt(args[3]) : 0;
+        var readRatio = args.length > 4 ? Double.parseDouble(args[4]) : 1;
+
+        load(uri, clients, seconds, rate, readRatio);
+    }
+
+    /**
+     * Seeds the service, warms it up and measures it, then prints and writes the report. A rate of zero runs
+     * closed-loop.
+     */
+    static LatencyReport load(URI uri, int clients, int seconds, int rate, double readRatio) throws Exception {
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor();
+             var client = HttpClient.newBuilder().executor(executor).connectTimeout(Duration.ofSeconds(10)).build()) {
+            var scenario = new LoadScenario(uri, readRatio, SEED);
+            seed(client, scenario);
+
+            var report = new LatencyReport();
+            run(client, executor, scenario, report, clients, rate, WARMUP_SECONDS);
+            report.reset();
+
+            var started = System.nanoTime();
+            run(client, executor, scenario, report, clients, rate, seconds);
+            var elapsed = Duration.ofNanos(System.nanoTime() - started);
+
+            var load = rate > 0 ? "rate=%d req/s max-in-flight=%d".formatted(rate, clients) : "clients=%d".formatted(clients);
+            var summary = report.summary(load, elapsed);
+            System.out.print(summary);
+            Files.writeString(REPORT, summary + report.distributions());
+            System.out.println("report written to " + REPORT.toAbsolutePath());
+            return report;
+        }
+    }
+
+    private static void run(HttpClient client, ExecutorService executor, LoadScenario scenario, LatencyReport report,
+                            int clients, int rate, int seconds) throws Exception {
+        if (rate > 0) {
+            open(client, scenario, report, clients, rate, seconds);
+        } else {
+            closed(client, executor, scenario, report, clients, seconds);
+        }
+    }
+
+    private static void closed(HttpClient client, ExecutorService executor, LoadScenario scenario, LatencyReport report,
+                               int clients, int seconds) throws Exception {
+        var deadline = System.nanoTime() + Duration.ofSeconds(seconds).toNanos();
+
+        var futures = new ArrayList<Future<?>>(clients);
+        for (int i = 0; i < clients; i++) {
+            var requests = scenario.split();
+            futures.add(executor.submit(() -> {
+                while (System.nanoTime() < deadline) {
+                    var request = requests.next();
+                    var start = System.nanoTime();
+                    var failed = true;
+                    try {
+                        failed = client.send(request.http(), HttpResponse.BodyHandlers.discarding()).statusCode() >= 400;
+                    } catch (IOException ex) {
+                        // counted as an error
+                    }
+                    report.record(request.operation(), System.nanoTime() - start, failed);
+                }
+                return null;
+            }));
+        }
+
+        for (var future : futures) future.get();
+    }
+
+    /**
+     * Each request is due at a fixed offset from the start, so a late one is sent right away rather than pushing the
+     * following ones back.
+     */
+    private static void open(HttpClient client, LoadScenario scenario, LatencyReport report, int clients, int rate,
+                             int seconds) throws InterruptedException {
+        var inFlight = new Semaphore(clients);
+        var start = System.nanoTime();
+        var end = start + Duration.ofSeconds(seconds).toNanos();
+        for (long sent = 0; ; sent++) {
+            var due = start + (long) (sent * 1_000_000_000d / rate);
+            if (due >= end) break;
+
+            var wait = due - System.nanoTime();
+            if (wait > 0) LockSupport.parkNanos(wait);
+
+            var request = scenario.next();
+            if (!inFlight.tryAcquire()) {
+                report.drop(request.operation());
+                continue;
+            }
+
+            client.sendAsync(request.http(), HttpResponse.BodyHandlers.discarding()).whenComplete((response, ex) -> {
+                inFlight.release();
+                report.record(request.operation(), System.nanoTime() - due, Objects.nonNull(ex) || response.statusCode() >= 400);
+            });
+        }
+
+        if (!inFlight.tryAcquire(clients, DRAIN_TIMEOUT.toNanos(), TimeUnit.NANOSECONDS)) {
+            System.out.printf("some requests were still in flight after %ds%n", DRAIN_TIMEOUT.toSeconds());
+        }
+    }
+
+    private static void seed(HttpClient client, LoadScenario scenario) throws IOException, InterruptedException {
+        for (int seeded = 0; seeded < SEED_TRANSACTIONS; seeded += SEED_BATCH_SIZE) {
+            var response = client.send(scenario.seed(SEED_BATCH_SIZE), HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() >= 400) {
+                throw new IllegalStateException("Seeding failed with " + response.statusCode() + ": " + response.body());
+            }
+        }
+    }
+
+}
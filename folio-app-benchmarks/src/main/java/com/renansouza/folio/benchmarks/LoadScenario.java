@@ -0,0 +1,93 @@
+package com.renansouza.folio.benchmarks;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.SplittableRandom;
+import java.util.StringJoiner;
+
+import com.renansouza.folio.transactions.models.TransactionsRequest;
+
+/**
+ * The mixed workload of {@link LoadDriver}. Reads page through the transactions of a broker, by cursor, or of an
+ * asset, by offset; writes create a transaction drawn from the {@link Fixtures}. Not thread safe, each client of the
+ * closed loop works on its own {@link #split()}.
+ */
+final class LoadScenario {
+
+    enum Operation { READ, WRITE }
+
+    record Request(Operation operation, HttpRequest http) { }
+
+    private static final String PATH = "/v1/transactions";
+    private static final int FIXTURES = 365;
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    private final URI target;
+    private final double readRatio;
+    private final SplittableRandom random;
+
+    LoadScenario(URI target, double readRatio, long seed) {
+        this(target, readRatio, new SplittableRandom(seed));
+    }
+
+    private LoadScenario(URI target, double readRatio, SplittableRandom random) {
+        this.target = target;
+        this.readRatio = readRatio;
+        this.random = random;
+    }
+
+    LoadScenario split() {
+        return new LoadScenario(target, readRatio, random.split());
+    }
+
+    Request next() {
+        if (random.nextDouble() < readRatio) return new Request(Operation.READ, read());
+
+        return new Request(Operation.WRITE, post(PATH, json(fixture())));
+    }
+
+    /**
+     * Creates the given number of transactions through the batch endpoint, so reads return full pages.
+     */
+    HttpRequest seed(int size) {
+        var transactions = new StringJoiner(",", "{\"transactions\":[", "]}");
+        for (int i = 0; i < size; i++) transactions.add(json(fixture()));
+
+        return post(PATH + "/batch", transactions.toString());
+    }
+
+    private HttpRequest read() {
+        var query = random.nextBoolean()
+                ? "broker=" + encode(fixture().broker()) + "&after="
+                : "asset=" + fixture().asset() + "&pageNumber=" + random.nextInt(5);
+
+        return HttpRequest.newBuilder(target.resolve(PATH + "?" + query)).timeout(TIMEOUT).GET().build();
+    }
+
+    private HttpRequest post(String path, String body) {
+        return HttpRequest.newBuilder(target.resolve(path))
+                .timeout(TIMEOUT)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private TransactionsRequest fixture() {
+        return Fixtures.request(random.nextInt(FIXTURES));
+    }
+
+    private static String json(TransactionsRequest request) {
+        return """
+                {"date":"%s","type":"%s","asset":"%s","price":%s,"quantity":%d,"fee":%s,"broker":"%s"}"""
+                .formatted(request.date(), request.type(), request.asset(), request.price(), request.quantity(),
+                        request.fee(), request.broker());
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8).replace("+", "%20");
+    }
+
+}
@@ -0,0 +1,55 @@
+package com.renansouza.folio.benchmarks;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+import com.renansouza.folio.transactions.models.Money;
+import com.renansouza.folio.transactions.models.TransactionType;
+import com.renansouza.folio.transactions.models.TransactionsEntity;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the notification amount computed with {@link BigDecimal}, as the mapper used to do, against {@link Money}.
+ */
+@Fork(1)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class MoneyBenchmark {
+
+    private static final BigDecimal MINUS_ONE = BigDecimal.valueOf(-1);
+
+    private TransactionsEntity entity;
+
+    @Setup
+    public void setUp() {
+        entity = Fixtures.entity(1);
+    }
+
+    @Benchmark
+    public BigDecimal bigDecimal() {
+        var total = entity.getPrice().multiply(BigDecimal.valueOf(entity.getQuantity()));
+        var totalWithFee = TransactionType.BUY.equals(entity.getType()) ? total.add(entity.getFee()) : total.subtract(entity.getFee());
+        return totalWithFee.multiply(MINUS_ONE);
+    }
+
+    @Benchmark
+    public Money money() {
+        var fee = Money.of(entity.getFee());
+        var total = Money.of(entity.getPrice()).times(entity.getQuantity());
+        var totalWithFee = TransactionType.BUY.equals(entity.getType()) ? total.plus(fee) : total.minus(fee);
+        return totalWithFee.negate();
+    }
+
+}
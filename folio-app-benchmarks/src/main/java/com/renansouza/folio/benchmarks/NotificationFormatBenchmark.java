@@ -0,0 +1,85 @@
+package com.renansouza.folio.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import com.renansouza.folio.transactions.config.AccountsNotificationConverter;
+import com.renansouza.folio.transactions.models.AccountsNotification;
+import com.renansouza.folio.transactions.models.TransactionsMapper;
+import com.renansouza.folio.transactions.models.TransactionsOperation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.amqp.support.converter.MessageConverter;
+
+/**
+ * Encodes and decodes an account notification through the AMQP message converters, JSON against the binary layout.
+ * The setup prints the bytes each format puts on the wire, body and headers, next to the results.
+ */
+@Fork(1)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class NotificationFormatBenchmark {
+
+    private MessageConverter json;
+    private MessageConverter binary;
+
+    private AccountsNotification notification;
+    private Message jsonMessage;
+    private Message binaryMessage;
+
+    @Setup
+    public void setUp() {
+        var jackson = new Jackson2JsonMessageConverter();
+        json = new AccountsNotificationConverter(jackson, false);
+        binary = new AccountsNotificationConverter(jackson, true);
+
+        notification = TransactionsMapper.entityToDto(TransactionsOperation.SAVE, Fixtures.entity(1));
+        jsonMessage = json.toMessage(notification, new MessageProperties());
+        binaryMessage = binary.toMessage(notification, new MessageProperties());
+
+        System.out.printf("%nBytes on the wire: json %s, binary %s%n", size(jsonMessage), size(binaryMessage));
+    }
+
+    @Benchmark
+    public Message writeJson() {
+        return json.toMessage(notification, new MessageProperties());
+    }
+
+    @Benchmark
+    public Message writeBinary() {
+        return binary.toMessage(notification, new MessageProperties());
+    }
+
+    @Benchmark
+    public Object readJson() {
+        return json.fromMessage(jsonMessage);
+    }
+
+    @Benchmark
+    public Object readBinary() {
+        return binary.fromMessage(binaryMessage);
+    }
+
+    private static String size(Message message) {
+        var properties = message.getMessageProperties();
+        var headers = properties.getContentType().length() + properties.getHeaders().entrySet().stream()
+                .mapToInt(header -> header.getKey().length() + String.valueOf(header.getValue()).length())
+                .sum();
+
+        return "%d body + %d content type and headers".formatted(message.getBody().length, headers);
+    }
+
+}
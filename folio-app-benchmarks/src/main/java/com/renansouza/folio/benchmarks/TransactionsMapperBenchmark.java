@@ -0,0 +1,70 @@
+package com.renansouza.folio.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import com.renansouza.folio.transactions.models.AccountsNotification;
+import com.renansouza.folio.transactions.models.TransactionsEntity;
+import com.renansouza.folio.transactions.models.TransactionsMapper;
+import com.renansouza.folio.transactions.models.TransactionsOperation;
+import com.renansouza.folio.transactions.models.TransactionsRequest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@Fork(1)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class TransactionsMapperBenchmark {
+
+    private TransactionsRequest request;
+    private TransactionsEntity entity;
+
+    @State(Scope.Benchmark)
+    public static class Batch {
+
+        @Param({"1", "100", "10000"})
+        private int size;
+
+        private List<TransactionsEntity> entities;
+
+        @Setup
+        public void setUp() {
+            entities = Fixtures.entities(size);
+        }
+
+    }
+
+    @Setup
+    public void setUp() {
+        request = Fixtures.request(1);
+        entity = Fixtures.entity(1);
+    }
+
+    @Benchmark
+    public TransactionsEntity dtoToEntity() {
+        return TransactionsMapper.dtoToEntity(request);
+    }
+
+    @Benchmark
+    public AccountsNotification entityToDto() {
+        return TransactionsMapper.entityToDto(TransactionsOperation.SAVE, entity);
+    }
+
+    @Benchmark
+    public List<AccountsNotification> entitiesToDto(Batch batch) {
+        return TransactionsMapper.entitiesToDto(TransactionsOperation.SAVE, batch.entities);
+    }
+
+}
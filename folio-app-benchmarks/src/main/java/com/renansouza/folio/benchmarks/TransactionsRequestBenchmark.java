@@ -0,0 +1,73 @@
+package com.renansouza.folio.benchmarks;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import com.renansouza.folio.transactions.models.TransactionType;
+import com.renansouza.folio.transactions.models.TransactionsRequest;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.hibernate.validator.messageinterpolation.ParameterMessageInterpolator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@Fork(1)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class TransactionsRequestBenchmark {
+
+    private Validator validator;
+
+    private LocalDate date;
+    private BigDecimal price;
+    private BigDecimal fee;
+
+    private TransactionsRequest valid;
+    private TransactionsRequest invalid;
+
+    @Setup
+    public void setUp() {
+        validator = Validation.byDefaultProvider()
+                .configure()
+                .messageInterpolator(new ParameterMessageInterpolator())
+                .buildValidatorFactory()
+                .getValidator();
+
+        date = LocalDate.now();
+        price = BigDecimal.valueOf(10.37);
+        fee = BigDecimal.valueOf(4.90);
+
+        valid = Fixtures.request(1);
+        invalid = new TransactionsRequest(date.plusDays(1), TransactionType.BUY, "ASSET123", price.negate(), 1, fee, "B");
+    }
+
+    @Benchmark
+    public TransactionsRequest construct() {
+        return new TransactionsRequest(date, TransactionType.BUY, "asse11", price, 100, fee, "broker a");
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<TransactionsRequest>> validate() {
+        return validator.validate(valid);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<TransactionsRequest>> validateInvalid() {
+        return validator.validate(invalid);
+    }
+
+}
@@ -0,0 +1,48 @@
+package com.renansouza.folio.benchmarks;
+
+import java.net.URI;
+
+import com.renansouza.folio.transactions.TransactionsApplication;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Self-contained load test: boots the transactions service on a random port against an in-memory H2 database and
+ * hands it to {@link LoadDriver}. No broker is needed, the outbox relay is parked as notifications are published off
+ * the measured path. Tagged {@code Load}, so it only runs with the {@code load-test} profile; the load is set with
+ * {@code -Dload.clients}, {@code -Dload.seconds}, {@code -Dload.rate} and {@code -Dload.readRatio}.
+ */
+@Tag("Load")
+@SpringBootTest(
+        classes = TransactionsApplication.class,
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "spring.datasource.url=jdbc:h2:mem:loadtest;DB_CLOSE_DELAY=-1",
+                "spring.datasource.username=sa",
+                "spring.datasource.password=",
+                "application.outbox.relayDelay=86400000",
+                "logging.level.root=WARN",
+        })
+class LoadTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Test
+    @DisplayName("should serve the mixed workload without errors.")
+    void load() throws Exception {
+        var report = LoadDriver.load(URI.create("http://localhost:" + port),
+                Integer.getInteger("load.clients", 50),
+                Integer.getInteger("load.seconds", 30),
+                Integer.getInteger("load.rate", 200),
+                Double.parseDouble(System.getProperty("load.readRatio", "0.8")));
+
+        assertThat(report.errors()).isZero();
+    }
+
+}
@@ -0,0 +1,122 @@
+package com.renansouza.folio.transactions;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Objects;
+import java.util.Optional;
+
+import com.renansouza.folio.transactions.exceptions.IdempotencyKeyConflictException;
+import com.renansouza.folio.transactions.exceptions.InvalidIdempotencyKeyException;
+import com.renansouza.folio.transactions.models.IdempotencyKeyEntity;
+import com.renansouza.folio.transactions.models.TransactionsRequest;
+import lombok.SneakyThrows;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Recent idempotency keys, kept in the idempotency_keys table with a bounded in-memory cache in front of it, so most
+ * retries are answered without touching the database.
+ */
+@Component
+public class IdempotencyKeys {
+
+    public static final String NAME = "idempotencyCache";
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final IdempotencyRepository repository;
+    private final CacheManager cacheManager;
+    private final Duration retention;
+
+    public IdempotencyKeys(IdempotencyRepository repository,
+                           CacheManager cacheManager,
+                           @Value("${application.idempotency.retention:86400000}") long retention) {
+        this.repository = repository;
+        this.cacheManager = cacheManager;
+        this.retention = Duration.ofMillis(retention);
+    }
+
+    Optional<IdempotencyKeyEntity> find(String key) {
+        var cache = cache();
+        var cached = cache.get(key, IdempotencyKeyEntity.class);
+        if (Objects.nonNull(cached)) return Optional.of(cached);
+
+        var stored = repository.findById(key);
+        stored.ifPresent(entity -> cache.put(key, entity));
+        return stored;
+    }
+
+    /**
+     * Stores the key of a created transaction. A concurrent request holding the same key waits on the primary key and
+     * fails with {@link IdempotencyKeyConflictException} once the first one commits. The key only reaches the cache
+     * after the commit, so a rolled back transaction is never replayed.
+     */
+    void save(String key, String fingerprint, long transactionId) {
+        var entity = new IdempotencyKeyEntity(key, fingerprint, transactionId, Instant.now());
+        try {
+            repository.saveAndFlush(entity);
+        } catch (DataIntegrityViolationException ex) {
+            throw new IdempotencyKeyConflictException(key);
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache().put(key, entity);
+                }
+            });
+            return;
+        }
+
+        cache().put(key, entity);
+    }
+
+    @Transactional
+    @Scheduled(fixedDelayString = "${application.idempotency.purgeDelay:3600000}")
+    public void purge() {
+        repository.deleteCreatedBefore(Instant.now().minus(retention));
+    }
+
+    static void validate(String key) {
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) throw new InvalidIdempotencyKeyException(key);
+    }
+
+    /**
+     * Hashes the fields in a fixed order, with amounts stripped of trailing zeros, so the same transaction sent as
+     * {@code 10.5} or {@code 10.50} has the same fingerprint.
+     */
+    @SneakyThrows
+    static String fingerprint(TransactionsRequest request) {
+        var canonical = String.join("|",
+                String.valueOf(request.date()),
+                String.valueOf(request.type()),
+                request.asset(),
+                amount(request.price()),
+                String.valueOf(request.quantity()),
+                amount(request.fee()),
+                request.broker());
+        var digest = MessageDigest.getInstance("SHA-256").digest(canonical.getBytes(StandardCharsets.UTF_8));
+        return HexFormat.of().formatHex(digest);
+    }
+
+    private static String amount(BigDecimal amount) {
+        return Objects.isNull(amount) ? "null" : amount.stripTrailingZeros().toPlainString();
+    }
+
+    private Cache cache() {
+        return Objects.requireNonNull(cacheManager.getCache(NAME));
+    }
+
+}
@@ -0,0 +1,17 @@
+package com.renansouza.folio.transactions;
+
+import java.time.Instant;
+
+import com.renansouza.folio.transactions.models.IdempotencyKeyEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface IdempotencyRepository extends JpaRepository<IdempotencyKeyEntity, String> {
+
+    @Modifying
+    @Query("DELETE FROM IdempotencyKeyEntity i WHERE i.createdAt < :before")
+    void deleteCreatedBefore(@Param("before") Instant before);
+
+}
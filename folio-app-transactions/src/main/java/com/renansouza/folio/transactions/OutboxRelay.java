@@ -0,0 +1,146 @@
+package com.renansouza.folio.transactions;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.renansouza.folio.transactions.models.OutboxEntity;
+import com.renansouza.folio.transactions.models.TransactionsMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionOperations;
+
+/**
+ * Drains the outbox to RabbitMQ. Messages are only marked as sent once the broker confirms them, so a failure leaves
+ * them pending for the next run (at-least-once delivery).
+ * <p>
+ * Messages are claimed and marked in short transactions, and confirms are awaited outside of them, so a slow broker
+ * never holds row locks nor a connection. A claim expires after {@code application.outbox.claimTimeout} milliseconds,
+ * which lets another relay take over the messages of one that died while publishing.
+ */
+@Slf4j
+@Component
+public class OutboxRelay {
+
+    private final OutboxRepository repository;
+    private final TransactionsNotification notification;
+    private final TransactionOperations transactions;
+    private final int batchSize;
+    private final Duration confirmTimeout;
+    private final Duration claimTimeout;
+    private final Duration retention;
+
+    private final AtomicLong lag = new AtomicLong();
+    private final Counter sent;
+
+    public OutboxRelay(OutboxRepository repository,
+                       TransactionsNotification notification,
+                       TransactionOperations transactions,
+                       MeterRegistry registry,
+                       @Value("${application.outbox.batchSize:500}") int batchSize,
+                       @Value("${application.outbox.confirmTimeout:5000}") long confirmTimeout,
+                       @Value("${application.outbox.claimTimeout:60000}") long claimTimeout,
+                       @Value("${application.outbox.retention:604800000}") long retention) {
+        this.repository = repository;
+        this.notification = notification;
+        this.transactions = transactions;
+        this.batchSize = batchSize;
+        this.confirmTimeout = Duration.ofMillis(confirmTimeout);
+        this.claimTimeout = Duration.ofMillis(claimTimeout);
+        this.retention = Duration.ofMillis(retention);
+
+        TimeGauge.builder("transactions.outbox.lag", lag, TimeUnit.MILLISECONDS, AtomicLong::get)
+                .description("Age of the oldest outbox message not yet confirmed by the broker")
+                .register(registry);
+        this.sent = Counter.builder("transactions.outbox.sent")
+                .description("Outbox messages confirmed by the broker")
+                .register(registry);
+    }
+
+    @Scheduled(fixedDelayString = "${application.outbox.relayDelay:500}")
+    public void relay() {
+        var pending = claim();
+        if (!pending.isEmpty()) publish(pending);
+
+        lag.set(repository.findOldestPending()
+                .map(oldest -> Duration.between(oldest, Instant.now()).toMillis())
+                .orElse(0L));
+    }
+
+    @Transactional
+    @Scheduled(fixedDelayString = "${application.outbox.purgeDelay:3600000}")
+    public void purge() {
+        repository.deleteSentBefore(Instant.now().minus(retention));
+    }
+
+    /**
+     * Locks the oldest pending messages and claims them for this relay, releasing the locks right away.
+     */
+    private List<OutboxEntity> claim() {
+        return transactions.execute(status -> {
+            var now = Instant.now();
+            var pending = repository.findPending(now, Limit.of(batchSize));
+            if (!pending.isEmpty()) repository.claim(pending.stream().map(OutboxEntity::getId).toList(), now.plus(claimTimeout));
+            return pending;
+        });
+    }
+
+    /**
+     * Publishes the claimed messages and waits for their confirms, then marks the confirmed ones as sent and releases
+     * the others for the next run.
+     */
+    private void publish(List<OutboxEntity> pending) {
+        var confirmations = new ArrayList<CompletableFuture<CorrelationData.Confirm>>(pending.size());
+        try {
+            for (OutboxEntity message : pending) {
+                confirmations.add(notification.sendAccountQueueMessage(String.valueOf(message.getId()), message.getCreatedAt(), TransactionsMapper.outboxToDto(message)));
+            }
+        } catch (AmqpException ex) {
+            log.warn("Failed to publish outbox messages, they will be retried", ex);
+        }
+
+        var confirmed = new ArrayList<Long>(confirmations.size());
+        var unconfirmed = new ArrayList<Long>(pending.size());
+        var deadline = System.nanoTime() + confirmTimeout.toNanos();
+        for (int i = 0; i < pending.size(); i++) {
+            if (i < confirmations.size() && isAcknowledged(confirmations.get(i), deadline)) {
+                confirmed.add(pending.get(i).getId());
+            } else {
+                unconfirmed.add(pending.get(i).getId());
+            }
+        }
+
+        transactions.executeWithoutResult(status -> {
+            if (!confirmed.isEmpty()) repository.markSent(confirmed, Instant.now());
+            if (!unconfirmed.isEmpty()) repository.release(unconfirmed);
+        });
+        sent.increment(confirmed.size());
+    }
+
+    private static boolean isAcknowledged(CompletableFuture<CorrelationData.Confirm> confirmation, long deadline) {
+        try {
+            return confirmation.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS).isAck();
+        } catch (ExecutionException | TimeoutException ex) {
+            return false;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+}
@@ -0,0 +1,49 @@
+package com.renansouza.folio.transactions;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import com.renansouza.folio.transactions.models.OutboxEntity;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+public interface OutboxRepository extends JpaRepository<OutboxEntity, Long> {
+
+    /**
+     * Locks the oldest pending messages not claimed by a relay, skipping the ones already locked so several relays can
+     * claim in parallel.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT o FROM OutboxEntity o WHERE o.sentAt IS NULL AND (o.claimedUntil IS NULL OR o.claimedUntil < :now) ORDER BY o.id")
+    List<OutboxEntity> findPending(@Param("now") Instant now, Limit limit);
+
+    @Modifying
+    @Query("UPDATE OutboxEntity o SET o.claimedUntil = :claimedUntil WHERE o.id IN :ids")
+    void claim(@Param("ids") Collection<Long> ids, @Param("claimedUntil") Instant claimedUntil);
+
+    @Query("SELECT MIN(o.createdAt) FROM OutboxEntity o WHERE o.sentAt IS NULL")
+    Optional<Instant> findOldestPending();
+
+    @Modifying
+    @Query("UPDATE OutboxEntity o SET o.sentAt = :sentAt, o.claimedUntil = NULL WHERE o.id IN :ids")
+    void markSent(@Param("ids") Collection<Long> ids, @Param("sentAt") Instant sentAt);
+
+    @Modifying
+    @Query("UPDATE OutboxEntity o SET o.claimedUntil = NULL WHERE o.id IN :ids")
+    void release(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("DELETE FROM OutboxEntity o WHERE o.sentAt < :before")
+    void deleteSentBefore(@Param("before") Instant before);
+
+}
@@ -0,0 +1,49 @@
+package com.renansouza.folio.transactions;
+
+import java.util.List;
+
+import com.renansouza.folio.transactions.models.PositionsResponse;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/v1/positions")
+@Tag(name = "positions", description = "Positions APIs")
+@ApiResponses(value = {
+        @ApiResponse(responseCode = "500", description = "Something went wrong"),
+})
+public class PositionsController {
+
+    private final PositionsService service;
+
+    @Operation(
+            summary = "Get the current positions",
+            description = "Quantity, average cost and total invested of each asset held, kept up to date as transactions are saved or deleted.")
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Found one or more positions",
+                    content = { @Content(schema = @Schema(implementation = PositionsResponse[].class)) }),
+            @ApiResponse(
+                    responseCode = "204",
+                    description = "Found zero positions")
+    })
+    @GetMapping
+    ResponseEntity<List<PositionsResponse>> getPositions(@RequestParam(required = false) String broker) {
+        var positions = service.find(broker);
+        if (positions.isEmpty()) return ResponseEntity.noContent().build();
+        return ResponseEntity.ok(positions);
+    }
+
+}
@@ -0,0 +1,13 @@
+package com.renansouza.folio.transactions;
+
+import com.renansouza.folio.transactions.models.PositionsId;
+
+public interface PositionsCreateRepository {
+
+    /**
+     * Inserts an empty position unless one already exists, waiting for a concurrent insert of the same one instead of
+     * failing on its key.
+     */
+    void createIfAbsent(PositionsId id);
+
+}
@@ -0,0 +1,44 @@
+package com.renansouza.folio.transactions;
+
+import java.sql.DatabaseMetaData;
+import javax.sql.DataSource;
+
+import com.renansouza.folio.transactions.models.PositionsId;
+import jakarta.persistence.EntityManager;
+import org.springframework.boot.jdbc.DatabaseDriver;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+
+/**
+ * Postgres skips the insert on a key conflict, after waiting for the concurrent transaction holding it. Other
+ * databases, H2 in tests and development, get the equivalent standard {@code MERGE}.
+ */
+class PositionsCreateRepositoryImpl implements PositionsCreateRepository {
+
+    private static final String COLUMNS = "(broker, asset, quantity, bought_quantity, bought_cost, average_cost, total_invested)";
+
+    private static final String INSERT = "INSERT INTO positions " + COLUMNS + " VALUES (?1, ?2, 0, 0, 0, 0, 0) ON CONFLICT DO NOTHING";
+
+    private static final String MERGE = """
+            MERGE INTO positions p USING (VALUES (?1, ?2)) v (broker, asset) ON p.broker = v.broker AND p.asset = v.asset
+            WHEN NOT MATCHED THEN INSERT %s VALUES (v.broker, v.asset, 0, 0, 0, 0, 0)
+            """.formatted(COLUMNS);
+
+    private final EntityManager entityManager;
+    private final String statement;
+
+    PositionsCreateRepositoryImpl(EntityManager entityManager, DataSource dataSource) throws MetaDataAccessException {
+        this.entityManager = entityManager;
+        var product = JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDatabaseProductName);
+        this.statement = DatabaseDriver.POSTGRESQL.equals(DatabaseDriver.fromProductName(product)) ? INSERT : MERGE;
+    }
+
+    @Override
+    public void createIfAbsent(PositionsId id) {
+        entityManager.createNativeQuery(statement)
+                .setParameter(1, id.broker())
+                .setParameter(2, id.asset())
+                .executeUpdate();
+    }
+
+}
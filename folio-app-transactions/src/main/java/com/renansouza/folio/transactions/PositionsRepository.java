@@ -0,0 +1,51 @@
+package com.renansouza.folio.transactions;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import com.renansouza.folio.transactions.models.PositionsEntity;
+import com.renansouza.folio.transactions.models.PositionsId;
+import com.renansouza.folio.transactions.models.PositionsResponse;
+import com.renansouza.folio.transactions.models.TransactionsEntity;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+
+public interface PositionsRepository extends JpaRepository<PositionsEntity, PositionsId>, PositionsCreateRepository {
+
+    String QUERY = """
+            SELECT new com.renansouza.folio.transactions.models.PositionsResponse
+            (p.id.broker, p.id.asset, p.quantity, p.averageCost, p.totalInvested)
+            FROM PositionsEntity p
+            """;
+
+    String ORDER = " ORDER BY p.id.broker, p.id.asset";
+
+    @Query(QUERY + ORDER)
+    List<PositionsResponse> findAllPositions();
+
+    @Query(QUERY + " WHERE p.id.broker = :broker" + ORDER)
+    List<PositionsResponse> findAllPositionsByBroker(@Param("broker") String broker);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM PositionsEntity p WHERE p.id = :id")
+    Optional<PositionsEntity> findForUpdate(@Param("id") PositionsId id);
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT t FROM TransactionsEntity t WHERE t.broker = :broker AND t.asset = :asset ORDER BY t.date, t.id")
+    Stream<TransactionsEntity> streamAllTransactions(@Param("broker") String broker, @Param("asset") String asset);
+
+    @Query("SELECT t FROM TransactionsEntity t WHERE t.broker = :broker AND t.asset = :asset AND t.id NOT IN :ids ORDER BY t.date DESC, t.id DESC")
+    List<TransactionsEntity> findLatestTransactions(@Param("broker") String broker, @Param("asset") String asset,
+                                                    @Param("ids") Collection<Long> ids, Limit limit);
+
+}
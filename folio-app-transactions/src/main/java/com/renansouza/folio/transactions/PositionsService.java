@@ -0,0 +1,133 @@
+package com.renansouza.folio.transactions;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+import com.renansouza.folio.transactions.models.PositionsEntity;
+import com.renansouza.folio.transactions.models.PositionsId;
+import com.renansouza.folio.transactions.models.PositionsResponse;
+import com.renansouza.folio.transactions.models.TransactionType;
+import com.renansouza.folio.transactions.models.TransactionsEntity;
+import com.renansouza.folio.transactions.models.TransactionsOperation;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+@RequiredArgsConstructor
+public class PositionsService {
+
+    private static final Comparator<TransactionsEntity> CHRONOLOGICAL = Comparator.comparing(TransactionsEntity::getDate)
+            .thenComparingLong(TransactionsEntity::getId);
+
+    private final PositionsRepository repository;
+
+    List<PositionsResponse> find(String broker) {
+        if (Objects.nonNull(broker)) {
+            return repository.findAllPositionsByBroker(broker);
+        }
+
+        return repository.findAllPositions();
+    }
+
+    /**
+     * Applies the saved transactions to their positions, in date order, or rebuilds the positions of the deleted ones
+     * from the transactions left, within the caller's transaction. Saved transactions dated before the latest one
+     * already applied rebuild their position as well. Rows are locked in key order so concurrent writers
+     * touching the same positions cannot deadlock.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    void apply(TransactionsOperation operation, Collection<TransactionsEntity> transactions) {
+        var byPosition = transactions.stream()
+                .collect(Collectors.groupingBy(PositionsId::of, TreeMap::new, Collectors.toList()));
+
+        byPosition.forEach((id, entities) -> {
+            var position = repository.findForUpdate(id).orElseGet(() -> create(id));
+            var saved = entities.stream().sorted(CHRONOLOGICAL).toList();
+            if (TransactionsOperation.SAVE.equals(operation) && !isBackdated(id, saved)) {
+                saved.forEach(transaction -> apply(position, transaction));
+            } else {
+                replay(position);
+            }
+            repository.save(recalculate(position));
+        });
+    }
+
+    /**
+     * Concurrent first writes of a position both insert it, so the loser would fail on its key. The insert skips an
+     * existing one instead, and the row is then locked like any other.
+     */
+    private PositionsEntity create(PositionsId id) {
+        repository.createIfAbsent(id);
+        return repository.findForUpdate(id).orElseThrow();
+    }
+
+    /**
+     * The bought quantity and cost start over whenever a position closes, so a transaction that goes before one
+     * already applied cannot be added on top of the position.
+     */
+    private boolean isBackdated(PositionsId id, List<TransactionsEntity> saved) {
+        var ids = saved.stream().map(TransactionsEntity::getId).toList();
+        return repository.findLatestTransactions(id.broker(), id.asset(), ids, Limit.of(1)).stream()
+                .anyMatch(latest -> CHRONOLOGICAL.compare(saved.getFirst(), latest) <= 0);
+    }
+
+    /**
+     * A deleted or backdated transaction may belong to a holding closed since, so the position is replayed from
+     * scratch.
+     */
+    private void replay(PositionsEntity position) {
+        position.setQuantity(0);
+        reset(position);
+        try (var transactions = repository.streamAllTransactions(position.getId().broker(), position.getId().asset())) {
+            transactions.forEach(transaction -> apply(position, transaction));
+        }
+    }
+
+    /**
+     * Selling keeps the average cost of the shares left. Once none are left the bought quantity and cost start over,
+     * so a later buy is not averaged with shares that were already sold.
+     */
+    private static void apply(PositionsEntity position, TransactionsEntity transaction) {
+        if (TransactionType.SELL.equals(transaction.getType())) {
+            position.setQuantity(position.getQuantity() - transaction.getQuantity());
+        } else {
+            var cost = transaction.getPrice().multiply(BigDecimal.valueOf(transaction.getQuantity())).add(transaction.getFee());
+            position.setQuantity(position.getQuantity() + transaction.getQuantity());
+            position.setBoughtQuantity(position.getBoughtQuantity() + transaction.getQuantity());
+            position.setBoughtCost(position.getBoughtCost().add(cost));
+        }
+
+        if (position.getQuantity() == 0) reset(position);
+    }
+
+    private static void reset(PositionsEntity position) {
+        position.setBoughtQuantity(0);
+        position.setBoughtCost(BigDecimal.ZERO);
+    }
+
+    private static PositionsEntity recalculate(PositionsEntity position) {
+        if (position.getBoughtQuantity() == 0) {
+            position.setAverageCost(BigDecimal.ZERO);
+            position.setTotalInvested(BigDecimal.ZERO);
+            return position;
+        }
+
+        var bought = BigDecimal.valueOf(position.getBoughtQuantity());
+        position.setAverageCost(position.getBoughtCost().divide(bought, 6, RoundingMode.HALF_UP));
+        position.setTotalInvested(position.getBoughtCost()
+                .multiply(BigDecimal.valueOf(position.getQuantity()))
+                .divide(bought, 2, RoundingMode.HALF_UP));
+
+        return position;
+    }
+
+}
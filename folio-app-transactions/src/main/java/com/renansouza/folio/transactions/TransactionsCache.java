@@ -0,0 +1,17 @@
+package com.renansouza.folio.transactions;
+
+/**
+ * Names and keys of the transactions listing caches. Every key carries the {@link TransactionsVersions} version of its
+ * broker and asset, read before the listing is loaded, so nothing is ever evicted: once a write commits and bumps the
+ * version, the listings cached under the previous one, including a page loaded before the commit and stored after it,
+ * are no longer reachable and just age out with the cacheTTL or the size bound.
+ */
+public final class TransactionsCache {
+
+    public static final String NAME = "transactionsCache";
+
+    static final String CURSOR_KEY = "new com.renansouza.folio.transactions.models.TransactionsCacheKey(#filter.broker(), #filter.asset(), @transactionsVersions.version(#filter.broker(), #filter.asset()), #filter + '_' + #after + '_' + #size + '_' + #direction)";
+
+    private TransactionsCache() {}
+
+}
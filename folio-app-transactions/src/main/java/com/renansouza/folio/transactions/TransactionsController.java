@@ -1,10 +1,20 @@
 package com.renansouza.folio.transactions;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.Objects;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.renansouza.folio.transactions.models.TransactionType;
+import com.renansouza.folio.transactions.models.TransactionsBatchRequest;
+import com.renansouza.folio.transactions.models.TransactionsCacheKey;
+import com.renansouza.folio.transactions.models.TransactionsCursorPage;
+import com.renansouza.folio.transactions.models.TransactionsExportFormat;
+import com.renansouza.folio.transactions.models.TransactionsFilter;
 import com.renansouza.folio.transactions.models.TransactionsRequest;
 import com.renansouza.folio.transactions.models.TransactionsResponse;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -12,23 +22,25 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
-import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.Cacheable;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @RequiredArgsConstructor
@@ -41,9 +53,16 @@ import org.springframework.web.bind.annotation.RestController;
 })
 public class TransactionsController {
 
+    static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+
+    private static final String GZIP = "gzip";
+
     private final TransactionsService service;
+    private final TransactionsVersions versions;
+    private final TransactionsResponseCache responses;
+    private final ObjectMapper mapper;
 
-    @Operation(summary = "Get a list of transaction")
+    @Operation(summary = "Get a list of transaction", description = "Every filter that is set must match, so they can be combined freely.")
     @ApiResponses(value = {
             @ApiResponse(
                     responseCode = "200",
@@ -51,46 +70,165 @@ public class TransactionsController {
                     content = { @Content(schema = @Schema(implementation = TransactionsRequest[].class)) }),
             @ApiResponse(
                     responseCode = "204",
-                    description = "Found a zero transactions")
+                    description = "Found a zero transactions"),
+            @ApiResponse(
+                    responseCode = "304",
+                    description = "Nothing changed since the ETag sent in If-None-Match")
     })
     @GetMapping
-    @Cacheable(value = "transactionsCache", key = "#root.methodName + '_' + #asset + '_' + #broker + '_' + #pageSize + '_' + #pageNumber + '_' + #property + '_' + #direction")
-    ResponseEntity<Page<TransactionsResponse>> getTransactions(@RequestParam(required = false) String broker,
+    ResponseEntity<byte[]> getTransactions(@RequestParam(required = false) String broker,
                                                                @RequestParam(required = false) String asset,
+                                                               @RequestParam(required = false) TransactionType type,
+                                                               @Parameter(description = "First date of the range, inclusive")
+                                                               @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                               @Parameter(description = "Last date of the range, inclusive")
+                                                               @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                                               @RequestParam(required = false) BigDecimal minPrice,
+                                                               @RequestParam(required = false) BigDecimal maxPrice,
+                                                               @RequestParam(required = false) Integer minQuantity,
+                                                               @RequestParam(required = false) Integer maxQuantity,
                                                                @RequestParam(required = false, defaultValue = "20") String pageSize,
                                                                @RequestParam(required = false, defaultValue = "0") String pageNumber,
                                                                @RequestParam(required = false, defaultValue = "date") String property,
-                                                               @RequestParam(required = false, defaultValue = "asc") String direction) {
+                                                               @RequestParam(required = false, defaultValue = "asc") String direction,
+                                                               WebRequest request) {
+        var filter = TransactionsFilter.of(broker, asset, type, from, to, minPrice, maxPrice, minQuantity, maxQuantity);
+        // The version is read before the listing, so a write racing with it can only make the next poll miss.
+        var version = versions.version(broker, asset);
+        if (request.checkNotModified(versions.etag(broker, asset, version))) return null;
+
         var sort = Sort.by(Sort.Direction.fromString(direction), property);
         var page = PageRequest.of(Integer.parseInt(pageNumber), Integer.parseInt(pageSize), sort);
 
-        var transactions = service.find(broker, asset, page);
-        if (Objects.isNull(transactions) || transactions.isEmpty()) return ResponseEntity.noContent().build();
+        var key = new TransactionsCacheKey(broker, asset, version, filter + "_" + page);
+        var encoded = responses.get(key, () -> service.find(filter, page));
+        if (encoded.isEmpty()) return ResponseEntity.noContent().build();
+
+        var response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (encoded.isCompressed() && acceptsGzip(request)) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, GZIP).body(encoded.gzip());
+        }
+
+        return response.body(encoded.json());
+    }
+
+    @Operation(
+            summary = "Get a list of transaction using cursor pagination",
+            description = "Takes the same filters as the listing, but seeks by date and id instead of an offset and skips "
+                    + "the total count. Send an empty 'after' to get the first page and then the 'page.next' value of "
+                    + "each response, with the same filters, to get the following one.")
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Found a zero or more transactions",
+                    content = { @Content(schema = @Schema(implementation = TransactionsCursorPage.class)) }),
+            @ApiResponse(
+                    responseCode = "204",
+                    description = "Found a zero transactions"),
+            @ApiResponse(
+                    responseCode = "304",
+                    description = "Nothing changed since the ETag sent in If-None-Match")
+    })
+    @GetMapping(params = "after")
+    ResponseEntity<TransactionsCursorPage> getTransactionsAfter(@RequestParam(required = false) String broker,
+                                                                @RequestParam(required = false) String asset,
+                                                                @RequestParam(required = false) TransactionType type,
+                                                                @Parameter(description = "First date of the range, inclusive")
+                                                                @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                                @Parameter(description = "Last date of the range, inclusive")
+                                                                @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                                                @RequestParam(required = false) BigDecimal minPrice,
+                                                                @RequestParam(required = false) BigDecimal maxPrice,
+                                                                @RequestParam(required = false) Integer minQuantity,
+                                                                @RequestParam(required = false) Integer maxQuantity,
+                                                                @RequestParam(required = false, defaultValue = "20") String pageSize,
+                                                                @RequestParam String after,
+                                                                @RequestParam(required = false, defaultValue = "asc") String direction,
+                                                                WebRequest request) {
+        var filter = TransactionsFilter.of(broker, asset, type, from, to, minPrice, maxPrice, minQuantity, maxQuantity);
+        if (request.checkNotModified(versions.etag(broker, asset))) return null;
+
+        var transactions = service.findAfter(filter, after, Integer.parseInt(pageSize), Sort.Direction.fromString(direction));
+        if (Objects.isNull(transactions) || transactions.content().isEmpty()) return ResponseEntity.noContent().build();
         return ResponseEntity.ok(transactions);
     }
 
+    @Operation(
+            summary = "Export all transactions",
+            description = "Streams every transaction matching both broker and asset when set, ordered by date as NDJSON or CSV, without paging nor counting.")
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Transactions exported",
+                    content = {
+                            @Content(mediaType = "application/x-ndjson", schema = @Schema(implementation = TransactionsResponse.class)),
+                            @Content(mediaType = "text/csv")
+                    })
+    })
+    @GetMapping("/export")
+    ResponseEntity<StreamingResponseBody> exportTransactions(@RequestParam(required = false) String broker,
+                                                             @RequestParam(required = false) String asset,
+                                                             @RequestParam(required = false, defaultValue = "ndjson") String format) {
+        var exportFormat = TransactionsExportFormat.of(format);
+
+        StreamingResponseBody body = out -> {
+            try (var writer = exportFormat.open(out, mapper)) {
+                service.export(broker, asset, writer);
+            }
+        };
+
+        return ResponseEntity.ok().contentType(exportFormat.getMediaType()).body(body);
+    }
+
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
-    @Operation(summary = "Create a new transaction")
+    @Operation(
+            summary = "Create a new transaction",
+            description = "Requests sent again with the same Idempotency-Key and payload return the transaction created the first time.")
     @ApiResponses(value = {
             @ApiResponse(
                     responseCode = "201",
                     description = "Create a new transaction",
-                    content = { @Content(schema = @Schema(implementation = TransactionsRequest.class)) })
+                    content = { @Content(schema = @Schema(implementation = TransactionsResponse.class)) }),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Idempotency key blank or longer than 255 characters"),
+            @ApiResponse(
+                    responseCode = "409",
+                    description = "Idempotency key already used by a different or concurrent request")
     })
-    @CacheEvict(value = "transactionsCache", allEntries = true)
-    void addTransaction(@Valid @RequestBody TransactionsRequest request) {
-        service.save(request);
+    TransactionsResponse addTransaction(@Valid @RequestBody TransactionsRequest request,
+                                        @Parameter(description = "Client generated key that makes retries safe")
+                                        @RequestHeader(name = IDEMPOTENCY_KEY, required = false) String idempotencyKey) {
+        return service.save(request, idempotencyKey);
+    }
+
+    @PostMapping("/batch")
+    @ResponseStatus(HttpStatus.CREATED)
+    @Operation(summary = "Create new transactions in batch", description = "Validates and inserts up to 10000 transactions at once, notifying each account once.")
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "201",
+                    description = "Create new transactions",
+                    content = { @Content(schema = @Schema(implementation = TransactionsBatchRequest.class)) })
+    })
+    void addTransactions(@Valid @RequestBody TransactionsBatchRequest request) {
+        service.saveAll(request.transactions());
     }
 
     @DeleteMapping("/{id}")
     @ResponseStatus(HttpStatus.NO_CONTENT)
     @Operation(summary = "Delete a transaction using its id")
     @ApiResponses(value = {@ApiResponse(responseCode = "204", description = "Delete transaction")})
-    @CacheEvict(value = "transactionsCache", allEntries = true)
-    @Scheduled(fixedRateString = "${application.caching.spring.cacheTTL}")
     void deleteTransaction(@PathVariable("id") Long id) {
         service.delete(id);
     }
 
-}
\ No newline at end of file
+    private static boolean acceptsGzip(WebRequest request) {
+        var acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        return Objects.nonNull(acceptEncoding) && acceptEncoding.contains(GZIP);
+    }
+
+}
@@ -0,0 +1,32 @@
+package com.renansouza.folio.transactions;
+
+import java.util.stream.Stream;
+
+import com.renansouza.folio.transactions.models.TransactionsCursor;
+import com.renansouza.folio.transactions.models.TransactionsFilter;
+import com.renansouza.folio.transactions.models.TransactionsResponse;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+
+public interface TransactionsFilterRepository {
+
+    /**
+     * Lists the transactions matching every filter that is set, using a single parameterised query.
+     */
+    Page<TransactionsResponse> findAllTransactionsMatching(TransactionsFilter filter, Pageable pageable);
+
+    /**
+     * Lists the next {@code size} transactions matching every filter that is set after the cursor, or before it when
+     * descending, seeking by (date, id) instead of an offset and without counting.
+     */
+    Slice<TransactionsResponse> findAllTransactionsMatching(TransactionsFilter filter, TransactionsCursor cursor,
+                                                            Sort.Direction direction, int size);
+
+    /**
+     * Streams the transactions matching every filter that is set ordered by date, with the same query as the listing.
+     */
+    Stream<TransactionsResponse> streamAllTransactionsMatching(TransactionsFilter filter);
+
+}
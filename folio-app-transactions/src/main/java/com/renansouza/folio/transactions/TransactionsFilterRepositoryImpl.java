@@ -0,0 +1,155 @@
+package com.renansouza.folio.transactions;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import com.renansouza.folio.transactions.models.TransactionsCursor;
+import com.renansouza.folio.transactions.models.TransactionsFilter;
+import com.renansouza.folio.transactions.models.TransactionsResponse;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+
+/**
+ * Builds the listing query out of the filters that are set. The query text only depends on which filters are set (the
+ * shape), never on their values, so it is built once per shape and both the Hibernate query plan cache and the
+ * Postgres prepared statements are reused across requests. The cursor mode adds the (date, id) seek to the same
+ * predicates.
+ */
+@RequiredArgsConstructor
+class TransactionsFilterRepositoryImpl implements TransactionsFilterRepository {
+
+    private static final String COUNT = "SELECT COUNT(t) FROM TransactionsEntity t";
+    private static final String ALIAS = "t";
+    private static final String AFTER = "(t.date, t.id) > (:date, :id) ORDER BY t.date ASC, t.id ASC";
+    private static final String BEFORE = "(t.date, t.id) < (:date, :id) ORDER BY t.date DESC, t.id DESC";
+
+    private final EntityManager entityManager;
+    private final Map<Integer, Shape> shapes = new ConcurrentHashMap<>();
+
+    @Override
+    public Page<TransactionsResponse> findAllTransactionsMatching(TransactionsFilter filter, Pageable pageable) {
+        var shape = shapes.computeIfAbsent(Criterion.shapeOf(filter), Shape::of);
+
+        var query = entityManager.createQuery(QueryUtils.applySorting(shape.select(), pageable.getSort(), ALIAS), TransactionsResponse.class);
+        Criterion.bind(filter, query);
+        if (pageable.isPaged()) {
+            query.setFirstResult((int) pageable.getOffset());
+            query.setMaxResults(pageable.getPageSize());
+        }
+
+        return PageableExecutionUtils.getPage(query.getResultList(), pageable, () -> count(shape, filter));
+    }
+
+    @Override
+    public Slice<TransactionsResponse> findAllTransactionsMatching(TransactionsFilter filter, TransactionsCursor cursor,
+                                                                   Sort.Direction direction, int size) {
+        var shape = shapes.computeIfAbsent(Criterion.shapeOf(filter), Shape::of);
+
+        var query = entityManager.createQuery(direction.isAscending() ? shape.after() : shape.before(), TransactionsResponse.class)
+                .setParameter("date", cursor.date())
+                .setParameter("id", cursor.id())
+                .setMaxResults(size + 1);
+        Criterion.bind(filter, query);
+
+        var content = query.getResultList();
+        var hasNext = content.size() > size;
+        return new SliceImpl<>(hasNext ? content.subList(0, size) : content, PageRequest.of(0, size, Sort.by(direction, "date", "id")), hasNext);
+    }
+
+    @Override
+    public Stream<TransactionsResponse> streamAllTransactionsMatching(TransactionsFilter filter) {
+        var shape = shapes.computeIfAbsent(Criterion.shapeOf(filter), Shape::of);
+
+        var query = entityManager.createQuery(shape.select() + TransactionsRepository.ORDER, TransactionsResponse.class)
+                .setHint(HINT_FETCH_SIZE, TransactionsRepository.FETCH_SIZE);
+        Criterion.bind(filter, query);
+
+        return query.getResultStream();
+    }
+
+    private long count(Shape shape, TransactionsFilter filter) {
+        var query = entityManager.createQuery(shape.count(), Long.class);
+        Criterion.bind(filter, query);
+
+        return query.getSingleResult();
+    }
+
+    private record Shape(String select, String count, String after, String before) {
+
+        static Shape of(int shape) {
+            if (shape == 0) {
+                var seek = TransactionsRepository.QUERY + " WHERE ";
+                return new Shape(TransactionsRepository.QUERY, COUNT, seek + AFTER, seek + BEFORE);
+            }
+
+            var where = Arrays.stream(Criterion.values())
+                    .filter(criterion -> criterion.isIn(shape))
+                    .map(Criterion::getPredicate)
+                    .collect(Collectors.joining(" AND ", " WHERE ", ""));
+            var seek = TransactionsRepository.QUERY + where + " AND ";
+
+            return new Shape(TransactionsRepository.QUERY + where, COUNT + where, seek + AFTER, seek + BEFORE);
+        }
+
+    }
+
+    /**
+     * Supported filters, declared in the order their predicates are written: the equality filters leading the partial
+     * indexes first, then the date range that completes them and prunes the partitions, then the residual ones.
+     */
+    @Getter
+    @RequiredArgsConstructor
+    private enum Criterion {
+        BROKER("t.broker = :broker", "broker", TransactionsFilter::broker),
+        ASSET("t.asset = :asset", "asset", TransactionsFilter::asset),
+        PERIOD_FROM("t.date >= :from", "from", filter -> filter.period().isBounded() ? filter.period().from() : null),
+        PERIOD_TO("t.date <= :to", "to", filter -> filter.period().isBounded() ? filter.period().to() : null),
+        TYPE("t.type = :type", "type", TransactionsFilter::type),
+        MIN_PRICE("t.price >= :minPrice", "minPrice", TransactionsFilter::minPrice),
+        MAX_PRICE("t.price <= :maxPrice", "maxPrice", TransactionsFilter::maxPrice),
+        MIN_QUANTITY("t.quantity >= :minQuantity", "minQuantity", TransactionsFilter::minQuantity),
+        MAX_QUANTITY("t.quantity <= :maxQuantity", "maxQuantity", TransactionsFilter::maxQuantity);
+
+        private final String predicate;
+        private final String parameter;
+        private final Function<TransactionsFilter, Object> value;
+
+        boolean isIn(int shape) {
+            return (shape & (1 << ordinal())) != 0;
+        }
+
+        static int shapeOf(TransactionsFilter filter) {
+            var shape = 0;
+            for (var criterion : values()) {
+                if (Objects.nonNull(criterion.value.apply(filter))) shape |= 1 << criterion.ordinal();
+            }
+
+            return shape;
+        }
+
+        static void bind(TransactionsFilter filter, Query query) {
+            for (var criterion : values()) {
+                var value = criterion.value.apply(filter);
+                if (Objects.nonNull(value)) query.setParameter(criterion.parameter, value);
+            }
+        }
+    }
+
+}
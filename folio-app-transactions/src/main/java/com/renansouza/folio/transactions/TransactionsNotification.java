@@ -1,22 +1,153 @@
 package com.renansouza.folio.transactions;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import com.renansouza.folio.transactions.config.AccountsNotificationConverter;
 import com.renansouza.folio.transactions.config.RabbitMQConfig;
 import com.renansouza.folio.transactions.models.AccountsNotification;
-import lombok.RequiredArgsConstructor;
-import lombok.SneakyThrows;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.AmqpTimeoutException;
+import org.springframework.amqp.core.MessagePostProcessor;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+/**
+ * Publishes the account notifications without waiting for the broker. At most {@code maxInFlight} messages wait for a
+ * confirm at any time, and a nacked message is published again up to {@code maxRetries} times before its future
+ * reports the nack. Messages are published to the partition of their account and as mandatory, so one the broker
+ * returns because no queue is bound to that partition yet counts as a nack instead of being dropped.
+ */
+@Slf4j
 @Component
-@RequiredArgsConstructor
 public class TransactionsNotification {
 
     private final RabbitMQConfig rabbitMQConfig;
     private final RabbitTemplate rabbitTemplate;
+    private final int maxRetries;
+    private final Duration retryDelay;
+    private final Duration windowTimeout;
+    private final Semaphore window;
+
+    private final Timer latency;
+    private final Counter nacked;
+    private final Counter retried;
+
+    public TransactionsNotification(RabbitMQConfig rabbitMQConfig,
+                                    RabbitTemplate rabbitTemplate,
+                                    MeterRegistry registry,
+                                    @Value("${application.notification.maxInFlight:1000}") int maxInFlight,
+                                    @Value("${application.notification.maxRetries:2}") int maxRetries,
+                                    @Value("${application.notification.retryDelay:100}") long retryDelay,
+                                    @Value("${application.notification.windowTimeout:5000}") long windowTimeout) {
+        this.rabbitMQConfig = rabbitMQConfig;
+        this.rabbitTemplate = rabbitTemplate;
+        this.maxRetries = maxRetries;
+        this.retryDelay = Duration.ofMillis(retryDelay);
+        this.windowTimeout = Duration.ofMillis(windowTimeout);
+        this.window = new Semaphore(maxInFlight);
+
+        this.latency = Timer.builder("transactions.notifications.publish")
+                .description("Time from publishing a notification to its broker confirm")
+                .register(registry);
+        this.nacked = Counter.builder("transactions.notifications.nacked")
+                .description("Notifications rejected by the broker or never confirmed")
+                .register(registry);
+        this.retried = Counter.builder("transactions.notifications.retried")
+                .description("Notifications published again after a nack")
+                .register(registry);
+        Gauge.builder("transactions.notifications.inflight", window, semaphore -> maxInFlight - semaphore.availablePermits())
+                .description("Notifications published and still waiting for a broker confirm")
+                .register(registry);
+    }
+
+    /**
+     * Publishes the notification correlated by the given id, which also goes as the message id so the consumer can
+     * drop redeliveries. Blocks only while the in-flight window is full and fails with an {@link AmqpException} when
+     * the broker cannot be reached. The returned future completes once the broker confirms the message or, after the
+     * retries, with the last nack.
+     */
+    public CompletableFuture<CorrelationData.Confirm> sendAccountQueueMessage(String id, Instant timestamp, AccountsNotification notification) {
+        var result = new CompletableFuture<CorrelationData.Confirm>();
+        publish(id, timestamp, notification, 0, result);
+
+        return result;
+    }
+
+    private void publish(String id, Instant timestamp, AccountsNotification notification, int attempt,
+                         CompletableFuture<CorrelationData.Confirm> result) {
+        acquire();
+
+        var correlationData = new CorrelationData(id);
+        MessagePostProcessor properties = message -> {
+            message.getMessageProperties().setMessageId(id);
+            message.getMessageProperties().setTimestamp(Date.from(timestamp));
+            message.getMessageProperties().setHeader(AccountsNotificationConverter.COMMITTED_AT, timestamp.toEpochMilli());
+            return message;
+        };
+
+        var started = System.nanoTime();
+        try {
+            rabbitTemplate.convertAndSend(rabbitMQConfig.getExchangeName(), rabbitMQConfig.getRoutingKey(notification.account()), notification, properties, correlationData);
+        } catch (AmqpException ex) {
+            window.release();
+            throw ex;
+        }
+
+        correlationData.getFuture().whenComplete((confirm, ex) -> {
+            window.release();
+            latency.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            var returned = correlationData.getReturned();
+            if (Objects.isNull(ex) && confirm.isAck() && Objects.isNull(returned)) {
+                result.complete(confirm);
+                return;
+            }
+            if (Objects.nonNull(returned)) {
+                log.warn("Notification {} could not be routed: {}", id, returned.getReplyText());
+            }
+
+            nacked.increment();
+            if (attempt < maxRetries) {
+                retried.increment();
+                CompletableFuture.runAsync(() -> publish(id, timestamp, notification, attempt + 1, result),
+                                CompletableFuture.delayedExecutor(retryDelay.toMillis(), TimeUnit.MILLISECONDS))
+                        .exceptionally(retryEx -> {
+                            result.completeExceptionally(retryEx);
+                            return null;
+                        });
+                return;
+            }
+
+            log.warn("Notification {} was not confirmed after {} attempts", id, attempt + 1);
+            if (Objects.nonNull(ex)) {
+                result.completeExceptionally(ex);
+            } else {
+                result.complete(Objects.isNull(returned) ? confirm : new CorrelationData.Confirm(false, returned.getReplyText()));
+            }
+        });
+    }
 
-    @SneakyThrows
-    public void sendAccountQueueMessage(AccountsNotification notification) {
-        rabbitTemplate.convertAndSend(rabbitMQConfig.getExchangeName(), rabbitMQConfig.getRoutingKey(), notification);
+    private void acquire() {
+        try {
+            if (!window.tryAcquire(windowTimeout.toNanos(), TimeUnit.NANOSECONDS)) {
+                throw new AmqpTimeoutException("Too many notifications waiting for a broker confirm");
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new AmqpTimeoutException("Interrupted while waiting for the notifications window");
+        }
     }
 
-}
\ No newline at end of file
+}
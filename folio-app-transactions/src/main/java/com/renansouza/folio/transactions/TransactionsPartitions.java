@@ -0,0 +1,77 @@
+package com.renansouza.folio.transactions;
+
+import java.sql.DatabaseMetaData;
+import java.time.Year;
+import javax.sql.DataSource;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.jdbc.DatabaseDriver;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Creates the yearly transactions partitions ahead of time, so new rows never land on the default partition. Only
+ * runs on Postgres, where the table is partitioned by date; on other databases, H2 in tests and development, there is
+ * nothing to maintain.
+ */
+@Slf4j
+@Component
+public class TransactionsPartitions {
+
+    private static final String CREATE = "CREATE TABLE IF NOT EXISTS %s PARTITION OF transactions FOR VALUES FROM ('%d-01-01') TO ('%d-01-01')";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+    private final int yearsAhead;
+
+    @Autowired
+    public TransactionsPartitions(JdbcTemplate jdbcTemplate,
+                                  DataSource dataSource,
+                                  @Value("${application.partitions.yearsAhead:1}") int yearsAhead) throws MetaDataAccessException {
+        this(jdbcTemplate, isPostgres(dataSource), yearsAhead);
+    }
+
+    TransactionsPartitions(JdbcTemplate jdbcTemplate, boolean enabled, int yearsAhead) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+        this.yearsAhead = yearsAhead;
+    }
+
+    @Scheduled(fixedDelayString = "${application.partitions.maintenanceDelay:86400000}")
+    public void maintain() {
+        if (!enabled) return;
+
+        var current = Year.now().getValue();
+        for (int year = current; year <= current + yearsAhead; year++) {
+            create(year);
+        }
+    }
+
+    /**
+     * Postgres refuses a new partition when the default one already holds rows in its range, in which case those rows
+     * stay in the default partition until they are moved by hand.
+     */
+    void create(int year) {
+        try {
+            jdbcTemplate.execute(CREATE.formatted(name(year), year, year + 1));
+        } catch (DataAccessException ex) {
+            log.warn("Failed to create the {} partition", name(year), ex);
+        }
+    }
+
+    private static boolean isPostgres(DataSource dataSource) throws MetaDataAccessException {
+        var product = JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDatabaseProductName);
+        return DatabaseDriver.POSTGRESQL.equals(DatabaseDriver.fromProductName(product));
+    }
+
+    static String name(int year) {
+        return "transactions_" + year;
+    }
+
+}
@@ -1,14 +1,9 @@
 package com.renansouza.folio.transactions;
 
 import com.renansouza.folio.transactions.models.TransactionsEntity;
-import com.renansouza.folio.transactions.models.TransactionsResponse;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.Query;
-import org.springframework.data.repository.query.Param;
 
-public interface TransactionsRepository extends JpaRepository<TransactionsEntity, Long> {
+public interface TransactionsRepository extends JpaRepository<TransactionsEntity, Long>, TransactionsFilterRepository {
 
     String QUERY = """
             SELECT new com.renansouza.folio.transactions.models.TransactionsResponse
@@ -16,13 +11,7 @@ public interface TransactionsRepository extends JpaRepository<TransactionsEntity
             FROM TransactionsEntity t
             """;
 
-    @Query(QUERY)
-    Page<TransactionsResponse> findAllTransactions(Pageable pageable);
+    String ORDER = " ORDER BY t.date, t.id";
+    int FETCH_SIZE = 1000;
 
-    @Query(QUERY + " WHERE t.broker = :broker")
-    Page<TransactionsResponse> findAllTransactionsByBroker(@Param("broker") String broker, Pageable pageable);
-
-    @Query(QUERY + " WHERE t.asset = :asset")
-    Page<TransactionsResponse> findAllTransactionsByAsset(@Param("asset")String asset, Pageable pageable);
-
-}
\ No newline at end of file
+}
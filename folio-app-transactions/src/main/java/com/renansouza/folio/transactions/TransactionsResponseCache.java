@@ -0,0 +1,71 @@
+package com.renansouza.folio.transactions;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Objects;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.renansouza.folio.transactions.models.TransactionsCacheKey;
+import com.renansouza.folio.transactions.models.TransactionsEncodedPage;
+import com.renansouza.folio.transactions.models.TransactionsResponse;
+import lombok.SneakyThrows;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.web.PagedModel;
+import org.springframework.stereotype.Component;
+
+/**
+ * Listing pages kept as the bytes sent to the client, so a hit is written out as is instead of being serialised again.
+ * The cache is bounded by the size of those bytes rather than by the number of pages and keyed by version like the
+ * {@link TransactionsCache} listings.
+ */
+@Component
+public class TransactionsResponseCache {
+
+    public static final String NAME = "transactionsResponseCache";
+
+    private final CacheManager cacheManager;
+    private final ObjectMapper mapper;
+    private final int gzipMinSize;
+
+    public TransactionsResponseCache(CacheManager cacheManager,
+                                     ObjectMapper mapper,
+                                     @Value("${application.caching.responses.gzipMinSize:1024}") int gzipMinSize) {
+        this.cacheManager = cacheManager;
+        this.mapper = mapper;
+        this.gzipMinSize = gzipMinSize;
+    }
+
+    /**
+     * Returns the cached page or loads, encodes and caches it. Concurrent misses of the same key load it only once.
+     */
+    TransactionsEncodedPage get(TransactionsCacheKey key, Supplier<Page<TransactionsResponse>> loader) {
+        return cache().get(key, () -> encode(loader.get()));
+    }
+
+    @SneakyThrows
+    TransactionsEncodedPage encode(Page<TransactionsResponse> page) {
+        if (Objects.isNull(page) || page.isEmpty()) return TransactionsEncodedPage.EMPTY;
+
+        var json = mapper.writeValueAsBytes(new PagedModel<>(page));
+        return new TransactionsEncodedPage(json, json.length >= gzipMinSize ? gzip(json) : null);
+    }
+
+    @SneakyThrows
+    private static byte[] gzip(byte[] json) {
+        var out = new ByteArrayOutputStream(json.length / 4);
+        try (var gzip = new GZIPOutputStream(out)) {
+            gzip.write(json);
+        }
+
+        return out.toByteArray();
+    }
+
+    private Cache cache() {
+        return Objects.requireNonNull(cacheManager.getCache(NAME));
+    }
+
+}
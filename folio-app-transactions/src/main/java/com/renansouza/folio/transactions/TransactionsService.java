@@ -1,48 +1,114 @@
 package com.renansouza.folio.transactions;
 
+import java.util.List;
 import java.util.Objects;
+import java.util.function.Consumer;
 
+import com.renansouza.folio.transactions.exceptions.IdempotencyKeyConflictException;
 import com.renansouza.folio.transactions.exceptions.TransactionNotFoundException;
+import com.renansouza.folio.transactions.models.TransactionsCursor;
+import com.renansouza.folio.transactions.models.TransactionsCursorPage;
+import com.renansouza.folio.transactions.models.TransactionsFilter;
 import com.renansouza.folio.transactions.models.TransactionsMapper;
 import com.renansouza.folio.transactions.models.TransactionsOperation;
 import com.renansouza.folio.transactions.models.TransactionsRequest;
 import com.renansouza.folio.transactions.models.TransactionsResponse;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 
 @Service
 @RequiredArgsConstructor
 public class TransactionsService {
 
+    static final String TIMER = "transactions.service";
+
     private final TransactionsRepository repository;
-    private final TransactionsNotification notification;
+    private final OutboxRepository outbox;
+    private final TransactionsVersions versions;
+    private final PositionsService positions;
+    private final IdempotencyKeys idempotencyKeys;
 
-    Page<TransactionsResponse> find(String broker, String asset, PageRequest page) {
-        if (Objects.nonNull(broker)) {
-            return repository.findAllTransactionsByBroker(broker, page);
-        }
+    @Timed(TIMER)
+    Page<TransactionsResponse> find(TransactionsFilter filter, PageRequest page) {
+        return repository.findAllTransactionsMatching(filter, page);
+    }
 
-        if (Objects.nonNull(asset)) {
-            return repository.findAllTransactionsByAsset(asset, page);
-        }
+    @Timed(TIMER)
+    @Cacheable(value = TransactionsCache.NAME, key = TransactionsCache.CURSOR_KEY)
+    TransactionsCursorPage findAfter(TransactionsFilter filter, String after, int size, Sort.Direction direction) {
+        var cursor = after.isBlank() ? TransactionsCursor.first(direction) : TransactionsCursor.decode(after);
 
-        return repository.findAllTransactions(page);
+        return TransactionsCursorPage.of(repository.findAllTransactionsMatching(filter, cursor, direction, size));
     }
 
-    void save(TransactionsRequest request) {
+    @Timed(TIMER)
+    @Transactional
+    TransactionsResponse save(TransactionsRequest request) {
         var transaction = repository.save(TransactionsMapper.dtoToEntity(request));
+        versions.increment(transaction.getBroker(), transaction.getAsset());
+        positions.apply(TransactionsOperation.SAVE, List.of(transaction));
+
+        outbox.save(TransactionsMapper.dtoToOutbox(TransactionsMapper.entityToDto(TransactionsOperation.SAVE, transaction)));
+        return TransactionsMapper.entityToResponse(transaction);
+    }
+
+    /**
+     * Saves the transaction once per idempotency key. A repeated key with the same payload returns the transaction
+     * created the first time, without writing it again nor notifying the account twice.
+     */
+    @Timed(TIMER)
+    @Transactional
+    TransactionsResponse save(TransactionsRequest request, String idempotencyKey) {
+        if (Objects.isNull(idempotencyKey)) return save(request);
+        IdempotencyKeys.validate(idempotencyKey);
+
+        var fingerprint = IdempotencyKeys.fingerprint(request);
+        var previous = idempotencyKeys.find(idempotencyKey);
+        if (previous.isPresent()) {
+            if (!previous.get().getFingerprint().equals(fingerprint)) throw new IdempotencyKeyConflictException(idempotencyKey);
+            return TransactionsMapper.dtoToResponse(previous.get().getTransactionId(), request);
+        }
+
+        var response = save(request);
+        idempotencyKeys.save(idempotencyKey, fingerprint, response.id());
+        return response;
+    }
+
+    @Transactional(readOnly = true)
+    void export(String broker, String asset, Consumer<TransactionsResponse> consumer) {
+        try (var transactions = repository.streamAllTransactionsMatching(TransactionsFilter.of(broker, asset))) {
+            transactions.forEach(consumer);
+        }
+    }
+
+    @Timed(TIMER)
+    @Transactional
+    void saveAll(List<TransactionsRequest> requests) {
+        var transactions = repository.saveAll(requests.stream().map(TransactionsMapper::dtoToEntity).toList());
+        versions.increment(transactions);
+        positions.apply(TransactionsOperation.SAVE, transactions);
 
-        notification.sendAccountQueueMessage(TransactionsMapper.entityToDto(TransactionsOperation.SAVE, transaction));
+        outbox.saveAll(TransactionsMapper.entitiesToDto(TransactionsOperation.SAVE, transactions).stream()
+                .map(TransactionsMapper::dtoToOutbox)
+                .toList());
     }
 
+    @Timed(TIMER)
+    @Transactional
     void delete(Long id) {
         var transaction = repository.findById(id).orElseThrow(() -> new TransactionNotFoundException(id));
 
         repository.delete(transaction);
-        notification.sendAccountQueueMessage(TransactionsMapper.entityToDto(TransactionsOperation.DELETE, transaction));
+        versions.increment(transaction.getBroker(), transaction.getAsset());
+        positions.apply(TransactionsOperation.DELETE, List.of(transaction));
+        outbox.save(TransactionsMapper.dtoToOutbox(TransactionsMapper.entityToDto(TransactionsOperation.DELETE, transaction)));
     }
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,89 @@
+package com.renansouza.folio.transactions;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.renansouza.folio.transactions.models.TransactionsEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Monotonically increasing versions of the listings, bumped once a write of a broker and asset commits. A listing
+ * filtered by broker only changes with that broker's version, one filtered by asset with that asset's version and the
+ * others with the global one. The ETags carry the instance start as well, so a restart never repeats a previous tag.
+ */
+@Component
+public class TransactionsVersions {
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), Character.MAX_RADIX);
+    private final AtomicLong global = new AtomicLong();
+    private final Map<String, AtomicLong> brokers = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> assets = new ConcurrentHashMap<>();
+
+    String etag(String broker, String asset) {
+        return etag(broker, asset, version(broker, asset));
+    }
+
+    /**
+     * The ETag of the given version, as read by {@link #version(String, String)}, so the tag sent matches the cached
+     * listing.
+     */
+    String etag(String broker, String asset, long version) {
+        if (Objects.nonNull(broker)) return tag("b", version);
+        if (Objects.nonNull(asset)) return tag("a", version);
+
+        return tag("g", version);
+    }
+
+    /**
+     * The version of the listings filtered by the given broker and asset, either of which may be null.
+     */
+    public long version(String broker, String asset) {
+        if (Objects.nonNull(broker)) return version(brokers, broker);
+        if (Objects.nonNull(asset)) return version(assets, asset);
+
+        return global.get();
+    }
+
+    void increment(String broker, String asset) {
+        afterCommit(() -> incrementNow(broker, asset));
+    }
+
+    void increment(Collection<TransactionsEntity> transactions) {
+        afterCommit(() -> transactions.forEach(transaction -> incrementNow(transaction.getBroker(), transaction.getAsset())));
+    }
+
+    private void incrementNow(String broker, String asset) {
+        brokers.computeIfAbsent(broker, key -> new AtomicLong()).incrementAndGet();
+        assets.computeIfAbsent(asset, key -> new AtomicLong()).incrementAndGet();
+        global.incrementAndGet();
+    }
+
+    private void afterCommit(Runnable increment) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    increment.run();
+                }
+            });
+            return;
+        }
+
+        increment.run();
+    }
+
+    private String tag(String scope, long version) {
+        return "W/\"" + epoch + "-" + scope + version + "\"";
+    }
+
+    private static long version(Map<String, AtomicLong> versions, String key) {
+        var version = versions.get(key);
+        return Objects.isNull(version) ? 0 : version.get();
+    }
+
+}
@@ -0,0 +1,94 @@
+package com.renansouza.folio.transactions.config;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import com.renansouza.folio.transactions.models.AccountsNotification;
+import com.renansouza.folio.transactions.models.Money;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.MessageConversionException;
+import org.springframework.amqp.support.converter.MessageConverter;
+
+/**
+ * Writes {@link AccountsNotification} in a compact binary layout and anything else through the delegate. Messages are
+ * read back by their content type, so JSON notifications still in the queue keep decoding.
+ * <p>
+ * Layout, big-endian: the format version (1 byte), the account key length (2 bytes) followed by its UTF-8 bytes, and
+ * the signed amount in cents (8 bytes). The message id and timestamp already travel in the message properties, and the
+ * operation in the sign of the amount.
+ */
+public class AccountsNotificationConverter implements MessageConverter {
+
+    public static final String CONTENT_TYPE = "application/vnd.folio.accounts-notification";
+    public static final byte VERSION = 1;
+
+    /**
+     * Epoch milliseconds the transaction was committed at, which the accounts service measures the end-to-end latency
+     * from. The AMQP timestamp property only keeps whole seconds.
+     */
+    public static final String COMMITTED_AT = "x-committed-at";
+
+    private final MessageConverter delegate;
+    private final boolean binary;
+
+    public AccountsNotificationConverter(MessageConverter delegate, boolean binary) {
+        this.delegate = delegate;
+        this.binary = binary;
+    }
+
+    @Override
+    public Message toMessage(Object object, MessageProperties messageProperties) {
+        if (!binary || !(object instanceof AccountsNotification notification)) {
+            return delegate.toMessage(object, messageProperties);
+        }
+
+        var body = encode(notification);
+        messageProperties.setContentType(CONTENT_TYPE);
+        messageProperties.setContentLength(body.length);
+
+        return new Message(body, messageProperties);
+    }
+
+    @Override
+    public Object fromMessage(Message message) {
+        if (!CONTENT_TYPE.equals(message.getMessageProperties().getContentType())) {
+            return delegate.fromMessage(message);
+        }
+
+        return decode(message.getBody());
+    }
+
+    public static byte[] encode(AccountsNotification notification) {
+        var account = notification.account().getBytes(StandardCharsets.UTF_8);
+        if (account.length > 0xFFFF) {
+            throw new MessageConversionException("Account key too long: " + account.length + " bytes");
+        }
+
+        return ByteBuffer.allocate(Byte.BYTES + Short.BYTES + account.length + Long.BYTES)
+                .put(VERSION)
+                .putShort((short) account.length)
+                .put(account)
+                .putLong(notification.amount().cents())
+                .array();
+    }
+
+    public static AccountsNotification decode(byte[] body) {
+        var buffer = ByteBuffer.wrap(body);
+        try {
+            var version = buffer.get();
+            if (version != VERSION) {
+                throw new MessageConversionException("Unsupported notification version " + version);
+            }
+
+            var account = new byte[Short.toUnsignedInt(buffer.getShort())];
+            buffer.get(account);
+
+            return new AccountsNotification(new String(account, StandardCharsets.UTF_8), new Money(buffer.getLong()));
+        } catch (BufferUnderflowException ex) {
+            throw new MessageConversionException("Truncated notification of " + body.length + " bytes", ex);
+        }
+    }
+
+}
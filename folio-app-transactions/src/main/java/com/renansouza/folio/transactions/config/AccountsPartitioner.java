@@ -0,0 +1,52 @@
+package com.renansouza.folio.transactions.config;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Maps an account key to one of the partition queues with the jump consistent hash of Lamping and Veach. The mapping
+ * only depends on the key and the partition count, and growing from {@code n} to {@code n + 1} partitions moves just
+ * {@code 1 / (n + 1)} of the accounts, all of them to the new partition.
+ */
+public final class AccountsPartitioner {
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private AccountsPartitioner() {
+    }
+
+    public static int partition(String account, int partitions) {
+        if (partitions < 1) {
+            throw new IllegalArgumentException("Partitions must be positive: " + partitions);
+        }
+
+        return jump(fingerprint(account), partitions);
+    }
+
+    /**
+     * 64-bit FNV-1a of the UTF-8 bytes, which unlike {@link String#hashCode()} spreads similar keys over the whole
+     * range the jump hash reads.
+     */
+    private static long fingerprint(String account) {
+        var hash = FNV_OFFSET;
+        for (var b : account.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xFF;
+            hash *= FNV_PRIME;
+        }
+
+        return hash;
+    }
+
+    private static int jump(long key, int buckets) {
+        long bucket = -1;
+        long next = 0;
+        while (next < buckets) {
+            bucket = next;
+            key = key * 2862933555777941757L + 1;
+            next = (long) ((bucket + 1) * ((double) (1L << 31) / (double) ((key >>> 33) + 1)));
+        }
+
+        return (int) bucket;
+    }
+
+}
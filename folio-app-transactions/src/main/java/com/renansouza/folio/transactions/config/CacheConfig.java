@@ -0,0 +1,58 @@
+package com.renansouza.folio.transactions.config;
+
+import java.time.Duration;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.renansouza.folio.transactions.IdempotencyKeys;
+import com.renansouza.folio.transactions.TransactionsCache;
+import com.renansouza.folio.transactions.TransactionsResponseCache;
+import com.renansouza.folio.transactions.models.TransactionsEncodedPage;
+import lombok.Generated;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Generated
+@Configuration
+public class CacheConfig {
+
+    @Value("${application.caching.spring.cacheTTL}")
+    private long cacheTTL;
+
+    @Value("${application.caching.spring.cacheMaxSize:10000}")
+    private long cacheMaxSize;
+
+    @Value("${application.caching.responses.maxBytes:67108864}")
+    private long responsesMaxBytes;
+
+    @Value("${application.idempotency.cacheMaxSize:10000}")
+    private long idempotencyCacheMaxSize;
+
+    @Value("${application.idempotency.retention:86400000}")
+    private long idempotencyRetention;
+
+    @Bean
+    CacheManager cacheManager() {
+        var cacheManager = new CaffeineCacheManager(TransactionsCache.NAME);
+        cacheManager.setCaffeine(Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfterWrite(Duration.ofMillis(cacheTTL))
+                .recordStats());
+        cacheManager.registerCustomCache(TransactionsResponseCache.NAME, Caffeine.newBuilder()
+                .maximumWeight(responsesMaxBytes)
+                .weigher((Object key, Object page) -> ((TransactionsEncodedPage) page).weight())
+                .expireAfterWrite(Duration.ofMillis(cacheTTL))
+                .recordStats()
+                .build());
+        cacheManager.registerCustomCache(IdempotencyKeys.NAME, Caffeine.newBuilder()
+                .maximumSize(idempotencyCacheMaxSize)
+                .expireAfterWrite(Duration.ofMillis(idempotencyRetention))
+                .recordStats()
+                .build());
+
+        return cacheManager;
+    }
+
+}
@@ -0,0 +1,22 @@
+package com.renansouza.folio.transactions.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Generated;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Generated
+@Configuration
+public class MetricsConfig {
+
+    /**
+     * Records a timer for every method annotated with {@link io.micrometer.core.annotation.Timed}, tagged with its class
+     * and method names.
+     */
+    @Bean
+    TimedAspect timedAspect(MeterRegistry registry) {
+        return new TimedAspect(registry);
+    }
+
+}
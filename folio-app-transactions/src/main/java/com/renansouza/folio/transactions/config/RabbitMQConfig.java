@@ -1,8 +1,12 @@
 package com.renansouza.folio.transactions.config;
 
+import java.util.ArrayList;
+import java.util.Map;
+
 import lombok.Getter;
-import org.springframework.amqp.core.Binding;
 import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.Declarable;
+import org.springframework.amqp.core.Declarables;
 import org.springframework.amqp.core.Queue;
 import org.springframework.amqp.core.TopicExchange;
 import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
@@ -14,6 +18,12 @@ import org.springframework.context.annotation.Configuration;
 @Configuration
 public class RabbitMQConfig {
 
+    /**
+     * Lets one consumer at a time read a partition, so the deltas of an account are applied in the order published
+     * even with several accounts instances running. Must match the arguments the accounts service declares.
+     */
+    public static final Map<String, Object> PARTITION_ARGUMENTS = Map.of("x-single-active-consumer", true);
+
     @Value("${rabbitmq.queue-name:accounts}")
     private String queueName;
 
@@ -21,18 +31,23 @@ public class RabbitMQConfig {
     @Value("${rabbitmq.exchange-name:folio-app-exchange}")
     private String exchangeName;
 
-    @Getter
     @Value("${rabbitmq.routing-key:folio.routing.key}")
     private String routingKey;
 
-    @Bean
-    MessageConverter messageConverter(){
-        return new Jackson2JsonMessageConverter();
-    }
+    @Getter
+    @Value("${rabbitmq.partitions:4}")
+    private int partitions;
+
+    @Value("${rabbitmq.binary-notifications:false}")
+    private boolean binaryNotifications;
 
+    /**
+     * Publishes the account notifications as JSON until {@code rabbitmq.binary-notifications} is turned on, which is
+     * only safe once every accounts consumer reads the binary format.
+     */
     @Bean
-    public Queue queue() {
-        return new Queue(queueName, true);
+    MessageConverter messageConverter(){
+        return new AccountsNotificationConverter(new Jackson2JsonMessageConverter(), binaryNotifications);
     }
 
     @Bean
@@ -40,9 +55,27 @@ public class RabbitMQConfig {
         return new TopicExchange(exchangeName);
     }
 
+    /**
+     * One durable queue per partition, {@code accounts.0} to {@code accounts.<n - 1>}, each bound with its own routing
+     * key. Queues are never deleted when the count shrinks, so the accounts service can drain what is left in them.
+     */
     @Bean
-    public Binding binding(Queue queue, TopicExchange exchange) {
-        return BindingBuilder.bind(queue).to(exchange).with(routingKey);
+    public Declarables partitionQueues(TopicExchange exchange) {
+        var declarables = new ArrayList<Declarable>();
+        for (var partition = 0; partition < partitions; partition++) {
+            var queue = new Queue(queueName + "." + partition, true, false, false, PARTITION_ARGUMENTS);
+            declarables.add(queue);
+            declarables.add(BindingBuilder.bind(queue).to(exchange).with(routingKey + "." + partition));
+        }
+
+        return new Declarables(declarables);
+    }
+
+    /**
+     * The routing key of the partition the account belongs to, so all of its notifications land in the same queue.
+     */
+    public String getRoutingKey(String account) {
+        return routingKey + "." + AccountsPartitioner.partition(account, partitions);
     }
 
-}
\ No newline at end of file
+}
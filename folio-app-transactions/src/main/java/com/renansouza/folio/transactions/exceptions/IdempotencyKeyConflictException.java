@@ -0,0 +1,7 @@
+package com.renansouza.folio.transactions.exceptions;
+
+public class IdempotencyKeyConflictException extends RuntimeException {
+    public IdempotencyKeyConflictException(String key) {
+        super(String.format("The idempotency key %s was already used by another request", key));
+    }
+}
@@ -0,0 +1,7 @@
+package com.renansouza.folio.transactions.exceptions;
+
+public class InvalidCursorException extends RuntimeException {
+    public InvalidCursorException(String cursor) {
+        super(String.format("The provided cursor %s is not valid", cursor));
+    }
+}
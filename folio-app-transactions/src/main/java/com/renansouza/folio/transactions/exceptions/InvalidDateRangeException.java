@@ -0,0 +1,9 @@
+package com.renansouza.folio.transactions.exceptions;
+
+import java.time.LocalDate;
+
+public class InvalidDateRangeException extends RuntimeException {
+    public InvalidDateRangeException(LocalDate from, LocalDate to) {
+        super(String.format("The provided range from %s to %s is not valid", from, to));
+    }
+}
@@ -0,0 +1,7 @@
+package com.renansouza.folio.transactions.exceptions;
+
+public class InvalidFilterException extends RuntimeException {
+    public InvalidFilterException(String field, Object min, Object max) {
+        super(String.format("The provided %s range from %s to %s is not valid", field, min, max));
+    }
+}
@@ -0,0 +1,7 @@
+package com.renansouza.folio.transactions.exceptions;
+
+public class InvalidIdempotencyKeyException extends RuntimeException {
+    public InvalidIdempotencyKeyException(String key) {
+        super(String.format("The provided idempotency key %s is not valid", key));
+    }
+}
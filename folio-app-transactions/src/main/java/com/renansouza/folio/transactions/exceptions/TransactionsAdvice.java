@@ -41,6 +41,28 @@ public class TransactionsAdvice extends ResponseEntityExceptionHandler {
         return handleExceptionInternal(ex, errorAttributes, new HttpHeaders(), HttpStatus.NOT_FOUND, request);
     }
 
+    @ExceptionHandler(value = {InvalidCursorException.class, InvalidDateRangeException.class, InvalidFilterException.class, InvalidIdempotencyKeyException.class, UnsupportedExportFormatException.class})
+    protected ResponseEntity<Object> handleBadRequest(RuntimeException ex, WebRequest request) {
+        var req = ((ServletWebRequest) request).getRequest();
+        var errorAttributes = getErrorAttributes(
+                HttpStatus.BAD_REQUEST,
+                ex.getLocalizedMessage(),
+                Optional.ofNullable(req.getPathInfo()).orElse(req.getServletPath()));
+
+        return handleExceptionInternal(ex, errorAttributes, new HttpHeaders(), HttpStatus.BAD_REQUEST, request);
+    }
+
+    @ExceptionHandler(value = IdempotencyKeyConflictException.class)
+    protected ResponseEntity<Object> handleConflict(RuntimeException ex, WebRequest request) {
+        var req = ((ServletWebRequest) request).getRequest();
+        var errorAttributes = getErrorAttributes(
+                HttpStatus.CONFLICT,
+                ex.getLocalizedMessage(),
+                Optional.ofNullable(req.getPathInfo()).orElse(req.getServletPath()));
+
+        return handleExceptionInternal(ex, errorAttributes, new HttpHeaders(), HttpStatus.CONFLICT, request);
+    }
+
     private HashMap<String, Object> getErrorAttributes(HttpStatus status, String message, String path) {
         var errorAttributes = new HashMap<String, Object>();
         errorAttributes.put("timestamp", LocalDateTime.now());
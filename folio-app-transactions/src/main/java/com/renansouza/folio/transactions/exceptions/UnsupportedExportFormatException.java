@@ -0,0 +1,7 @@
+package com.renansouza.folio.transactions.exceptions;
+
+public class UnsupportedExportFormatException extends RuntimeException {
+    public UnsupportedExportFormatException(String format) {
+        super(String.format("The provided format %s is not supported", format));
+    }
+}
@@ -1,10 +1,9 @@
 package com.renansouza.folio.transactions.models;
 
 import java.io.Serializable;
-import java.math.BigDecimal;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
 
 public record AccountsNotification(
         @JsonProperty("account") String account,
-        @JsonProperty("amount") BigDecimal amount) implements Serializable {}
\ No newline at end of file
+        @JsonProperty("amount") Money amount) implements Serializable {}
\ No newline at end of file
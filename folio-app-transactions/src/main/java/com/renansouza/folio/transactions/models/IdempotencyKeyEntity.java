@@ -0,0 +1,47 @@
+package com.renansouza.folio.transactions.models;
+
+import java.time.Instant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Generated;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.data.domain.Persistable;
+
+/**
+ * Idempotency key of a created transaction. Keys are only ever inserted, so a concurrent request with the same key
+ * fails on the primary key instead of being merged into the existing row.
+ */
+@Entity
+@Setter
+@Getter
+@Generated
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "idempotency_keys")
+public class IdempotencyKeyEntity implements Persistable<String> {
+
+    @Id
+    @Column(nullable = false)
+    private String id;
+
+    @Column(nullable = false, length = 64)
+    private String fingerprint;
+
+    @Column(nullable = false)
+    private long transactionId;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+
+    @Override
+    public boolean isNew() {
+        return true;
+    }
+
+}
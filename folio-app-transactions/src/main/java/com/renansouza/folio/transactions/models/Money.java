@@ -0,0 +1,64 @@
+package com.renansouza.folio.transactions.models;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+
+/**
+ * Fixed-point amount held as a number of cents. Every column is a DECIMAL with scale 2, so the arithmetic can run on a
+ * {@code long} with overflow checks, converting from and to {@link BigDecimal} only when reading entities or writing
+ * JSON and JPA columns.
+ */
+public record Money(long cents) implements Serializable {
+
+    private static final int SCALE = 2;
+    private static final double CENTS = 100d;
+    private static final int MAX_EXACT_DIGITS = 15;
+
+    public static final Money ZERO = new Money(0);
+
+    /**
+     * Values with up to two decimal places and 15 digits of cents go through {@link BigDecimal#doubleValue()}, which
+     * does not allocate and is exact in that range, anything else through {@link BigDecimal#movePointRight(int)}.
+     *
+     * @throws ArithmeticException if the value has more than two decimal places or does not fit in a long of cents.
+     */
+    @JsonCreator(mode = JsonCreator.Mode.DELEGATING)
+    public static Money of(BigDecimal value) {
+        var scale = value.scale();
+        if (scale >= 0 && scale <= SCALE && value.precision() + SCALE - scale <= MAX_EXACT_DIGITS) {
+            return new Money(Math.round(value.doubleValue() * CENTS));
+        }
+
+        return new Money(value.movePointRight(SCALE).longValueExact());
+    }
+
+    public Money plus(Money other) {
+        return new Money(Math.addExact(cents, other.cents));
+    }
+
+    public Money minus(Money other) {
+        return new Money(Math.subtractExact(cents, other.cents));
+    }
+
+    public Money times(long multiplier) {
+        return new Money(Math.multiplyExact(cents, multiplier));
+    }
+
+    public Money negate() {
+        return new Money(Math.negateExact(cents));
+    }
+
+    @JsonValue
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(cents, SCALE);
+    }
+
+    @Override
+    public String toString() {
+        return toBigDecimal().toPlainString();
+    }
+
+}
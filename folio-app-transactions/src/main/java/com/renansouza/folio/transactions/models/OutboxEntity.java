@@ -0,0 +1,50 @@
+package com.renansouza.folio.transactions.models;
+
+import java.time.Instant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Generated;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Account notification waiting to be published, written in the same transaction as the transaction that caused it.
+ */
+@Entity
+@Setter
+@Getter
+@Generated
+@NoArgsConstructor
+@Table(name = "outbox")
+public class OutboxEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(nullable = false)
+    private long id;
+
+    @Column(nullable = false, length = 10)
+    private String account;
+
+    @Convert(converter = MoneyConverter.class)
+    @Column(nullable = false, precision = 15, scale = 2)
+    private Money amount;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+
+    private Instant sentAt;
+
+    /**
+     * Set while a relay is publishing the message, other relays skip it until then.
+     */
+    private Instant claimedUntil;
+
+}
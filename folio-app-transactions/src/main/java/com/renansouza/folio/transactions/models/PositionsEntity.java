@@ -0,0 +1,48 @@
+package com.renansouza.folio.transactions.models;
+
+import java.math.BigDecimal;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+import lombok.Generated;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Holdings of an asset in a broker. Besides the figures exposed by the API it keeps the quantity bought since the
+ * position was last empty and its cost, which the average cost is worked out from.
+ */
+@Entity
+@Setter
+@Getter
+@Generated
+@NoArgsConstructor
+@Table(name = "positions")
+public class PositionsEntity {
+
+    @EmbeddedId
+    private PositionsId id;
+
+    @Column(nullable = false)
+    private long quantity;
+
+    @Column(nullable = false)
+    private long boughtQuantity;
+
+    @Column(nullable = false, precision = 15, scale = 2)
+    private BigDecimal boughtCost = BigDecimal.ZERO;
+
+    @Column(nullable = false, precision = 15, scale = 6)
+    private BigDecimal averageCost = BigDecimal.ZERO;
+
+    @Column(nullable = false, precision = 15, scale = 2)
+    private BigDecimal totalInvested = BigDecimal.ZERO;
+
+    public PositionsEntity(PositionsId id) {
+        this.id = id;
+    }
+
+}
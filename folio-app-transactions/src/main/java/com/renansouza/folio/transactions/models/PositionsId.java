@@ -0,0 +1,28 @@
+package com.renansouza.folio.transactions.models;
+
+import java.io.Serializable;
+import java.util.Comparator;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+
+@Embeddable
+public record PositionsId(
+        @Column(nullable = false, length = 10)
+        String broker,
+
+        @Column(nullable = false, length = 6)
+        String asset) implements Serializable, Comparable<PositionsId> {
+
+    private static final Comparator<PositionsId> ORDER = Comparator.comparing(PositionsId::broker).thenComparing(PositionsId::asset);
+
+    public static PositionsId of(TransactionsEntity transaction) {
+        return new PositionsId(transaction.getBroker(), transaction.getAsset());
+    }
+
+    @Override
+    public int compareTo(PositionsId other) {
+        return ORDER.compare(this, other);
+    }
+
+}
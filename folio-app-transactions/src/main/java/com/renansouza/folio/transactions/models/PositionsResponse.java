@@ -0,0 +1,5 @@
+package com.renansouza.folio.transactions.models;
+
+import java.math.BigDecimal;
+
+public record PositionsResponse(String broker, String asset, long quantity, BigDecimal averageCost, BigDecimal totalInvested) { }
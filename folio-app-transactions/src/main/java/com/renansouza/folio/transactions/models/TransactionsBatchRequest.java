@@ -0,0 +1,12 @@
+package com.renansouza.folio.transactions.models;
+
+import java.util.List;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+public record TransactionsBatchRequest(
+        @NotEmpty(message = "Transactions cannot be empty.")
+        @Size(max = 10000, message = "Transactions must have at most 10000 items.")
+        List<@Valid TransactionsRequest> transactions) { }
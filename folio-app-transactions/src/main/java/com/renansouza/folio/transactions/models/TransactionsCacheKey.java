@@ -0,0 +1,8 @@
+package com.renansouza.folio.transactions.models;
+
+/**
+ * Key of the transactions listing cache. The {@code version} is the one of the broker and asset filters when the
+ * listing was loaded, so a later write makes the key unreachable, while {@code page} holds whatever identifies the
+ * page itself (filters, offset, cursor, sort).
+ */
+public record TransactionsCacheKey(String broker, String asset, long version, Object page) { }
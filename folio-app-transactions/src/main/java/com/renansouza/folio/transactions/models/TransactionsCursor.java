@@ -0,0 +1,46 @@
+package com.renansouza.folio.transactions.models;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+import com.renansouza.folio.transactions.exceptions.InvalidCursorException;
+import org.springframework.data.domain.Sort;
+
+/**
+ * Opaque keyset position used by the cursor pagination mode. It holds the sort key (date) and the id used as
+ * tiebreaker, so the next page can be fetched with a seek predicate instead of an offset.
+ */
+public record TransactionsCursor(LocalDate date, long id) {
+
+    private static final String SEPARATOR = ":";
+    private static final TransactionsCursor LOWEST = new TransactionsCursor(LocalDate.of(1, 1, 1), Long.MIN_VALUE);
+    private static final TransactionsCursor HIGHEST = new TransactionsCursor(LocalDate.of(9999, 12, 31), Long.MAX_VALUE);
+
+    public static TransactionsCursor first(Sort.Direction direction) {
+        return direction.isAscending() ? LOWEST : HIGHEST;
+    }
+
+    public static TransactionsCursor of(TransactionsResponse response) {
+        return new TransactionsCursor(response.date(), response.id());
+    }
+
+    public static TransactionsCursor decode(String token) {
+        try {
+            var decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            var parts = decoded.split(SEPARATOR);
+            if (parts.length != 2) throw new InvalidCursorException(token);
+
+            return new TransactionsCursor(LocalDate.parse(parts[0]), Long.parseLong(parts[1]));
+        } catch (IllegalArgumentException | DateTimeParseException ex) {
+            throw new InvalidCursorException(token);
+        }
+    }
+
+    public String encode() {
+        var raw = date + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+}
@@ -0,0 +1,17 @@
+package com.renansouza.folio.transactions.models;
+
+import java.util.List;
+
+import org.springframework.data.domain.Slice;
+
+public record TransactionsCursorPage(List<TransactionsResponse> content, CursorMetadata page) {
+
+    public record CursorMetadata(int size, String next) { }
+
+    public static TransactionsCursorPage of(Slice<TransactionsResponse> slice) {
+        var next = slice.hasNext() ? TransactionsCursor.of(slice.getContent().getLast()).encode() : null;
+
+        return new TransactionsCursorPage(slice.getContent(), new CursorMetadata(slice.getSize(), next));
+    }
+
+}
@@ -0,0 +1,25 @@
+package com.renansouza.folio.transactions.models;
+
+import java.util.Objects;
+
+/**
+ * A listing page already serialised to JSON, plus its gzip encoding when the page is large enough to be worth it. An
+ * empty body stands for a page without transactions.
+ */
+public record TransactionsEncodedPage(byte[] json, byte[] gzip) {
+
+    public static final TransactionsEncodedPage EMPTY = new TransactionsEncodedPage(new byte[0], null);
+
+    public boolean isEmpty() {
+        return json.length == 0;
+    }
+
+    public boolean isCompressed() {
+        return Objects.nonNull(gzip);
+    }
+
+    public int weight() {
+        return json.length + (isCompressed() ? gzip.length : 0);
+    }
+
+}
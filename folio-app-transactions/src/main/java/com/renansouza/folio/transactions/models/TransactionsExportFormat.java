@@ -0,0 +1,114 @@
+package com.renansouza.folio.transactions.models;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.renansouza.folio.transactions.exceptions.UnsupportedExportFormatException;
+import org.springframework.http.MediaType;
+
+public enum TransactionsExportFormat {
+
+    NDJSON(MediaType.APPLICATION_NDJSON) {
+        @Override
+        public Writer open(OutputStream out, ObjectMapper mapper) throws IOException {
+            var generator = mapper.getFactory().createGenerator(out);
+            generator.setRootValueSeparator(null);
+            var writer = mapper.writerFor(TransactionsResponse.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
+            return new Writer() {
+                @Override
+                public void accept(TransactionsResponse transaction) {
+                    try {
+                        writer.writeValue(generator, transaction);
+                        generator.writeRaw('\n');
+                    } catch (IOException ex) {
+                        throw new UncheckedIOException(ex);
+                    }
+                }
+
+                @Override
+                public void close() throws IOException {
+                    generator.close();
+                }
+            };
+        }
+    },
+
+    CSV(new MediaType("text", "csv", StandardCharsets.UTF_8)) {
+        @Override
+        public Writer open(OutputStream out, ObjectMapper mapper) throws IOException {
+            var writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            writer.write("id,date,type,asset,price,quantity,fee,broker\n");
+
+            return new Writer() {
+                @Override
+                public void accept(TransactionsResponse transaction) {
+                    try {
+                        writer.write(String.valueOf(transaction.id()));
+                        writer.write(',');
+                        writer.write(String.valueOf(transaction.date()));
+                        writer.write(',');
+                        writer.write(String.valueOf(transaction.type()));
+                        writer.write(',');
+                        writer.write(escape(transaction.asset()));
+                        writer.write(',');
+                        writer.write(transaction.price().toPlainString());
+                        writer.write(',');
+                        writer.write(String.valueOf(transaction.quantity()));
+                        writer.write(',');
+                        writer.write(transaction.fee().toPlainString());
+                        writer.write(',');
+                        writer.write(escape(transaction.broker()));
+                        writer.write('\n');
+                    } catch (IOException ex) {
+                        throw new UncheckedIOException(ex);
+                    }
+                }
+
+                @Override
+                public void close() throws IOException {
+                    writer.close();
+                }
+            };
+        }
+
+        private static String escape(String value) {
+            if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0) return value;
+            return '"' + value.replace("\"", "\"\"") + '"';
+        }
+    };
+
+    private final MediaType mediaType;
+
+    TransactionsExportFormat(MediaType mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    public static TransactionsExportFormat of(String format) {
+        for (var value : values()) {
+            if (value.name().equalsIgnoreCase(format)) return value;
+        }
+
+        throw new UnsupportedExportFormatException(format);
+    }
+
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+
+    public abstract Writer open(OutputStream out, ObjectMapper mapper) throws IOException;
+
+    /**
+     * Writes the exported transactions one by one to the response, buffering only what the underlying writer does.
+     */
+    public interface Writer extends Consumer<TransactionsResponse>, Closeable { }
+
+}
@@ -0,0 +1,48 @@
+package com.renansouza.folio.transactions.models;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Objects;
+
+import com.renansouza.folio.transactions.exceptions.InvalidFilterException;
+
+/**
+ * Combination of the optional filters of a listing. Every filter that is set must match, the ones left null are
+ * ignored.
+ */
+public record TransactionsFilter(String broker,
+                                 String asset,
+                                 TransactionType type,
+                                 TransactionsPeriod period,
+                                 BigDecimal minPrice,
+                                 BigDecimal maxPrice,
+                                 Integer minQuantity,
+                                 Integer maxQuantity) {
+
+    public static final TransactionsFilter NONE = new TransactionsFilter(null, null, null, TransactionsPeriod.ALL, null, null, null, null);
+
+    public static TransactionsFilter of(String broker, String asset, TransactionType type, LocalDate from, LocalDate to,
+                                        BigDecimal minPrice, BigDecimal maxPrice, Integer minQuantity, Integer maxQuantity) {
+        if (Objects.nonNull(minPrice) && Objects.nonNull(maxPrice) && minPrice.compareTo(maxPrice) > 0) {
+            throw new InvalidFilterException("price", minPrice, maxPrice);
+        }
+        if (Objects.nonNull(minQuantity) && Objects.nonNull(maxQuantity) && minQuantity > maxQuantity) {
+            throw new InvalidFilterException("quantity", minQuantity, maxQuantity);
+        }
+
+        return new TransactionsFilter(broker, asset, type, TransactionsPeriod.of(from, to), minPrice, maxPrice, minQuantity, maxQuantity);
+    }
+
+    public static TransactionsFilter of(String broker, String asset) {
+        return new TransactionsFilter(broker, asset, null, TransactionsPeriod.ALL, null, null, null, null);
+    }
+
+    public static TransactionsFilter byBroker(String broker) {
+        return new TransactionsFilter(broker, null, null, TransactionsPeriod.ALL, null, null, null, null);
+    }
+
+    public static TransactionsFilter byAsset(String asset) {
+        return new TransactionsFilter(null, asset, null, TransactionsPeriod.ALL, null, null, null, null);
+    }
+
+}
@@ -1,6 +1,9 @@
 package com.renansouza.folio.transactions.models;
 
-import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
 
 public class TransactionsMapper {
 
@@ -19,16 +22,47 @@ public class TransactionsMapper {
         return entity;
     }
 
+    public static TransactionsResponse entityToResponse(TransactionsEntity entity) {
+        return new TransactionsResponse(entity.getId(), entity.getDate(), entity.getType(), entity.getAsset(),
+                entity.getPrice(), entity.getQuantity(), entity.getFee(), entity.getBroker());
+    }
+
+    public static TransactionsResponse dtoToResponse(long id, TransactionsRequest request) {
+        return new TransactionsResponse(id, request.date(), request.type(), request.asset(),
+                request.price(), request.quantity(), request.fee(), request.broker());
+    }
+
     public static AccountsNotification entityToDto(TransactionsOperation operation, TransactionsEntity entity) {
-        var total = entity.getPrice().multiply(BigDecimal.valueOf(entity.getQuantity()));
-        var totalWithFee = TransactionType.BUY.equals(entity.getType()) ? total.add(entity.getFee()) : total.subtract(entity.getFee());
-        var amount = shouldNegateTotal(entity.getType(), operation)
-                ? totalWithFee.multiply(BigDecimal.valueOf(-1))
-                : totalWithFee;
+        var fee = Money.of(entity.getFee());
+        var total = Money.of(entity.getPrice()).times(entity.getQuantity());
+        var totalWithFee = TransactionType.BUY.equals(entity.getType()) ? total.plus(fee) : total.minus(fee);
+        var amount = shouldNegateTotal(entity.getType(), operation) ? totalWithFee.negate() : totalWithFee;
 
         return new AccountsNotification(entity.getBroker(), amount);
     }
 
+    public static List<AccountsNotification> entitiesToDto(TransactionsOperation operation, Collection<TransactionsEntity> entities) {
+        var amountByBroker = new LinkedHashMap<String, Money>();
+        entities.forEach(entity -> amountByBroker.merge(entity.getBroker(), entityToDto(operation, entity).amount(), Money::plus));
+
+        return amountByBroker.entrySet().stream()
+                .map(entry -> new AccountsNotification(entry.getKey(), entry.getValue()))
+                .toList();
+    }
+
+    public static OutboxEntity dtoToOutbox(AccountsNotification notification) {
+        var outbox = new OutboxEntity();
+        outbox.setAccount(notification.account());
+        outbox.setAmount(notification.amount());
+        outbox.setCreatedAt(Instant.now());
+
+        return outbox;
+    }
+
+    public static AccountsNotification outboxToDto(OutboxEntity outbox) {
+        return new AccountsNotification(outbox.getAccount(), outbox.getAmount());
+    }
+
     private static boolean shouldNegateTotal(TransactionType type, TransactionsOperation operation) {
         return (TransactionType.BUY.equals(type) && TransactionsOperation.SAVE.equals(operation)) ||
                 (TransactionType.SELL.equals(type) && TransactionsOperation.DELETE.equals(operation));
@@ -0,0 +1,30 @@
+package com.renansouza.folio.transactions.models;
+
+import java.time.LocalDate;
+import java.util.Objects;
+
+import com.renansouza.folio.transactions.exceptions.InvalidDateRangeException;
+
+/**
+ * Inclusive date range of a listing. A missing bound is replaced by the lowest or highest supported date, so the same
+ * query serves open and closed ranges and Postgres can still prune the partitions outside of it.
+ */
+public record TransactionsPeriod(LocalDate from, LocalDate to) {
+
+    private static final LocalDate LOWEST = LocalDate.of(1, 1, 1);
+    private static final LocalDate HIGHEST = LocalDate.of(9999, 12, 31);
+
+    public static final TransactionsPeriod ALL = new TransactionsPeriod(LOWEST, HIGHEST);
+
+    public static TransactionsPeriod of(LocalDate from, LocalDate to) {
+        var period = new TransactionsPeriod(Objects.requireNonNullElse(from, LOWEST), Objects.requireNonNullElse(to, HIGHEST));
+        if (period.from().isAfter(period.to())) throw new InvalidDateRangeException(from, to);
+
+        return period;
+    }
+
+    public boolean isBounded() {
+        return !ALL.equals(this);
+    }
+
+}
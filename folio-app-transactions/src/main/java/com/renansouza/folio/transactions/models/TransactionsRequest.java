@@ -3,6 +3,7 @@ package com.renansouza.folio.transactions.models;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 
+import jakarta.validation.constraints.Digits;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.PastOrPresent;
 import jakarta.validation.constraints.PositiveOrZero;
@@ -21,6 +22,7 @@ public record TransactionsRequest(
         String asset,
 
         @PositiveOrZero(message = "Price must be zero or positive number.")
+        @Digits(integer = 7, fraction = 2, message = "Price must have at most 7 integer digits and 2 decimals.")
         @NotNull(message = "price cannot be null.")
         BigDecimal price,
 
@@ -29,6 +31,7 @@ public record TransactionsRequest(
         int quantity,
 
         @PositiveOrZero(message = "Fee must be zero or positive number.")
+        @Digits(integer = 7, fraction = 2, message = "Fee must have at most 7 integer digits and 2 decimals.")
         @NotNull(message = "Fee cannot be null.")
         BigDecimal fee,
 
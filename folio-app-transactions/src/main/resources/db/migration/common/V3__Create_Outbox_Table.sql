@@ -0,0 +1,9 @@
+CREATE TABLE outbox (
+   id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+   account VARCHAR(10) NOT NULL,
+   amount DECIMAL(15, 2) NOT NULL,
+   created_at TIMESTAMP WITH TIME ZONE NOT NULL,
+   sent_at TIMESTAMP WITH TIME ZONE,
+   claimed_until TIMESTAMP WITH TIME ZONE,
+   CONSTRAINT pk_outbox PRIMARY KEY (id)
+);
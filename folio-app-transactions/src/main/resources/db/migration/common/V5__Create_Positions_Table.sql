@@ -0,0 +1,41 @@
+CREATE TABLE positions (
+   broker VARCHAR(10) NOT NULL,
+   asset VARCHAR(6) NOT NULL,
+   quantity BIGINT NOT NULL,
+   bought_quantity BIGINT NOT NULL,
+   bought_cost DECIMAL(15, 2) NOT NULL,
+   average_cost DECIMAL(15, 6) NOT NULL,
+   total_invested DECIMAL(15, 2) NOT NULL,
+   CONSTRAINT pk_positions PRIMARY KEY (broker, asset)
+);
+
+-- Seeds the positions from the existing transactions, counting the bought quantity and cost only since each position
+-- last went to zero. Running quantities are summed in date order; the rows after the last time one reached zero form
+-- the holding.
+INSERT INTO positions (broker, asset, quantity, bought_quantity, bought_cost, average_cost, total_invested)
+SELECT broker, asset, quantity, bought_quantity, bought_cost,
+   CASE WHEN bought_quantity = 0 THEN 0 ELSE ROUND(bought_cost / bought_quantity, 6) END,
+   CASE WHEN bought_quantity = 0 THEN 0 ELSE ROUND(bought_cost * quantity / bought_quantity, 2) END
+FROM (
+   SELECT broker, asset,
+      SUM(signed_quantity) AS quantity,
+      SUM(CASE WHEN type = 0 AND closed_before = closed_total THEN quantity ELSE 0 END) AS bought_quantity,
+      SUM(CASE WHEN type = 0 AND closed_before = closed_total THEN price * quantity + fee ELSE 0 END) AS bought_cost
+   FROM (
+      SELECT broker, asset, type, quantity, price, fee, signed_quantity,
+         SUM(closes) OVER (PARTITION BY broker, asset ORDER BY date, id ROWS UNBOUNDED PRECEDING) - closes AS closed_before,
+         SUM(closes) OVER (PARTITION BY broker, asset) AS closed_total
+      FROM (
+         SELECT broker, asset, date, id, type, quantity, price, fee, signed_quantity,
+            CASE WHEN SUM(signed_quantity) OVER (PARTITION BY broker, asset ORDER BY date, id ROWS UNBOUNDED PRECEDING) = 0
+               THEN 1 ELSE 0 END AS closes
+         FROM (
+            SELECT broker, asset, date, id, type, quantity, price, fee,
+               CASE WHEN type = 0 THEN quantity ELSE -quantity END AS signed_quantity
+            FROM transactions
+            WHERE deleted = FALSE
+         ) signed
+      ) running
+   ) lots
+   GROUP BY broker, asset
+) totals;
@@ -0,0 +1,9 @@
+CREATE TABLE idempotency_keys (
+   id VARCHAR(255) NOT NULL,
+   fingerprint VARCHAR(64) NOT NULL,
+   transaction_id BIGINT NOT NULL,
+   created_at TIMESTAMP WITH TIME ZONE NOT NULL,
+   CONSTRAINT pk_idempotency_keys PRIMARY KEY (id)
+);
+
+CREATE INDEX idx_idempotency_keys_created_at ON idempotency_keys (created_at);
@@ -0,0 +1,3 @@
+ALTER TABLE transactions ALTER COLUMN id DROP IDENTITY;
+
+CREATE SEQUENCE transactions_seq START WITH 1 INCREMENT BY 50;
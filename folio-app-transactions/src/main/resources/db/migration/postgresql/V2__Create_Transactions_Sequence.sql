@@ -0,0 +1,6 @@
+ALTER TABLE transactions ALTER COLUMN id DROP IDENTITY IF EXISTS;
+
+CREATE SEQUENCE transactions_seq INCREMENT BY 50 OWNED BY transactions.id;
+
+-- Hibernate's pooled optimizer hands out the 50 ids that end at the value returned by the sequence.
+SELECT setval('transactions_seq', (SELECT COALESCE(MAX(id), 0) + 50 FROM transactions), false);
@@ -0,0 +1 @@
+CREATE INDEX idx_outbox_pending ON outbox (id) WHERE sent_at IS NULL;
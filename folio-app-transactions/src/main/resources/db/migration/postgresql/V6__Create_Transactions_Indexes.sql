@@ -0,0 +1,3 @@
+CREATE INDEX idx_transactions_broker_date ON transactions (broker, date, id) WHERE NOT deleted;
+CREATE INDEX idx_transactions_asset_date ON transactions (asset, date, id) WHERE NOT deleted;
+CREATE INDEX idx_transactions_date ON transactions (date, id) WHERE NOT deleted;
@@ -0,0 +1,46 @@
+ALTER TABLE transactions RENAME TO transactions_unpartitioned;
+ALTER TABLE transactions_unpartitioned RENAME CONSTRAINT pk_transactions TO pk_transactions_unpartitioned;
+ALTER SEQUENCE transactions_seq OWNED BY NONE;
+
+-- The partition key has to be part of the primary key, ids stay unique through transactions_seq.
+CREATE TABLE transactions (
+   id BIGINT NOT NULL,
+   date date NOT NULL,
+   type SMALLINT,
+   asset VARCHAR(6) NOT NULL,
+   price DECIMAL(9, 2) NOT NULL,
+   quantity INTEGER NOT NULL,
+   fee DECIMAL(9, 2) NOT NULL,
+   broker VARCHAR(10) NOT NULL,
+   deleted boolean NOT NULL DEFAULT FALSE,
+   CONSTRAINT pk_transactions PRIMARY KEY (id, date)
+) PARTITION BY RANGE (date);
+
+CREATE TABLE transactions_default PARTITION OF transactions DEFAULT;
+
+-- One partition per year, from the oldest transaction up to the next year. Later years are created by the application.
+DO $$
+DECLARE
+   partition_year INTEGER;
+   current_year INTEGER := EXTRACT(YEAR FROM CURRENT_DATE)::INTEGER;
+BEGIN
+   FOR partition_year IN
+      SELECT generate_series(
+         LEAST(COALESCE((SELECT MIN(EXTRACT(YEAR FROM date))::INTEGER FROM transactions_unpartitioned), current_year), current_year),
+         current_year + 1)
+   LOOP
+      EXECUTE format('CREATE TABLE transactions_%s PARTITION OF transactions FOR VALUES FROM (%L) TO (%L)',
+         partition_year, make_date(partition_year, 1, 1), make_date(partition_year + 1, 1, 1));
+   END LOOP;
+END $$;
+
+INSERT INTO transactions (id, date, type, asset, price, quantity, fee, broker, deleted)
+SELECT id, date, type, asset, price, quantity, fee, broker, deleted FROM transactions_unpartitioned;
+
+DROP TABLE transactions_unpartitioned;
+
+CREATE INDEX idx_transactions_broker_date ON transactions (broker, date, id) WHERE NOT deleted;
+CREATE INDEX idx_transactions_asset_date ON transactions (asset, date, id) WHERE NOT deleted;
+CREATE INDEX idx_transactions_date ON transactions (date, id) WHERE NOT deleted;
+
+ALTER SEQUENCE transactions_seq OWNED BY transactions.id;
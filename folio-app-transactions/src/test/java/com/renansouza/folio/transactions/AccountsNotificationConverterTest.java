@@ -0,0 +1,91 @@
+package com.renansouza.folio.transactions;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import com.renansouza.folio.transactions.config.AccountsNotificationConverter;
+import com.renansouza.folio.transactions.models.AccountsNotification;
+import com.renansouza.folio.transactions.models.Money;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.amqp.support.converter.MessageConversionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@Tag("Unit")
+class AccountsNotificationConverterTest {
+
+    private static final AccountsNotification NOTIFICATION = new AccountsNotification("BROKER Á", new Money(-123_456_78L));
+
+    private final Jackson2JsonMessageConverter json = new Jackson2JsonMessageConverter();
+    private final AccountsNotificationConverter converter = new AccountsNotificationConverter(json, true);
+
+    @Test
+    void roundTripsTheBinaryLayout() {
+        // When
+        var message = converter.toMessage(NOTIFICATION, new MessageProperties());
+
+        // Then
+        assertThat(message.getMessageProperties().getContentType()).isEqualTo(AccountsNotificationConverter.CONTENT_TYPE);
+        assertThat(message.getBody()).hasSize(1 + 2 + "BROKER Á".getBytes(StandardCharsets.UTF_8).length + 8);
+        assertThat(converter.fromMessage(message)).isEqualTo(NOTIFICATION);
+    }
+
+    @Test
+    void isSmallerThanJson() {
+        // When
+        var binary = converter.toMessage(NOTIFICATION, new MessageProperties());
+        var legacy = json.toMessage(NOTIFICATION, new MessageProperties());
+
+        // Then
+        assertThat(binary.getBody().length).isLessThan(legacy.getBody().length);
+    }
+
+    @Test
+    void stillReadsJson() {
+        // Given
+        var legacy = json.toMessage(NOTIFICATION, new MessageProperties());
+
+        // When & Then
+        assertThat(converter.fromMessage(legacy)).isEqualTo(NOTIFICATION);
+    }
+
+    @Test
+    void writesJsonWhenBinaryIsOff() {
+        // When
+        var message = new AccountsNotificationConverter(json, false).toMessage(NOTIFICATION, new MessageProperties());
+
+        // Then
+        assertThat(message.getMessageProperties().getContentType()).isEqualTo(MessageProperties.CONTENT_TYPE_JSON);
+    }
+
+    @Test
+    void writesOtherPayloadsAsJson() {
+        // When
+        var message = converter.toMessage("text", new MessageProperties());
+
+        // Then
+        assertThat(message.getMessageProperties().getContentType()).isEqualTo(MessageProperties.CONTENT_TYPE_JSON);
+    }
+
+    @Test
+    void rejectsUnknownVersionsAndTruncatedBodies() {
+        // Given
+        var body = AccountsNotificationConverter.encode(NOTIFICATION);
+        var properties = new MessageProperties();
+        properties.setContentType(AccountsNotificationConverter.CONTENT_TYPE);
+
+        var unknown = body.clone();
+        unknown[0] = 2;
+        var truncated = Arrays.copyOf(body, body.length - 1);
+
+        // When & Then
+        assertThrows(MessageConversionException.class, () -> converter.fromMessage(new Message(unknown, properties)));
+        assertThrows(MessageConversionException.class, () -> converter.fromMessage(new Message(truncated, properties)));
+    }
+
+}
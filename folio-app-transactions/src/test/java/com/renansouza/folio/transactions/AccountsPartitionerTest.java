@@ -0,0 +1,66 @@
+package com.renansouza.folio.transactions;
+
+import java.util.UUID;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import com.renansouza.folio.transactions.config.AccountsPartitioner;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@Tag("Unit")
+class AccountsPartitionerTest {
+
+    private static final int ACCOUNTS = 10_000;
+
+    @Test
+    void isStableForTheSameKey() {
+        // Given
+        var account = UUID.randomUUID().toString();
+
+        // When
+        var partition = AccountsPartitioner.partition(account, 8);
+
+        // Then
+        assertThat(partition).isBetween(0, 7);
+        assertThat(IntStream.range(0, 100).map(i -> AccountsPartitioner.partition(account, 8))).containsOnly(partition);
+        assertThat(AccountsPartitioner.partition(account, 1)).isZero();
+    }
+
+    @Test
+    void spreadsAccountsEvenly() {
+        // Given
+        var counts = new int[8];
+
+        // When
+        accounts().forEach(account -> counts[AccountsPartitioner.partition(account, counts.length)]++);
+
+        // Then
+        assertThat(IntStream.of(counts)).allMatch(count -> Math.abs(count - ACCOUNTS / counts.length) < ACCOUNTS / counts.length / 5);
+    }
+
+    @Test
+    void onlyMovesAccountsToTheNewPartitionWhenGrowing() {
+        // When
+        var moved = accounts()
+                .filter(account -> AccountsPartitioner.partition(account, 4) != AccountsPartitioner.partition(account, 5))
+                .toList();
+
+        // Then
+        assertThat(moved).allMatch(account -> AccountsPartitioner.partition(account, 5) == 4);
+        assertThat(moved.size()).isBetween(ACCOUNTS / 5 - ACCOUNTS / 25, ACCOUNTS / 5 + ACCOUNTS / 25);
+    }
+
+    @Test
+    void rejectsNoPartitions() {
+        assertThrows(IllegalArgumentException.class, () -> AccountsPartitioner.partition("BROKER", 0));
+    }
+
+    private static Stream<String> accounts() {
+        return IntStream.range(0, ACCOUNTS).mapToObj(i -> "BROKER " + i);
+    }
+
+}
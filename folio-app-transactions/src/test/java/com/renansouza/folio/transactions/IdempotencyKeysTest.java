@@ -0,0 +1,111 @@
+package com.renansouza.folio.transactions;
+
+import java.time.Instant;
+import java.util.Optional;
+
+import com.renansouza.folio.transactions.exceptions.IdempotencyKeyConflictException;
+import com.renansouza.folio.transactions.exceptions.InvalidIdempotencyKeyException;
+import com.renansouza.folio.transactions.models.IdempotencyKeyEntity;
+import com.renansouza.folio.transactions.models.TransactionsRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import static com.renansouza.folio.transactions.TransactionsUtils.getRequests;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@Tag("Unit")
+class IdempotencyKeysTest {
+
+    private static final long RETENTION = 60_000;
+
+    @Mock
+    private IdempotencyRepository repository;
+
+    private IdempotencyKeys keys;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        keys = new IdempotencyKeys(repository, new ConcurrentMapCacheManager(IdempotencyKeys.NAME), RETENTION);
+    }
+
+    @Test
+    void findCachesStoredKeys() {
+        var entity = new IdempotencyKeyEntity("key", "fingerprint", 1L, Instant.now());
+        when(repository.findById("key")).thenReturn(Optional.of(entity));
+
+        assertThat(keys.find("key")).contains(entity);
+        assertThat(keys.find("key")).contains(entity);
+        verify(repository, times(1)).findById("key");
+    }
+
+    @Test
+    void findUnknownKey() {
+        when(repository.findById("key")).thenReturn(Optional.empty());
+
+        assertThat(keys.find("key")).isEmpty();
+    }
+
+    @Test
+    void saveCachesTheKey() {
+        keys.save("key", "fingerprint", 1L);
+
+        assertThat(keys.find("key")).get().extracting(IdempotencyKeyEntity::getTransactionId).isEqualTo(1L);
+        verify(repository, never()).findById("key");
+    }
+
+    @Test
+    void saveConcurrentKey() {
+        when(repository.saveAndFlush(any(IdempotencyKeyEntity.class))).thenThrow(new DataIntegrityViolationException("duplicate key"));
+
+        assertThrows(IdempotencyKeyConflictException.class, () -> keys.save("key", "fingerprint", 1L));
+    }
+
+    @Test
+    void fingerprintDependsOnThePayload() {
+        var requests = getRequests(2);
+
+        assertThat(IdempotencyKeys.fingerprint(requests.getFirst()))
+                .hasSize(64)
+                .isEqualTo(IdempotencyKeys.fingerprint(requests.getFirst()))
+                .isNotEqualTo(IdempotencyKeys.fingerprint(requests.getLast()));
+    }
+
+    @Test
+    void fingerprintIgnoresTheScaleOfAmounts() {
+        var request = getRequests(1).getFirst();
+        var rescaled = new TransactionsRequest(request.date(), request.type(), request.asset(), request.price().setScale(4),
+                request.quantity(), request.fee().setScale(4), request.broker());
+
+        assertThat(IdempotencyKeys.fingerprint(rescaled)).isEqualTo(IdempotencyKeys.fingerprint(request));
+    }
+
+    @Test
+    void validate() {
+        var blank = " ";
+        var tooLong = "k".repeat(256);
+
+        IdempotencyKeys.validate("k".repeat(255));
+        assertThrows(InvalidIdempotencyKeyException.class, () -> IdempotencyKeys.validate(blank));
+        assertThrows(InvalidIdempotencyKeyException.class, () -> IdempotencyKeys.validate(tooLong));
+    }
+
+    @Test
+    void purge() {
+        keys.purge();
+
+        verify(repository, times(1)).deleteCreatedBefore(any(Instant.class));
+    }
+
+}
@@ -0,0 +1,76 @@
+package com.renansouza.folio.transactions;
+
+import java.math.BigDecimal;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.renansouza.folio.transactions.models.AccountsNotification;
+import com.renansouza.folio.transactions.models.Money;
+import com.renansouza.folio.transactions.models.MoneyConverter;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@Tag("Unit")
+class MoneyTest {
+
+    @Test
+    void arithmetic() {
+        var price = Money.of(new BigDecimal("10.37"));
+        var fee = Money.of(new BigDecimal("4.9"));
+
+        assertThat(price.times(100).plus(fee)).isEqualTo(new Money(104190));
+        assertThat(price.times(100).minus(fee).negate().toBigDecimal()).isEqualTo(new BigDecimal("-1032.10"));
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "0.29, 29",
+            "1139.74, 113974",
+            "-9327.7, -932770",
+            "9999999999999.99, 999999999999999",
+            "12345678901234567.89, 1234567890123456789",
+            "1E+3, 100000",
+    })
+    void convertsExactly(String value, long cents) {
+        assertThat(Money.of(new BigDecimal(value)).cents()).isEqualTo(cents);
+    }
+
+    @Test
+    void rejectsFractionsOfCents() {
+        var value = new BigDecimal("0.001");
+        assertThrows(ArithmeticException.class, () -> Money.of(value));
+    }
+
+    @Test
+    void rejectsOverflow() {
+        var money = new Money(Long.MAX_VALUE);
+        assertThrows(ArithmeticException.class, () -> money.times(2));
+        assertThrows(ArithmeticException.class, () -> money.plus(new Money(1)));
+    }
+
+    @Test
+    void serializesAsDecimal() throws Exception {
+        var mapper = new ObjectMapper();
+        var notification = new AccountsNotification("BROKER A", Money.of(new BigDecimal("-12.3")));
+
+        var json = mapper.writeValueAsString(notification);
+
+        assertThat(json).isEqualTo("{\"account\":\"BROKER A\",\"amount\":-12.30}");
+        assertThat(mapper.readValue(json, AccountsNotification.class)).isEqualTo(notification);
+    }
+
+    @Test
+    void convertsColumns() {
+        var converter = new MoneyConverter();
+
+        assertThat(converter.convertToDatabaseColumn(new Money(1050))).isEqualTo(new BigDecimal("10.50"));
+        assertThat(converter.convertToEntityAttribute(new BigDecimal("10.50"))).isEqualTo(new Money(1050));
+        assertThat(converter.convertToDatabaseColumn(null)).isNull();
+        assertThat(converter.convertToEntityAttribute(null)).isNull();
+    }
+
+}
@@ -0,0 +1,171 @@
+package com.renansouza.folio.transactions;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import com.renansouza.folio.transactions.models.AccountsNotification;
+import com.renansouza.folio.transactions.models.Money;
+import com.renansouza.folio.transactions.models.OutboxEntity;
+import com.renansouza.folio.transactions.models.TransactionsMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.amqp.AmqpConnectException;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionOperations;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@Tag("Unit")
+class OutboxRelayTest {
+
+    private static final int BATCH_SIZE = 10;
+
+    @Mock
+    private OutboxRepository repository;
+
+    @Mock
+    private TransactionsNotification notification;
+
+    private final AtomicBoolean inTransaction = new AtomicBoolean();
+    private SimpleMeterRegistry registry;
+    private OutboxRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        registry = new SimpleMeterRegistry();
+        relay = new OutboxRelay(repository, notification, new FlaggingTransactions(), registry, BATCH_SIZE, 100, 60_000, 1000);
+    }
+
+    @Test
+    void relayMarksOnlyConfirmedMessagesAsSent() {
+        // Given
+        var acked = getMessage(1L);
+        var nacked = getMessage(2L);
+        var oldest = Instant.now().minusSeconds(10);
+        when(repository.findPending(any(Instant.class), eq(Limit.of(BATCH_SIZE)))).thenReturn(List.of(acked, nacked));
+        when(repository.findOldestPending()).thenReturn(Optional.of(oldest));
+        when(notification.sendAccountQueueMessage(eq("1"), any(Instant.class), any(AccountsNotification.class)))
+                .thenReturn(CompletableFuture.completedFuture(new CorrelationData.Confirm(true, null)));
+        when(notification.sendAccountQueueMessage(eq("2"), any(Instant.class), any(AccountsNotification.class)))
+                .thenReturn(CompletableFuture.completedFuture(new CorrelationData.Confirm(false, "nack")));
+
+        // When
+        relay.relay();
+
+        // Then
+        verify(notification).sendAccountQueueMessage("1", acked.getCreatedAt(), TransactionsMapper.outboxToDto(acked));
+        verify(repository).claim(eq(List.of(1L, 2L)), any(Instant.class));
+        verify(repository).markSent(eq(List.of(1L)), any(Instant.class));
+        verify(repository).release(List.of(2L));
+        assertThat(registry.get("transactions.outbox.sent").counter().count()).isEqualTo(1);
+        assertThat(registry.get("transactions.outbox.lag").timeGauge().value(TimeUnit.MILLISECONDS)).isGreaterThanOrEqualTo(10_000);
+    }
+
+    @Test
+    void relayKeepsMessagesPendingWhenBrokerIsDown() {
+        // Given
+        when(repository.findPending(any(Instant.class), eq(Limit.of(BATCH_SIZE)))).thenReturn(List.of(getMessage(1L)));
+        when(repository.findOldestPending()).thenReturn(Optional.empty());
+        when(notification.sendAccountQueueMessage(anyString(), any(Instant.class), any(AccountsNotification.class)))
+                .thenThrow(new AmqpConnectException(new RuntimeException("down")));
+
+        // When
+        relay.relay();
+
+        // Then
+        verify(repository, never()).markSent(anyCollection(), any(Instant.class));
+        verify(repository).release(List.of(1L));
+        assertThat(registry.get("transactions.outbox.lag").timeGauge().value()).isZero();
+    }
+
+    @Test
+    void relayKeepsMessagesPendingWhenConfirmTimesOut() {
+        // Given
+        when(repository.findPending(any(Instant.class), eq(Limit.of(BATCH_SIZE)))).thenReturn(List.of(getMessage(1L)));
+        when(repository.findOldestPending()).thenReturn(Optional.of(Instant.now()));
+        when(notification.sendAccountQueueMessage(anyString(), any(Instant.class), any(AccountsNotification.class))).thenReturn(new CompletableFuture<>());
+
+        // When
+        relay.relay();
+
+        // Then
+        verify(repository, never()).markSent(anyCollection(), any(Instant.class));
+        verify(repository).release(List.of(1L));
+    }
+
+    @Test
+    void relayWaitsForConfirmsOutsideTransactions() {
+        // Given
+        var waitedInTransaction = new AtomicBoolean();
+        when(repository.findPending(any(Instant.class), eq(Limit.of(BATCH_SIZE)))).thenReturn(List.of(getMessage(1L)));
+        when(repository.findOldestPending()).thenReturn(Optional.empty());
+        when(notification.sendAccountQueueMessage(anyString(), any(Instant.class), any(AccountsNotification.class))).thenAnswer(invocation -> {
+            waitedInTransaction.set(inTransaction.get());
+            return CompletableFuture.completedFuture(new CorrelationData.Confirm(true, null));
+        });
+
+        // When
+        relay.relay();
+
+        // Then
+        assertThat(waitedInTransaction).isFalse();
+        verify(repository).markSent(eq(List.of(1L)), any(Instant.class));
+    }
+
+    @Test
+    void relaySkipsPublishingWhenNothingIsPending() {
+        // Given
+        when(repository.findPending(any(Instant.class), eq(Limit.of(BATCH_SIZE)))).thenReturn(List.of());
+        when(repository.findOldestPending()).thenReturn(Optional.empty());
+
+        // When
+        relay.relay();
+
+        // Then
+        verify(repository, never()).claim(anyCollection(), any(Instant.class));
+        verify(notification, never()).sendAccountQueueMessage(anyString(), any(Instant.class), any(AccountsNotification.class));
+    }
+
+    private static OutboxEntity getMessage(long id) {
+        var message = TransactionsMapper.dtoToOutbox(new AccountsNotification("BROKER A", Money.of(BigDecimal.TEN)));
+        message.setId(id);
+        return message;
+    }
+
+    /**
+     * Runs the callbacks in place, flagging while one is running.
+     */
+    private class FlaggingTransactions implements TransactionOperations {
+
+        @Override
+        public <T> T execute(TransactionCallback<T> action) {
+            inTransaction.set(true);
+            try {
+                return action.doInTransaction(null);
+            } finally {
+                inTransaction.set(false);
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,94 @@
+package com.renansouza.folio.transactions;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import com.renansouza.folio.transactions.models.AccountsNotification;
+import com.renansouza.folio.transactions.models.Money;
+import com.renansouza.folio.transactions.models.OutboxEntity;
+import com.renansouza.folio.transactions.models.TransactionsMapper;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.context.TestPropertySource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Tag("Unit")
+@DataJpaTest
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:testdb",
+        "spring.datasource.driverClassName=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=password",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+})
+class OutboxRepositoryTest {
+
+    @Autowired
+    private OutboxRepository repository;
+
+    @Test
+    void findPendingInOrder() {
+        var messages = repository.saveAll(getMessages(3));
+        repository.markSent(List.of(messages.get(1).getId()), Instant.now());
+
+        var pending = repository.findPending(Instant.now(), Limit.of(10));
+
+        assertThat(pending)
+                .extracting(OutboxEntity::getId)
+                .containsExactly(messages.getFirst().getId(), messages.getLast().getId());
+    }
+
+    @Test
+    void findPendingSkipsClaimedUntilTheClaimExpires() {
+        var messages = repository.saveAll(getMessages(2));
+        var now = Instant.now();
+        repository.claim(List.of(messages.getFirst().getId()), now.plus(1, ChronoUnit.MINUTES));
+
+        assertThat(repository.findPending(now, Limit.of(10)))
+                .extracting(OutboxEntity::getId)
+                .containsExactly(messages.getLast().getId());
+        assertThat(repository.findPending(now.plus(2, ChronoUnit.MINUTES), Limit.of(10)))
+                .extracting(OutboxEntity::getId)
+                .containsExactly(messages.getFirst().getId(), messages.getLast().getId());
+
+        repository.release(List.of(messages.getFirst().getId()));
+
+        assertThat(repository.findPending(now, Limit.of(10))).hasSize(2);
+    }
+
+    @Test
+    void findOldestPending() {
+        var messages = getMessages(2);
+        messages.getFirst().setCreatedAt(Instant.now().minus(1, ChronoUnit.HOURS));
+        messages.getFirst().setSentAt(Instant.now());
+        messages.getLast().setCreatedAt(Instant.now().truncatedTo(ChronoUnit.SECONDS));
+        repository.saveAll(messages);
+
+        assertThat(repository.findOldestPending()).contains(messages.getLast().getCreatedAt());
+    }
+
+    @Test
+    void deleteSentBefore() {
+        var messages = getMessages(2);
+        messages.getFirst().setSentAt(Instant.now().minus(1, ChronoUnit.DAYS));
+        repository.saveAll(messages);
+
+        repository.deleteSentBefore(Instant.now().minus(1, ChronoUnit.HOURS));
+
+        assertThat(repository.findAll()).extracting(OutboxEntity::getId).containsExactly(messages.getLast().getId());
+    }
+
+    private static List<OutboxEntity> getMessages(int size) {
+        return IntStream.range(0, size)
+                .mapToObj(i -> TransactionsMapper.dtoToOutbox(new AccountsNotification("BROKER A", Money.of(BigDecimal.valueOf(i)))))
+                .toList();
+    }
+
+}
@@ -0,0 +1,63 @@
+package com.renansouza.folio.transactions;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import com.renansouza.folio.transactions.models.PositionsResponse;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.Matchers.hasSize;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@Tag("Unit")
+@WebMvcTest(PositionsController.class)
+class PositionsControllerTest {
+
+    private static final String PATH = "/v1/positions";
+
+    @Autowired
+    private MockMvc mvc;
+
+    @MockBean
+    PositionsService service;
+
+    @Test
+    @DisplayName("get zero positions.")
+    void getZeroPositions() throws Exception {
+        mvc.perform(get(PATH)).andExpect(status().isNoContent());
+
+        verify(service, times(1)).find(null);
+    }
+
+    @Test
+    @DisplayName("get the positions of a broker.")
+    void getPositionsByBroker() throws Exception {
+        // Given
+        var broker = "BROKER A";
+        when(service.find(broker)).thenReturn(List.of(
+                new PositionsResponse(broker, "ASSE1", 10, new BigDecimal("10.10"), new BigDecimal("101.00")),
+                new PositionsResponse(broker, "ASSE11", 5, new BigDecimal("2.00"), new BigDecimal("10.00"))));
+
+        // Then
+        mvc.perform(get(PATH).param("broker", broker))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].asset", is("ASSE1")))
+                .andExpect(jsonPath("$[0].quantity", is(10)));
+
+        verify(service, times(1)).find(broker);
+    }
+
+}
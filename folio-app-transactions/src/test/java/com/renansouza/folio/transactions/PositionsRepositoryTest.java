@@ -0,0 +1,143 @@
+package com.renansouza.folio.transactions;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+
+import com.renansouza.folio.transactions.models.PositionsEntity;
+import com.renansouza.folio.transactions.models.PositionsId;
+import com.renansouza.folio.transactions.models.PositionsResponse;
+import com.renansouza.folio.transactions.models.TransactionType;
+import com.renansouza.folio.transactions.models.TransactionsEntity;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Tag("Unit")
+@DataJpaTest
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:testdb",
+        "spring.datasource.driverClassName=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=password",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+})
+class PositionsRepositoryTest {
+
+    @Autowired
+    private PositionsRepository repository;
+
+    @Autowired
+    private TransactionsRepository transactions;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void findAllPositionsByBroker() {
+        repository.save(getPosition("BROKER A", "ASSE11"));
+        repository.save(getPosition("BROKER A", "ASSE1"));
+        repository.save(getPosition("BROKER B", "ASSE1"));
+
+        assertThat(repository.findAllPositionsByBroker("BROKER A"))
+                .extracting(PositionsResponse::asset)
+                .containsExactly("ASSE1", "ASSE11");
+        assertThat(repository.findAllPositions()).hasSize(3);
+    }
+
+    @Test
+    void findForUpdate() {
+        var id = new PositionsId("BROKER C", "ASSE1");
+        repository.save(getPosition(id.broker(), id.asset()));
+
+        assertThat(repository.findForUpdate(id)).get().extracting(PositionsEntity::getQuantity).isEqualTo(10L);
+        assertThat(repository.findForUpdate(new PositionsId("BROKER C", "ASSE11"))).isEmpty();
+    }
+
+    @Test
+    void createIfAbsent() {
+        var existing = new PositionsId("BROKER H", "ASSE1");
+        var missing = new PositionsId("BROKER H", "ASSE11");
+        repository.save(getPosition(existing.broker(), existing.asset()));
+
+        repository.createIfAbsent(existing);
+        repository.createIfAbsent(missing);
+        repository.createIfAbsent(missing);
+
+        assertThat(repository.findAllPositionsByBroker("BROKER H")).containsExactly(
+                new PositionsResponse("BROKER H", "ASSE1", 10, new BigDecimal("1.000000"), new BigDecimal("10.00")),
+                new PositionsResponse("BROKER H", "ASSE11", 0, new BigDecimal("0.000000"), new BigDecimal("0.00")));
+    }
+
+    @Test
+    void streamAllTransactionsInDateOrder() {
+        var saved = transactions.saveAll(List.of(
+                getTransaction("BROKER D", TransactionType.BUY, "20.00", 2),
+                getTransaction("BROKER D", TransactionType.BUY, "10.00", 5),
+                getTransaction("BROKER E", TransactionType.BUY, "10.00", 1)));
+        var deleted = transactions.save(getTransaction("BROKER D", TransactionType.SELL, "10.00", 1));
+        transactions.delete(deleted);
+        transactions.flush();
+
+        try (var stream = repository.streamAllTransactions("BROKER D", "ASSE1")) {
+            assertThat(stream.map(TransactionsEntity::getId).toList())
+                    .containsExactly(saved.get(1).getId(), saved.get(0).getId());
+        }
+    }
+
+    @Test
+    void findLatestTransactionsSkipsTheGivenOnes() {
+        var saved = transactions.saveAll(List.of(
+                getTransaction("BROKER H", TransactionType.BUY, "10.00", 3),
+                getTransaction("BROKER H", TransactionType.BUY, "20.00", 2),
+                getTransaction("BROKER H", TransactionType.BUY, "30.00", 5)));
+
+        assertThat(repository.findLatestTransactions("BROKER H", "ASSE1", List.of(saved.get(1).getId()), Limit.of(1)))
+                .containsExactly(saved.getFirst());
+    }
+
+    @Test
+    void seedPositionsSinceLastClosed() throws IOException {
+        transactions.saveAll(List.of(
+                getTransaction("BROKER F", TransactionType.BUY, "10.00", 3),
+                getTransaction("BROKER F", TransactionType.SELL, "15.00", 2),
+                getTransaction("BROKER F", TransactionType.BUY, "20.00", 1),
+                getTransaction("BROKER G", TransactionType.BUY, "10.00", 2),
+                getTransaction("BROKER G", TransactionType.SELL, "15.00", 1)));
+        transactions.flush();
+
+        var migration = new ClassPathResource("db/migration/common/V5__Create_Positions_Table.sql").getContentAsString(StandardCharsets.UTF_8);
+        var seed = migration.substring(migration.indexOf("INSERT INTO positions"), migration.lastIndexOf(';'));
+        jdbcTemplate.execute(seed);
+
+        assertThat(repository.findAllPositionsByBroker("BROKER F")).containsExactly(
+                new PositionsResponse("BROKER F", "ASSE1", 10, new BigDecimal("20.000000"), new BigDecimal("200.00")));
+        assertThat(repository.findAllPositionsByBroker("BROKER G")).containsExactly(
+                new PositionsResponse("BROKER G", "ASSE1", 0, new BigDecimal("0.000000"), new BigDecimal("0.00")));
+    }
+
+    private static TransactionsEntity getTransaction(String broker, TransactionType type, String price, int daysAgo) {
+        return new TransactionsEntity(0, LocalDate.now().minusDays(daysAgo), type, "ASSE1", new BigDecimal(price), 10, BigDecimal.ZERO, broker);
+    }
+
+    private static PositionsEntity getPosition(String broker, String asset) {
+        var position = new PositionsEntity(new PositionsId(broker, asset));
+        position.setQuantity(10);
+        position.setBoughtQuantity(10);
+        position.setBoughtCost(BigDecimal.TEN);
+        position.setAverageCost(BigDecimal.ONE);
+        position.setTotalInvested(BigDecimal.TEN);
+
+        return position;
+    }
+
+}
@@ -0,0 +1,250 @@
+package com.renansouza.folio.transactions;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import com.renansouza.folio.transactions.models.PositionsEntity;
+import com.renansouza.folio.transactions.models.PositionsId;
+import com.renansouza.folio.transactions.models.TransactionType;
+import com.renansouza.folio.transactions.models.TransactionsEntity;
+import com.renansouza.folio.transactions.models.TransactionsOperation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Limit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@Tag("Unit")
+class PositionsServiceTest {
+
+    private static final PositionsId ID = new PositionsId("BROKER A", "ASSE1");
+
+    @Mock
+    private PositionsRepository repository;
+
+    @InjectMocks
+    private PositionsService service;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(repository.findForUpdate(any())).thenReturn(Optional.empty(), Optional.of(new PositionsEntity(ID)));
+        when(repository.save(any(PositionsEntity.class))).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    @Test
+    void findByBroker() {
+        service.find("BROKER A");
+
+        verify(repository, times(1)).findAllPositionsByBroker("BROKER A");
+        verify(repository, never()).findAllPositions();
+    }
+
+    @Test
+    void findAll() {
+        service.find(null);
+
+        verify(repository, times(1)).findAllPositions();
+    }
+
+    @Test
+    void applyBuysAndSells() {
+        // Given
+        var transactions = List.of(
+                getTransaction(TransactionType.BUY, "10.00", 10, "1.00"),
+                getTransaction(TransactionType.BUY, "20.00", 10, "1.00"),
+                getTransaction(TransactionType.SELL, "30.00", 5, "1.00"));
+
+        // When
+        service.apply(TransactionsOperation.SAVE, transactions);
+
+        // Then
+        var position = getSavedPosition();
+        assertThat(position.getId()).isEqualTo(ID);
+        assertThat(position.getQuantity()).isEqualTo(15);
+        assertThat(position.getAverageCost()).isEqualByComparingTo("15.10");
+        assertThat(position.getTotalInvested()).isEqualByComparingTo("226.50");
+    }
+
+    @Test
+    void createPositionOnFirstWrite() {
+        // When
+        service.apply(TransactionsOperation.SAVE, List.of(getTransaction(TransactionType.BUY, "10.00", 10, "0.00")));
+
+        // Then
+        InOrder order = inOrder(repository);
+        order.verify(repository).findForUpdate(ID);
+        order.verify(repository).createIfAbsent(ID);
+        order.verify(repository).findForUpdate(ID);
+        assertThat(getSavedPosition().getQuantity()).isEqualTo(10);
+    }
+
+    @Test
+    void lockExistingPositionWithoutCreatingIt() {
+        // Given
+        when(repository.findForUpdate(ID)).thenReturn(Optional.of(new PositionsEntity(ID)));
+
+        // When
+        service.apply(TransactionsOperation.SAVE, List.of(getTransaction(TransactionType.BUY, "10.00", 10, "0.00")));
+
+        // Then
+        verify(repository, never()).createIfAbsent(any());
+    }
+
+    @Test
+    void resetCostWhenPositionIsClosed() {
+        // Given
+        var transactions = List.of(
+                getTransaction(TransactionType.BUY, "10.00", 10, "0.00", 1),
+                getTransaction(TransactionType.SELL, "15.00", 10, "0.00", 2),
+                getTransaction(TransactionType.BUY, "20.00", 10, "0.00", 3));
+
+        // When
+        service.apply(TransactionsOperation.SAVE, transactions);
+
+        // Then
+        var position = getSavedPosition();
+        assertThat(position.getQuantity()).isEqualTo(10);
+        assertThat(position.getAverageCost()).isEqualByComparingTo("20.00");
+        assertThat(position.getTotalInvested()).isEqualByComparingTo("200.00");
+    }
+
+    @Test
+    void applyTransactionsInDateOrder() {
+        // Given
+        var buy = getTransaction(TransactionType.BUY, "20.00", 10, "0.00", 3);
+        var sell = getTransaction(TransactionType.SELL, "15.00", 10, "0.00", 2);
+        var first = getTransaction(TransactionType.BUY, "10.00", 10, "0.00", 1);
+        first.setDate(LocalDate.now().minusDays(1));
+
+        // When
+        service.apply(TransactionsOperation.SAVE, List.of(buy, sell, first));
+
+        // Then
+        var position = getSavedPosition();
+        assertThat(position.getQuantity()).isEqualTo(10);
+        assertThat(position.getAverageCost()).isEqualByComparingTo("20.00");
+    }
+
+    @Test
+    void replayBackdatedSaveIntoReopenedPosition() {
+        // Given
+        var history = List.of(
+                getTransaction(TransactionType.BUY, "10.00", 10, "0.00", 1, 5),
+                getTransaction(TransactionType.SELL, "15.00", 10, "0.00", 2, 4),
+                getTransaction(TransactionType.BUY, "20.00", 10, "0.00", 3, 3));
+        var backdated = getTransaction(TransactionType.BUY, "30.00", 10, "0.00", 4, 6);
+        var existing = new PositionsEntity(ID);
+        existing.setQuantity(10);
+        existing.setBoughtQuantity(10);
+        existing.setBoughtCost(new BigDecimal("200.00"));
+        when(repository.findForUpdate(ID)).thenReturn(Optional.of(existing));
+        when(repository.findLatestTransactions(ID.broker(), ID.asset(), List.of(4L), Limit.of(1))).thenReturn(List.of(history.getLast()));
+        when(repository.streamAllTransactions(ID.broker(), ID.asset()))
+                .thenAnswer(invocation -> Stream.concat(Stream.of(backdated), history.stream()));
+
+        // When
+        service.apply(TransactionsOperation.SAVE, List.of(backdated));
+        var saved = getSavedPosition();
+        var savedFigures = List.of(saved.getQuantity(), saved.getAverageCost(), saved.getTotalInvested());
+        service.apply(TransactionsOperation.DELETE, List.of(getTransaction(TransactionType.BUY, "1.00", 1, "0.00", 5)));
+
+        // Then
+        assertThat(savedFigures).containsExactly(20L, new BigDecimal("20.000000"), new BigDecimal("400.00"));
+        assertThat(List.of(existing.getQuantity(), existing.getAverageCost(), existing.getTotalInvested())).isEqualTo(savedFigures);
+    }
+
+    @Test
+    void replayDeletedTransactions() {
+        // Given
+        var existing = new PositionsEntity(ID);
+        existing.setQuantity(15);
+        existing.setBoughtQuantity(20);
+        existing.setBoughtCost(new BigDecimal("302.00"));
+        when(repository.findForUpdate(ID)).thenReturn(Optional.of(existing));
+        when(repository.streamAllTransactions(ID.broker(), ID.asset()))
+                .thenReturn(Stream.of(getTransaction(TransactionType.BUY, "10.00", 10, "1.00", 1)));
+
+        // When
+        service.apply(TransactionsOperation.DELETE, List.of(
+                getTransaction(TransactionType.BUY, "20.00", 10, "1.00", 2),
+                getTransaction(TransactionType.SELL, "30.00", 5, "1.00", 3)));
+
+        // Then
+        var position = getSavedPosition();
+        assertThat(position.getQuantity()).isEqualTo(10);
+        assertThat(position.getAverageCost()).isEqualByComparingTo("10.10");
+        assertThat(position.getTotalInvested()).isEqualByComparingTo("101.00");
+    }
+
+    @Test
+    void replayDeletedSellOfClosedPosition() {
+        // Given
+        var existing = new PositionsEntity(ID);
+        existing.setQuantity(10);
+        existing.setBoughtQuantity(10);
+        existing.setBoughtCost(new BigDecimal("200.00"));
+        when(repository.findForUpdate(ID)).thenReturn(Optional.of(existing));
+        when(repository.streamAllTransactions(ID.broker(), ID.asset())).thenReturn(Stream.of(
+                getTransaction(TransactionType.BUY, "10.00", 10, "0.00", 1),
+                getTransaction(TransactionType.BUY, "20.00", 10, "0.00", 3)));
+
+        // When
+        service.apply(TransactionsOperation.DELETE, List.of(getTransaction(TransactionType.SELL, "15.00", 10, "0.00", 2)));
+
+        // Then
+        var position = getSavedPosition();
+        assertThat(position.getQuantity()).isEqualTo(20);
+        assertThat(position.getAverageCost()).isEqualByComparingTo("15.00");
+        assertThat(position.getTotalInvested()).isEqualByComparingTo("300.00");
+    }
+
+    @Test
+    void revertEveryBuy() {
+        // When
+        service.apply(TransactionsOperation.SAVE, List.of(getTransaction(TransactionType.BUY, "10.00", 10, "1.00")));
+        var position = getSavedPosition();
+        when(repository.findForUpdate(ID)).thenReturn(Optional.of(position));
+        when(repository.streamAllTransactions(ID.broker(), ID.asset())).thenReturn(Stream.empty());
+        service.apply(TransactionsOperation.DELETE, List.of(getTransaction(TransactionType.BUY, "10.00", 10, "1.00")));
+
+        // Then
+        assertThat(position.getQuantity()).isZero();
+        assertThat(position.getAverageCost()).isZero();
+        assertThat(position.getTotalInvested()).isZero();
+    }
+
+    private PositionsEntity getSavedPosition() {
+        var captor = ArgumentCaptor.forClass(PositionsEntity.class);
+        verify(repository, times(1)).save(captor.capture());
+        return captor.getValue();
+    }
+
+    private static TransactionsEntity getTransaction(TransactionType type, String price, int quantity, String fee) {
+        return getTransaction(type, price, quantity, fee, 0);
+    }
+
+    private static TransactionsEntity getTransaction(TransactionType type, String price, int quantity, String fee, long id) {
+        return getTransaction(type, price, quantity, fee, id, 0);
+    }
+
+    private static TransactionsEntity getTransaction(TransactionType type, String price, int quantity, String fee, long id, int daysAgo) {
+        return new TransactionsEntity(id, LocalDate.now().minusDays(daysAgo), type, ID.asset(), new BigDecimal(price), quantity, new BigDecimal(fee), ID.broker());
+    }
+
+}
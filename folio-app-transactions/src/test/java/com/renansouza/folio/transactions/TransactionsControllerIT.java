@@ -1,9 +1,13 @@
 package com.renansouza.folio.transactions;
 
+import java.util.stream.IntStream;
+
 import com.renansouza.folio.transactions.models.AccountsNotification;
 import com.renansouza.folio.transactions.models.TransactionType;
+import com.renansouza.folio.transactions.models.TransactionsBatchRequest;
 import com.renansouza.folio.transactions.models.TransactionsMapper;
 import com.renansouza.folio.transactions.models.TransactionsOperation;
+import com.renansouza.folio.transactions.models.TransactionsRequest;
 import io.restassured.RestAssured;
 import io.restassured.filter.log.RequestLoggingFilter;
 import io.restassured.filter.log.ResponseLoggingFilter;
@@ -34,7 +38,8 @@ import static com.renansouza.folio.transactions.TransactionsUtils.getEntities;
 import static com.renansouza.folio.transactions.TransactionsUtils.getFailureRequest;
 import static com.renansouza.folio.transactions.TransactionsUtils.getRequests;
 import static io.restassured.RestAssured.given;
-import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.everyItem;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
 
@@ -46,7 +51,8 @@ class TransactionsControllerIT {
     private static final String PATH = "/v1/transactions";
     private static final int PAGE_SIZE = 20;
     private static final int TOTAL_PAGES = 1;
-    private static final String QUEUE_NAME = "accounts";
+    private static final String QUEUE_NAME = "accounts.0";
+    private static final long RECEIVE_TIMEOUT = 10_000;
 
     @LocalServerPort
     private Integer port;
@@ -76,11 +82,21 @@ class TransactionsControllerIT {
         registry.add("spring.rabbitmq.port", rabbit::getAmqpPort);
         registry.add("spring.rabbitmq.username", rabbit::getAdminUsername);
         registry.add("spring.rabbitmq.password", rabbit::getAdminPassword);
+        registry.add("rabbitmq.partitions", () -> 1);
     }
 
     @Autowired
     TransactionsRepository repository;
 
+    @Autowired
+    OutboxRepository outboxRepository;
+
+    @Autowired
+    PositionsRepository positionsRepository;
+
+    @Autowired
+    IdempotencyRepository idempotencyRepository;
+
     @Autowired
     private RabbitTemplate rabbitTemplate;
 
@@ -88,6 +104,9 @@ class TransactionsControllerIT {
     void setUp() {
         RestAssured.baseURI = "http://localhost:" + port;
         repository.deleteAll();
+        outboxRepository.deleteAll();
+        idempotencyRepository.deleteAll();
+        positionsRepository.deleteAll();
     }
 
     @AfterEach
@@ -180,6 +199,57 @@ class TransactionsControllerIT {
                 .body("page.totalElements", is(filteredTransactions.size()));
     }
 
+    @Test
+    @DisplayName("should get all transactions page by page using the cursor.")
+    void getTransactionsAfter() {
+        int elements = 5;
+        repository.saveAll(getEntities(elements));
+
+        String next = given()
+                .param("after", "")
+                .param("pageSize", 3)
+                .contentType(ContentType.JSON)
+                .when()
+                .get(PATH)
+                .then()
+                .statusCode(HttpStatus.SC_OK)
+                .body("content", hasSize(3))
+                .body("page.size", is(3))
+                .body("page.next", Matchers.notNullValue())
+                .extract().path("page.next");
+
+        given()
+                .param("after", next)
+                .param("pageSize", 3)
+                .contentType(ContentType.JSON)
+                .when()
+                .get(PATH)
+                .then()
+                .statusCode(HttpStatus.SC_OK)
+                .body("content", hasSize(elements - 3))
+                .body("page.next", Matchers.nullValue());
+    }
+
+    @Test
+    @DisplayName("should export all transactions of a broker as csv.")
+    void exportTransactionsByBroker() {
+        var transactions = repository.saveAll(getEntities(10));
+        var broker = transactions.getLast().getBroker();
+        var filteredTransactions = transactions.stream().filter(t -> t.getBroker().equals(broker)).toList();
+
+        var body = given()
+                .param("broker", broker)
+                .param("format", "csv")
+                .when()
+                .get(PATH + "/export")
+                .then()
+                .statusCode(HttpStatus.SC_OK)
+                .contentType("text/csv")
+                .extract().asString();
+
+        assertThat(body.lines()).hasSize(filteredTransactions.size() + 1);
+    }
+
     @Test
     @DisplayName("should add a new transactions to database.")
     void addTransaction() {
@@ -195,12 +265,100 @@ class TransactionsControllerIT {
         var entity = TransactionsMapper.dtoToEntity(request);
         var amount = getAmount(entity, TransactionsOperation.SAVE);
         var expectedMessage = new AccountsNotification(request.broker(), amount);
-        var actualMessage = rabbitTemplate.receiveAndConvert(QUEUE_NAME);
+        var actualMessage = rabbitTemplate.receiveAndConvert(QUEUE_NAME, RECEIVE_TIMEOUT);
 
         // Then
         assertThat(actualMessage).isEqualTo(expectedMessage);
     }
 
+    @Test
+    @DisplayName("should add a new transaction only once when the request is retried with the same idempotency key.")
+    void addTransactionWithIdempotencyKey() {
+        var request = getRequests(1).getFirst();
+        var ids = IntStream.range(0, 3).mapToObj(i -> given()
+                        .header("Idempotency-Key", "retried-request")
+                        .body(request)
+                        .contentType(ContentType.JSON)
+                        .when()
+                        .post(PATH)
+                        .then()
+                        .statusCode(HttpStatus.SC_CREATED)
+                        .extract()
+                        .jsonPath()
+                        .getLong("id"))
+                .distinct()
+                .toList();
+
+        // Then
+        assertThat(ids).hasSize(1);
+        assertThat(repository.count()).isEqualTo(1);
+        assertThat(rabbitTemplate.receiveAndConvert(QUEUE_NAME, RECEIVE_TIMEOUT)).isNotNull();
+        assertThat(rabbitTemplate.receiveAndConvert(QUEUE_NAME, 1_000)).isNull();
+    }
+
+    @Test
+    @DisplayName("should add new transactions to database in batch, notifying each broker once.")
+    void addTransactions() {
+        var requests = getRequests(50);
+        given()
+                .body(new TransactionsBatchRequest(requests))
+                .contentType(ContentType.JSON)
+                .when()
+                .post(PATH + "/batch")
+                .then()
+                .statusCode(HttpStatus.SC_CREATED);
+
+        var expectedMessages = TransactionsMapper.entitiesToDto(TransactionsOperation.SAVE,
+                requests.stream().map(TransactionsMapper::dtoToEntity).toList());
+        var actualMessages = expectedMessages.stream().map(message -> rabbitTemplate.receiveAndConvert(QUEUE_NAME, RECEIVE_TIMEOUT)).toList();
+
+        // Then
+        assertThat(repository.count()).isEqualTo(requests.size());
+        assertThat(actualMessages).containsExactlyInAnyOrderElementsOf(expectedMessages);
+    }
+
+    @Test
+    @DisplayName("should keep the positions of a broker up to date as transactions are added and deleted.")
+    void getPositionsByBroker() {
+        var requests = getRequests(20).stream()
+                .map(request -> new TransactionsRequest(request.date(), request.type(), request.asset(), request.price(), request.quantity(), request.fee(), "BROKER A"))
+                .toList();
+        given()
+                .body(new TransactionsBatchRequest(requests))
+                .contentType(ContentType.JSON)
+                .when()
+                .post(PATH + "/batch")
+                .then()
+                .statusCode(HttpStatus.SC_CREATED);
+
+        var assets = requests.stream().map(TransactionsRequest::asset).distinct().count();
+        given()
+                .contentType(ContentType.JSON)
+                .queryParam("broker", "BROKER A")
+                .when()
+                .get("/v1/positions")
+                .then()
+                .statusCode(HttpStatus.SC_OK)
+                .body("", hasSize((int) assets),
+                        "broker", everyItem(is("BROKER A")));
+
+        repository.findAll().forEach(transaction -> given()
+                .pathParam("id", transaction.getId())
+                .when()
+                .delete(PATH + "/{id}")
+                .then()
+                .statusCode(HttpStatus.SC_NO_CONTENT));
+
+        given()
+                .contentType(ContentType.JSON)
+                .queryParam("broker", "BROKER A")
+                .when()
+                .get("/v1/positions")
+                .then()
+                .statusCode(HttpStatus.SC_OK)
+                .body("quantity", everyItem(is(0)));
+    }
+
     @Test
     @DisplayName("should not add a new transactions to database because the payload is incorrect.")
     void failToAddTransaction() {
@@ -238,7 +396,7 @@ class TransactionsControllerIT {
 
         var amount = getAmount(entity, TransactionsOperation.DELETE);
         var expectedMessage = new AccountsNotification(entity.getBroker(), amount);
-        var actualMessage = rabbitTemplate.receiveAndConvert(QUEUE_NAME);
+        var actualMessage = rabbitTemplate.receiveAndConvert(QUEUE_NAME, RECEIVE_TIMEOUT);
 
         // Then
         assertThat(actualMessage).isEqualTo(expectedMessage);
@@ -1,21 +1,42 @@
 package com.renansouza.folio.transactions;
 
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.renansouza.folio.transactions.exceptions.IdempotencyKeyConflictException;
+import com.renansouza.folio.transactions.exceptions.InvalidCursorException;
+import com.renansouza.folio.transactions.exceptions.InvalidIdempotencyKeyException;
 import com.renansouza.folio.transactions.exceptions.TransactionNotFoundException;
+import com.renansouza.folio.transactions.models.TransactionType;
+import com.renansouza.folio.transactions.models.TransactionsCursor;
+import com.renansouza.folio.transactions.models.TransactionsBatchRequest;
+import com.renansouza.folio.transactions.models.TransactionsCursorPage;
+import com.renansouza.folio.transactions.models.TransactionsFilter;
+import com.renansouza.folio.transactions.models.TransactionsMapper;
 import com.renansouza.folio.transactions.models.TransactionsRequest;
 import com.renansouza.folio.transactions.models.TransactionsResponse;
 import org.hamcrest.Matchers;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
 import org.mockito.verification.VerificationMode;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
@@ -23,28 +44,38 @@ import org.springframework.test.web.servlet.MockMvc;
 import static com.renansouza.folio.transactions.TransactionsUtils.getFailureRequest;
 import static com.renansouza.folio.transactions.TransactionsUtils.getRequests;
 import static com.renansouza.folio.transactions.TransactionsUtils.getResponses;
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.hasToString;
 import static org.hamcrest.Matchers.stringContainsInOrder;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @Tag("Unit")
 @WebMvcTest(TransactionsController.class)
+@Import({TransactionsVersions.class, TransactionsResponseCache.class})
 class TransactionsControllerTest {
 
     private static final String PATH = "/v1/transactions";
@@ -56,6 +87,9 @@ class TransactionsControllerTest {
     @Autowired
     private ObjectMapper mapper;
 
+    @Autowired
+    private TransactionsVersions versions;
+
     @MockBean
     TransactionsService service;
 
@@ -68,7 +102,7 @@ class TransactionsControllerTest {
         mvc.perform(get(PATH)).andExpect(status().isNoContent());
 
         // Verify that the repository was called with the correct arguments
-        verify(service, ONCE).find(any(), any(), any(PageRequest.class));
+        verify(service, ONCE).find(any(), any(PageRequest.class));
     }
 
     @Test
@@ -77,20 +111,20 @@ class TransactionsControllerTest {
         // Given
         String broker = "BROKER";
         var byBrokers = getResponses(10).stream().filter(transaction -> broker.equals(transaction.broker())).toList();
-        when(service.find(eq(broker), any(), any(PageRequest.class))).thenReturn(new PageImpl<>(byBrokers));
+        when(service.find(eq(TransactionsFilter.byBroker(broker)), any(PageRequest.class))).thenReturn(new PageImpl<>(byBrokers));
 
         // Then
         mvc.perform(get(PATH).param("broker", broker).accept(MediaType.APPLICATION_JSON)).andExpect(status().isNoContent());
 
         // Verify that the repository was called with the correct arguments
-        verify(service, ONCE).find(eq(broker), any(), any(PageRequest.class));
+        verify(service, ONCE).find(eq(TransactionsFilter.byBroker(broker)), any(PageRequest.class));
     }
 
     @Test
     @DisplayName("get all transactions without filters.")
     void getTransactions() throws Exception {
         // Given
-        when(service.find(any(), any(), any(PageRequest.class))).thenReturn(new PageImpl<>(getResponses(3)));
+        when(service.find(any(), any(PageRequest.class))).thenReturn(new PageImpl<>(getResponses(3)));
 
         // Then
         mvc.perform(get(PATH))
@@ -100,7 +134,7 @@ class TransactionsControllerTest {
                 .andExpect(jsonPath("$.content", hasSize(3)));
 
         // Verify that the repository was called with the correct arguments
-        verify(service, ONCE).find(any(), any(), any(PageRequest.class));
+        verify(service, ONCE).find(any(), any(PageRequest.class));
     }
 
     @Test
@@ -111,13 +145,13 @@ class TransactionsControllerTest {
         var broker = responseList.getFirst().broker();
         var byBrokers = responseList.stream().filter(transaction -> broker.equals(transaction.broker())).toList();
 
-        when(service.find(eq(broker), any(), any(PageRequest.class))).thenReturn(new PageImpl<>(byBrokers));
+        when(service.find(eq(TransactionsFilter.byBroker(broker)), any(PageRequest.class))).thenReturn(new PageImpl<>(byBrokers));
 
         // Then
         mvc.perform(get(PATH).param("broker", broker).accept(MediaType.APPLICATION_JSON)).andExpect(status().isOk());
 
         // Verify that the repository was called with the correct arguments
-        verify(service, ONCE).find(eq(broker), any(), any(PageRequest.class));
+        verify(service, ONCE).find(eq(TransactionsFilter.byBroker(broker)), any(PageRequest.class));
     }
 
     @Test
@@ -128,7 +162,7 @@ class TransactionsControllerTest {
         var asset = responseList.getFirst().asset();
         var byAssets = getResponses(5).stream().filter(transaction -> asset.equals(transaction.asset())).toList();
 
-        when(service.find(any(), eq(asset), any(PageRequest.class))).thenReturn(new PageImpl<>(byAssets));
+        when(service.find(eq(TransactionsFilter.byAsset(asset)), any(PageRequest.class))).thenReturn(new PageImpl<>(byAssets));
 
         // Then
         mvc.perform(get(PATH).param("asset", asset).accept(MediaType.APPLICATION_JSON))
@@ -138,7 +172,251 @@ class TransactionsControllerTest {
                 .andExpect(jsonPath("$.content", hasSize(byAssets.size())));
 
         // Verify that the repository was called with the correct arguments
-        verify(service, ONCE).find(any(), eq(asset), any(PageRequest.class));
+        verify(service, ONCE).find(eq(TransactionsFilter.byAsset(asset)), any(PageRequest.class));
+    }
+
+    @Test
+    @DisplayName("get all transactions within a date range.")
+    void getTransactionsBetween() throws Exception {
+        // Given
+        var filter = TransactionsFilter.of(null, null, null, LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 31), null, null, null, null);
+        when(service.find(eq(filter), any(PageRequest.class))).thenReturn(new PageImpl<>(getResponses(3)));
+
+        // Then
+        mvc.perform(get(PATH).param("from", "2024-01-01").param("to", "2024-01-31"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(3)));
+
+        // Verify that the repository was called with the correct arguments
+        verify(service, ONCE).find(eq(filter), any(PageRequest.class));
+    }
+
+    @Test
+    @DisplayName("fail to get transactions due to an inverted date range.")
+    void failToGetTransactionsBetween() throws Exception {
+        // Then
+        mvc.perform(get(PATH).param("from", "2024-02-01").param("to", "2024-01-31"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.path", is(PATH)))
+                .andExpect(jsonPath("$.message", is("The provided range from 2024-02-01 to 2024-01-31 is not valid")))
+                .andExpect(jsonPath("$.status", is(HttpStatus.BAD_REQUEST.value())));
+
+        verify(service, never()).find(any(), any(PageRequest.class));
+    }
+
+    @Test
+    @DisplayName("get all transactions combining every filter.")
+    void getTransactionsCombiningFilters() throws Exception {
+        // Given
+        var filter = TransactionsFilter.of("BROKER A", "ASSE1", TransactionType.SELL, LocalDate.of(2024, 1, 1), null,
+                new BigDecimal("10.00"), new BigDecimal("20.00"), 1, 100);
+        when(service.find(eq(filter), any(PageRequest.class))).thenReturn(new PageImpl<>(getResponses(2)));
+
+        // Then
+        mvc.perform(get(PATH)
+                        .param("broker", "BROKER A")
+                        .param("asset", "ASSE1")
+                        .param("type", "SELL")
+                        .param("from", "2024-01-01")
+                        .param("minPrice", "10.00")
+                        .param("maxPrice", "20.00")
+                        .param("minQuantity", "1")
+                        .param("maxQuantity", "100"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(2)));
+
+        // Verify that the repository was called with the correct arguments
+        verify(service, ONCE).find(eq(filter), any(PageRequest.class));
+    }
+
+    @Test
+    @DisplayName("fail to get transactions due to an inverted price range.")
+    void failToGetTransactionsByPrice() throws Exception {
+        // Then
+        mvc.perform(get(PATH).param("minPrice", "20").param("maxPrice", "10"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message", is("The provided price range from 20 to 10 is not valid")))
+                .andExpect(jsonPath("$.status", is(HttpStatus.BAD_REQUEST.value())));
+
+        verify(service, never()).find(any(), any(PageRequest.class));
+    }
+
+    @Test
+    @DisplayName("get transactions tagged with the version of the broker.")
+    void getTransactionsWithETag() throws Exception {
+        // Given
+        when(service.find(any(), any(PageRequest.class))).thenReturn(new PageImpl<>(getResponses(3)));
+
+        // Then
+        mvc.perform(get(PATH).param("broker", "BROKER A"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, versions.etag("BROKER A", null)));
+    }
+
+    @Test
+    @DisplayName("get not modified without reading the transactions when the ETag still matches.")
+    void getTransactionsNotModified() throws Exception {
+        // Given
+        var etag = versions.etag("BROKER A", null);
+
+        // Then
+        mvc.perform(get(PATH).param("broker", "BROKER A").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(content().string(""));
+
+        verify(service, never()).find(any(), any(PageRequest.class));
+    }
+
+    @Test
+    @DisplayName("get transactions again once the broker is written.")
+    void getTransactionsModified() throws Exception {
+        // Given
+        var etag = versions.etag("BROKER A", null);
+        versions.increment("BROKER A", "ASSE1");
+        when(service.find(any(), any(PageRequest.class))).thenReturn(new PageImpl<>(getResponses(3)));
+
+        // Then
+        mvc.perform(get(PATH).param("broker", "BROKER A").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, versions.etag("BROKER A", null)));
+
+        verify(service, ONCE).find(any(), any(PageRequest.class));
+    }
+
+    @Test
+    @DisplayName("get a large page of transactions gzipped when the client accepts it.")
+    void getTransactionsGzipped() throws Exception {
+        // Given
+        var transactions = new PageImpl<>(getResponses(50));
+        when(service.find(any(), any(PageRequest.class))).thenReturn(transactions);
+
+        // When
+        var result = mvc.perform(get(PATH).header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING))
+                .andReturn();
+
+        // Then
+        try (var gzip = new GZIPInputStream(new ByteArrayInputStream(result.getResponse().getContentAsByteArray()))) {
+            var page = mapper.readTree(gzip);
+            assertThat(page.path("content")).hasSize(50);
+            assertThat(page.path("page").path("totalElements").asInt()).isEqualTo(50);
+        }
+    }
+
+    @Test
+    @DisplayName("get a large page of transactions as plain JSON when the client does not accept gzip.")
+    void getTransactionsNotGzipped() throws Exception {
+        // Given
+        when(service.find(any(), any(PageRequest.class))).thenReturn(new PageImpl<>(getResponses(50)));
+
+        // Then
+        mvc.perform(get(PATH))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.content", hasSize(50)));
+    }
+
+    @Test
+    @DisplayName("get the first page of transactions using a cursor.")
+    void getTransactionsAfter() throws Exception {
+        // Given
+        var responses = getResponses(3);
+        var slice = new SliceImpl<>(responses, Pageable.ofSize(3), true);
+        var next = TransactionsCursor.of(responses.getLast()).encode();
+
+        when(service.findAfter(any(), eq(""), eq(3), eq(Sort.Direction.ASC))).thenReturn(TransactionsCursorPage.of(slice));
+
+        // Then
+        mvc.perform(get(PATH).param("after", "").param("pageSize", "3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(3)))
+                .andExpect(jsonPath("$.page.size", is(3)))
+                .andExpect(jsonPath("$.page.next", is(next)));
+
+        // Verify that the repository was called with the correct arguments
+        verify(service, ONCE).findAfter(eq(TransactionsFilter.NONE), eq(""), eq(3), eq(Sort.Direction.ASC));
+        verify(service, never()).find(any(), any(PageRequest.class));
+    }
+
+    @Test
+    @DisplayName("get the next page of transactions using a cursor, keeping every filter.")
+    void getTransactionsAfterCombiningFilters() throws Exception {
+        // Given
+        var responses = getResponses(3);
+        var cursor = TransactionsCursor.of(responses.getFirst()).encode();
+        var filter = TransactionsFilter.of("BROKER A", "ASSE1", null, LocalDate.of(2024, 1, 1), null, null, null, null, null);
+        when(service.findAfter(filter, cursor, 3, Sort.Direction.ASC))
+                .thenReturn(TransactionsCursorPage.of(new SliceImpl<>(responses, Pageable.ofSize(3), false)));
+
+        // Then
+        mvc.perform(get(PATH)
+                        .param("broker", "BROKER A")
+                        .param("asset", "ASSE1")
+                        .param("from", "2024-01-01")
+                        .param("after", cursor)
+                        .param("pageSize", "3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(3)));
+
+        verify(service, ONCE).findAfter(filter, cursor, 3, Sort.Direction.ASC);
+    }
+
+    @Test
+    @DisplayName("fail to get transactions due to an invalid cursor.")
+    void failToGetTransactionsAfter() throws Exception {
+        // Given
+        var cursor = "invalid";
+        when(service.findAfter(any(), anyString(), anyInt(), any())).thenThrow(new InvalidCursorException(cursor));
+
+        // Then
+        mvc.perform(get(PATH).param("after", cursor))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.path", is(PATH)))
+                .andExpect(jsonPath("$.message", is(String.format("The provided cursor %s is not valid", cursor))))
+                .andExpect(jsonPath("$.status", is(HttpStatus.BAD_REQUEST.value())));
+    }
+
+    @ParameterizedTest
+    @CsvSource({"ndjson,application/x-ndjson", "csv,text/csv;charset=UTF-8"})
+    @DisplayName("export all transactions in the requested format.")
+    void exportTransactions(String format, String contentType) throws Exception {
+        // Given
+        var responses = getResponses(3);
+        doAnswer(invocation -> {
+            Consumer<TransactionsResponse> consumer = invocation.getArgument(2);
+            responses.forEach(consumer);
+            return null;
+        }).when(service).export(any(), any(), any());
+
+        // Then
+        var result = mvc.perform(get(PATH + "/export").param("format", format))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        var content = mvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(contentType))
+                .andReturn().getResponse().getContentAsString();
+
+        // Verify that the repository was called with the correct arguments
+        assertThat(content.lines()).hasSize("csv".equals(format) ? responses.size() + 1 : responses.size());
+        verify(service, ONCE).export(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("fail to export transactions due to an unknown format.")
+    void failToExportTransactions() throws Exception {
+        // Then
+        mvc.perform(get(PATH + "/export").param("format", "xml"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message", is("The provided format xml is not supported")));
+
+        // Verify that the repository was called with the correct arguments
+        verify(service, never()).export(any(), any(), any());
     }
 
     @Test
@@ -147,11 +425,78 @@ class TransactionsControllerTest {
         // Given
 
         // Then
-        mvc.perform(post(PATH).content(mapper.writeValueAsString(getRequests(1).getFirst())).contentType(MediaType.APPLICATION_JSON))
-                .andExpect(status().isCreated());
+        var request = getRequests(1).getFirst();
+        when(service.save(any(TransactionsRequest.class), any())).thenReturn(TransactionsMapper.dtoToResponse(1L, request));
+
+        // Then
+        mvc.perform(post(PATH).content(mapper.writeValueAsString(request)).contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.id", is(1)))
+                .andExpect(jsonPath("$.broker", is(request.broker())));
 
         // Verify that the repository was called with the correct arguments
-        verify(service, ONCE).save(any(TransactionsRequest.class));
+        verify(service, ONCE).save(any(TransactionsRequest.class), eq(null));
+    }
+
+    @Test
+    @DisplayName("add a new transaction with an idempotency key")
+    void addTransactionWithIdempotencyKey() throws Exception {
+        // Given
+        var request = getRequests(1).getFirst();
+        var key = "6f1c0c1e-2b1a-4a6e-9d6a-2f1f5d1f9a10";
+
+        // Then
+        mvc.perform(post(PATH).header("Idempotency-Key", key).content(mapper.writeValueAsString(request)).contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isCreated());
+
+        verify(service, ONCE).save(request, key);
+    }
+
+    @Test
+    @DisplayName("failed to add a new transaction because the idempotency key was used by another request")
+    void failedToAddTransactionWithUsedIdempotencyKey() throws Exception {
+        // Given
+        var request = getRequests(1).getFirst();
+        var key = "key";
+        when(service.save(request, key)).thenThrow(new IdempotencyKeyConflictException(key));
+
+        // Then
+        mvc.perform(post(PATH).header("Idempotency-Key", key).content(mapper.writeValueAsString(request)).contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.status", is(HttpStatus.CONFLICT.value())))
+                .andExpect(jsonPath("$.message", is("The idempotency key key was already used by another request")));
+    }
+
+    @Test
+    @DisplayName("failed to add a new transaction because the idempotency key is too long")
+    void failedToAddTransactionWithLongIdempotencyKey() throws Exception {
+        // Given
+        var request = getRequests(1).getFirst();
+        var key = "k".repeat(256);
+        when(service.save(request, key)).thenThrow(new InvalidIdempotencyKeyException(key));
+
+        // Then
+        mvc.perform(post(PATH).header("Idempotency-Key", key).content(mapper.writeValueAsString(request)).contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.status", is(HttpStatus.BAD_REQUEST.value())));
+    }
+
+    @ParameterizedTest
+    @DisplayName("failed to add a new transaction with amounts of more than two decimals")
+    @CsvSource({"10.125,1.00,price: Price must have at most 7 integer digits and 2 decimals.",
+            "10.00,0.125,fee: Fee must have at most 7 integer digits and 2 decimals."})
+    void failedToAddTransactionWithThreeDecimals(String price, String fee, String message) throws Exception {
+        // Given
+        var valid = getRequests(1).getFirst();
+        var request = new TransactionsRequest(valid.date(), valid.type(), valid.asset(), new BigDecimal(price), valid.quantity(), new BigDecimal(fee), valid.broker());
+
+        // Then
+        mvc.perform(post(PATH).content(mapper.writeValueAsString(request)).contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.status", is(HttpStatus.BAD_REQUEST.value())))
+                .andExpect(jsonPath("$.message", stringContainsInOrder(message)));
+
+        verify(service, never()).save(any(TransactionsRequest.class), any());
     }
 
     @Test
@@ -170,7 +515,38 @@ class TransactionsControllerTest {
                 .andExpect(jsonPath("$.message", stringContainsInOrder("date: Date cannot be null.")));
 
         // Verify that the repository was called with the correct arguments
-        verify(service, never()).save(any(TransactionsRequest.class));
+        verify(service, never()).save(any(TransactionsRequest.class), any());
+    }
+
+    @Test
+    @DisplayName("add new transactions in batch successfully")
+    void addTransactions() throws Exception {
+        // Given
+        var request = new TransactionsBatchRequest(getRequests(5));
+
+        // Then
+        mvc.perform(post(PATH + "/batch").content(mapper.writeValueAsString(request)).contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isCreated());
+
+        // Verify that the repository was called with the correct arguments
+        verify(service, ONCE).saveAll(request.transactions());
+    }
+
+    @Test
+    @DisplayName("failed to add new transactions in batch because one of them is invalid")
+    void failedToAddTransactions() throws Exception {
+        // Given
+        var request = "{ \"transactions\": [" + mapper.writeValueAsString(getRequests(1).getFirst()) + ", " + getFailureRequest() + "] }";
+
+        // Then
+        mvc.perform(post(PATH + "/batch").content(request).contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.path", is(PATH + "/batch")))
+                .andExpect(jsonPath("$.status", is(HttpStatus.BAD_REQUEST.value())))
+                .andExpect(jsonPath("$.message", stringContainsInOrder("transactions[1].date: Date cannot be null.")));
+
+        // Verify that the repository was called with the correct arguments
+        verify(service, never()).saveAll(anyList());
     }
 
     @Test
@@ -1,18 +1,40 @@
 package com.renansouza.folio.transactions;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+
+import com.renansouza.folio.transactions.config.AccountsNotificationConverter;
 import com.renansouza.folio.transactions.config.RabbitMQConfig;
 import com.renansouza.folio.transactions.models.AccountsNotification;
 import com.renansouza.folio.transactions.models.TransactionsMapper;
 import com.renansouza.folio.transactions.models.TransactionsOperation;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.mockito.InjectMocks;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.amqp.AmqpConnectException;
+import org.springframework.amqp.AmqpTimeoutException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessagePostProcessor;
+import org.springframework.amqp.core.ReturnedMessage;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 
 import static com.renansouza.folio.transactions.TransactionsUtils.getAmount;
 import static com.renansouza.folio.transactions.TransactionsUtils.getEntities;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.timeout;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -20,6 +42,14 @@ class TransactionsNotificationTest {
 
     private static final String EXCHANGE = "test-exchange";
     private static final String ROUTING_KEY = "test-routingKey";
+    private static final String ID = "1";
+    private static final Instant TIMESTAMP = Instant.parse("2024-10-01T10:15:30Z");
+    private static final int MAX_IN_FLIGHT = 2;
+    private static final int MAX_RETRIES = 1;
+    private static final Duration RETRY_TIMEOUT = Duration.ofSeconds(1);
+
+    @Captor
+    private ArgumentCaptor<MessagePostProcessor> properties;
 
     @Mock
     private RabbitTemplate rabbitTemplate;
@@ -27,14 +57,16 @@ class TransactionsNotificationTest {
     @Mock
     private RabbitMQConfig rabbitMQConfig;
 
-    @InjectMocks
+    private SimpleMeterRegistry registry;
     private TransactionsNotification transactionsNotification;
 
     @BeforeEach
     public void setUp() {
         MockitoAnnotations.openMocks(this);
         when(rabbitMQConfig.getExchangeName()).thenReturn(EXCHANGE);
-        when(rabbitMQConfig.getRoutingKey()).thenReturn(ROUTING_KEY);
+        when(rabbitMQConfig.getRoutingKey(anyString())).thenReturn(ROUTING_KEY);
+        registry = new SimpleMeterRegistry();
+        transactionsNotification = new TransactionsNotification(rabbitMQConfig, rabbitTemplate, registry, MAX_IN_FLIGHT, MAX_RETRIES, 1, 50);
     }
 
     @Test
@@ -45,11 +77,13 @@ class TransactionsNotificationTest {
         var amount = getAmount(entity, operation);
 
         // Act
-        transactionsNotification.sendAccountQueueMessage(TransactionsMapper.entityToDto(operation, entity));
+        var confirmation = transactionsNotification.sendAccountQueueMessage(ID, TIMESTAMP, TransactionsMapper.entityToDto(operation, entity));
 
         // Assert
         var expectedMessage = new AccountsNotification(entity.getBroker(), amount);
-        verify(rabbitTemplate).convertAndSend(EXCHANGE, ROUTING_KEY, expectedMessage);
+        verify(rabbitTemplate).convertAndSend(eq(EXCHANGE), eq(ROUTING_KEY), eq(expectedMessage), properties.capture(), argThat((CorrelationData correlation) -> ID.equals(correlation.getId())));
+        assertThat(confirmation).isNotDone();
+        assertMessageProperties();
     }
 
     @Test
@@ -60,11 +94,146 @@ class TransactionsNotificationTest {
         var amount = getAmount(entity, operation);
 
         // Act
-        transactionsNotification.sendAccountQueueMessage(TransactionsMapper.entityToDto(operation, entity));
+        var confirmation = transactionsNotification.sendAccountQueueMessage(ID, TIMESTAMP, TransactionsMapper.entityToDto(operation, entity));
 
         // Assert
         var expectedMessage = new AccountsNotification(entity.getBroker(), amount);
-        verify(rabbitTemplate).convertAndSend(EXCHANGE, ROUTING_KEY, expectedMessage);
+        verify(rabbitTemplate).convertAndSend(eq(EXCHANGE), eq(ROUTING_KEY), eq(expectedMessage), properties.capture(), argThat((CorrelationData correlation) -> ID.equals(correlation.getId())));
+        assertThat(confirmation).isNotDone();
+        assertMessageProperties();
+    }
+
+    @Test
+    void testSendAccountQueueMessage_Confirmed() {
+        // Arrange
+        var correlations = captureCorrelations();
+
+        // Act
+        var confirmation = transactionsNotification.sendAccountQueueMessage(ID, TIMESTAMP, notification());
+        assertThat(inFlight()).isEqualTo(1);
+        correlations.getValue().getFuture().complete(new CorrelationData.Confirm(true, null));
+
+        // Assert
+        assertThat(confirmation).isCompletedWithValueMatching(CorrelationData.Confirm::isAck);
+        assertThat(inFlight()).isZero();
+        assertThat(registry.get("transactions.notifications.publish").timer().count()).isEqualTo(1);
+        assertThat(registry.get("transactions.notifications.nacked").counter().count()).isZero();
+    }
+
+    @Test
+    void testSendAccountQueueMessage_RetriesNack() {
+        // Arrange
+        var correlations = captureCorrelations();
+
+        // Act
+        var confirmation = transactionsNotification.sendAccountQueueMessage(ID, TIMESTAMP, notification());
+        correlations.getValue().getFuture().complete(new CorrelationData.Confirm(false, "nack"));
+        verify(rabbitTemplate, timeout(1000).times(2)).convertAndSend(eq(EXCHANGE), eq(ROUTING_KEY), any(Object.class), any(MessagePostProcessor.class), any(CorrelationData.class));
+        correlations.getValue().getFuture().complete(new CorrelationData.Confirm(true, null));
+
+        // Assert
+        assertThat(confirmation).succeedsWithin(RETRY_TIMEOUT).matches(CorrelationData.Confirm::isAck);
+        assertThat(registry.get("transactions.notifications.nacked").counter().count()).isEqualTo(1);
+        assertThat(registry.get("transactions.notifications.retried").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void testSendAccountQueueMessage_GivesUpAfterRetries() {
+        // Arrange
+        var correlations = captureCorrelations();
+
+        // Act
+        var confirmation = transactionsNotification.sendAccountQueueMessage(ID, TIMESTAMP, notification());
+        correlations.getValue().getFuture().complete(new CorrelationData.Confirm(false, "nack"));
+        verify(rabbitTemplate, timeout(1000).times(2)).convertAndSend(eq(EXCHANGE), eq(ROUTING_KEY), any(Object.class), any(MessagePostProcessor.class), any(CorrelationData.class));
+        correlations.getValue().getFuture().complete(new CorrelationData.Confirm(false, "nack"));
+
+        // Assert
+        assertThat(confirmation).succeedsWithin(RETRY_TIMEOUT).matches(confirm -> !confirm.isAck());
+        assertThat(registry.get("transactions.notifications.nacked").counter().count()).isEqualTo(2);
+        assertThat(inFlight()).isZero();
+    }
+
+    @Test
+    void testSendAccountQueueMessage_RetriesReturned() {
+        // Arrange
+        var correlations = captureCorrelations();
+
+        // Act
+        var confirmation = transactionsNotification.sendAccountQueueMessage(ID, TIMESTAMP, notification());
+        correlations.getValue().setReturned(new ReturnedMessage(new Message(new byte[0]), 312, "NO_ROUTE", EXCHANGE, ROUTING_KEY));
+        correlations.getValue().getFuture().complete(new CorrelationData.Confirm(true, null));
+        verify(rabbitTemplate, timeout(1000).times(2)).convertAndSend(eq(EXCHANGE), eq(ROUTING_KEY), any(Object.class), any(MessagePostProcessor.class), any(CorrelationData.class));
+        correlations.getValue().getFuture().complete(new CorrelationData.Confirm(true, null));
+
+        // Assert
+        assertThat(confirmation).succeedsWithin(RETRY_TIMEOUT).matches(CorrelationData.Confirm::isAck);
+        assertThat(registry.get("transactions.notifications.nacked").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void testSendAccountQueueMessage_GivesUpWhenReturned() {
+        // Arrange
+        var correlations = captureCorrelations();
+
+        // Act
+        var confirmation = transactionsNotification.sendAccountQueueMessage(ID, TIMESTAMP, notification());
+        for (var attempt = 1; attempt <= MAX_RETRIES + 1; attempt++) {
+            verify(rabbitTemplate, timeout(1000).times(attempt)).convertAndSend(eq(EXCHANGE), eq(ROUTING_KEY), any(Object.class), any(MessagePostProcessor.class), any(CorrelationData.class));
+            correlations.getValue().setReturned(new ReturnedMessage(new Message(new byte[0]), 312, "NO_ROUTE", EXCHANGE, ROUTING_KEY));
+            correlations.getValue().getFuture().complete(new CorrelationData.Confirm(true, null));
+        }
+
+        // Assert
+        assertThat(confirmation).succeedsWithin(RETRY_TIMEOUT).matches(confirm -> !confirm.isAck() && "NO_ROUTE".equals(confirm.getReason()));
+        assertThat(inFlight()).isZero();
+    }
+
+    @Test
+    void testSendAccountQueueMessage_WindowFull() {
+        // Arrange
+        captureCorrelations();
+        transactionsNotification.sendAccountQueueMessage("1", TIMESTAMP, notification());
+        transactionsNotification.sendAccountQueueMessage("2", TIMESTAMP, notification());
+
+        // Act & Assert
+        assertThrows(AmqpTimeoutException.class, () -> transactionsNotification.sendAccountQueueMessage("3", TIMESTAMP, notification()));
+        assertThat(inFlight()).isEqualTo(MAX_IN_FLIGHT);
+    }
+
+    @Test
+    void testSendAccountQueueMessage_BrokerDown() {
+        // Arrange
+        doThrow(new AmqpConnectException(new RuntimeException("down"))).when(rabbitTemplate)
+                .convertAndSend(eq(EXCHANGE), eq(ROUTING_KEY), any(Object.class), any(MessagePostProcessor.class), any(CorrelationData.class));
+
+        // Act & Assert
+        assertThrows(AmqpConnectException.class, () -> transactionsNotification.sendAccountQueueMessage(ID, TIMESTAMP, notification()));
+        assertThat(inFlight()).isZero();
+    }
+
+    private ArgumentCaptor<CorrelationData> captureCorrelations() {
+        var correlations = ArgumentCaptor.forClass(CorrelationData.class);
+        doNothing().when(rabbitTemplate)
+                .convertAndSend(eq(EXCHANGE), eq(ROUTING_KEY), any(Object.class), any(MessagePostProcessor.class), correlations.capture());
+
+        return correlations;
+    }
+
+    private double inFlight() {
+        return registry.get("transactions.notifications.inflight").gauge().value();
+    }
+
+    private static AccountsNotification notification() {
+        return TransactionsMapper.entityToDto(TransactionsOperation.SAVE, getEntities(1).getFirst());
+    }
+
+    private void assertMessageProperties() {
+        var message = properties.getValue().postProcessMessage(new Message(new byte[0]));
+
+        assertThat(message.getMessageProperties().getMessageId()).isEqualTo(ID);
+        assertThat(message.getMessageProperties().getTimestamp()).isEqualTo(Date.from(TIMESTAMP));
+        assertThat(message.getMessageProperties().<Long>getHeader(AccountsNotificationConverter.COMMITTED_AT)).isEqualTo(TIMESTAMP.toEpochMilli());
     }
 
 }
\ No newline at end of file
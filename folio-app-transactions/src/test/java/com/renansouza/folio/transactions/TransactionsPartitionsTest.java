@@ -0,0 +1,71 @@
+package com.renansouza.folio.transactions;
+
+import java.time.Year;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@Tag("Unit")
+class TransactionsPartitionsTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private TransactionsPartitions partitions;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        partitions = new TransactionsPartitions(jdbcTemplate, true, 1);
+    }
+
+    @Test
+    void maintain() {
+        // Given
+        var year = Year.now().getValue();
+
+        // When
+        partitions.maintain();
+
+        // Then
+        verify(jdbcTemplate, times(2)).execute(anyString());
+        verify(jdbcTemplate).execute("CREATE TABLE IF NOT EXISTS transactions_%d PARTITION OF transactions FOR VALUES FROM ('%d-01-01') TO ('%d-01-01')"
+                .formatted(year, year, year + 1));
+        verify(jdbcTemplate).execute("CREATE TABLE IF NOT EXISTS transactions_%d PARTITION OF transactions FOR VALUES FROM ('%d-01-01') TO ('%d-01-01')"
+                .formatted(year + 1, year + 1, year + 2));
+    }
+
+    @Test
+    void maintainKeepsGoingWhenAPartitionFails() {
+        // Given
+        doThrow(new DataAccessResourceFailureException("default partition holds rows")).when(jdbcTemplate).execute(anyString());
+
+        // Then
+        assertDoesNotThrow(partitions::maintain);
+        verify(jdbcTemplate, times(2)).execute(anyString());
+    }
+
+    @Test
+    void maintainNothingOutsidePostgres() {
+        // Given
+        var disabled = new TransactionsPartitions(jdbcTemplate, false, 1);
+
+        // When
+        disabled.maintain();
+
+        // Then
+        verify(jdbcTemplate, never()).execute(anyString());
+    }
+}
@@ -0,0 +1,191 @@
+package com.renansouza.folio.transactions;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import com.renansouza.folio.transactions.models.TransactionsCursor;
+import com.renansouza.folio.transactions.models.TransactionsFilter;
+import org.flywaydb.core.Flyway;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Explains the SQL Hibernate generates for the listing shapes against a seeded Postgres. The statements are prepared
+ * and explained as a generic plan, the one Postgres switches to once the driver reuses a server side prepared
+ * statement, so the plans hold whatever the values bound.
+ */
+@Tag("Integration")
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class TransactionsRepositoryIT {
+
+    private static final int ROWS = 1_000_000;
+    private static final int DAYS = 9_000;
+    private static final int FIRST_YEAR = 2000;
+    private static final int LAST_YEAR = 2025;
+    private static final int PAGE_SIZE = 20;
+    private static final PageRequest PAGE_REQUEST = PageRequest.of(0, PAGE_SIZE, Sort.by("date", "id"));
+    private static final Pattern PLACEHOLDER = Pattern.compile("\\?");
+
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16.3-alpine");
+
+    @BeforeAll
+    static void beforeAll() {
+        postgres.start();
+        seed();
+    }
+
+    @AfterAll
+    static void afterAll() {
+        postgres.stop();
+    }
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.jpa.properties.hibernate.session_factory.statement_inspector", Statements.class::getName);
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionsRepository repository;
+
+    static Stream<Arguments> listings() {
+        var cursor = new TransactionsCursor(LocalDate.of(2010, 3, 1), 1L);
+
+        return Stream.of(
+                Arguments.of("all",
+                        (Consumer<TransactionsRepository>) repository -> repository.findAllTransactionsMatching(TransactionsFilter.NONE, PAGE_REQUEST),
+                        List.of(0, PAGE_SIZE), "date_id_idx"),
+                Arguments.of("by broker",
+                        (Consumer<TransactionsRepository>) repository -> repository.findAllTransactionsMatching(TransactionsFilter.byBroker("BROKER 7"), PAGE_REQUEST),
+                        List.of("BROKER 7", 0, PAGE_SIZE), "broker_date_id_idx"),
+                Arguments.of("by asset",
+                        (Consumer<TransactionsRepository>) repository -> repository.findAllTransactionsMatching(TransactionsFilter.byAsset("AS0042"), PAGE_REQUEST),
+                        List.of("AS0042", 0, PAGE_SIZE), "asset_date_id_idx"),
+                Arguments.of("by broker after a cursor",
+                        (Consumer<TransactionsRepository>) repository -> repository.findAllTransactionsMatching(TransactionsFilter.byBroker("BROKER 7"), cursor, Sort.Direction.ASC, PAGE_SIZE),
+                        List.of("BROKER 7", cursor.date(), cursor.id(), PAGE_SIZE + 1), "broker_date_id_idx"));
+    }
+
+    @DisplayName("should use the partial indexes of each partition on a seeded table.")
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("listings")
+    void queriesUseIndexScans(String name, Consumer<TransactionsRepository> listing, List<Object> parameters, String index) {
+        var plan = explain(listing, parameters);
+
+        assertThat(plan)
+                .containsPattern("Index Scan using transactions_\\d{4}_" + index)
+                .doesNotContain("Seq Scan");
+    }
+
+    @Test
+    @DisplayName("should only scan the partitions within a date range.")
+    void dateRangePrunesPartitions() {
+        var from = LocalDate.of(2010, 3, 1);
+        var to = LocalDate.of(2010, 3, 31);
+        var filter = TransactionsFilter.of(null, null, null, from, to, null, null, null, null);
+
+        var plan = explain(repository -> repository.findAllTransactionsMatching(filter, PAGE_REQUEST), List.of(from, to, 0, PAGE_SIZE));
+
+        assertThat(plan)
+                .contains("on transactions_2010")
+                .contains("Subplans Removed")
+                .doesNotContain("transactions_2009")
+                .doesNotContain("transactions_2011")
+                .doesNotContain("transactions_default");
+    }
+
+    /**
+     * Runs the listing to capture its SQL, then prepares it and explains its generic plan with the given parameters,
+     * which have to be in the order of the placeholders.
+     */
+    private String explain(Consumer<TransactionsRepository> listing, List<Object> parameters) {
+        Statements.SQL.clear();
+        listing.accept(repository);
+        var sql = Statements.SQL.getFirst();
+
+        var placeholders = new AtomicInteger();
+        var prepared = PLACEHOLDER.matcher(sql).replaceAll(placeholder -> "\\$" + placeholders.incrementAndGet());
+        assertThat(placeholders).as(sql).hasValue(parameters.size());
+
+        jdbcTemplate.execute("SET LOCAL plan_cache_mode = force_generic_plan");
+        jdbcTemplate.execute("PREPARE listing AS " + prepared);
+        try {
+            var values = parameters.stream().map(value -> "'" + value + "'").collect(Collectors.joining(", "));
+            return String.join(System.lineSeparator(), jdbcTemplate.queryForList("EXPLAIN EXECUTE listing(" + values + ")", String.class));
+        } finally {
+            jdbcTemplate.execute("DEALLOCATE listing");
+        }
+    }
+
+    /**
+     * Migrates and seeds the container once for every test, in date order as transactions are usually written.
+     */
+    private static void seed() {
+        var dataSource = new DriverManagerDataSource(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword());
+        Flyway.configure()
+                .dataSource(dataSource)
+                .locations("classpath:db/migration/common", "classpath:db/migration/postgresql")
+                .load()
+                .migrate();
+
+        var jdbcTemplate = new JdbcTemplate(dataSource);
+        var partitions = new TransactionsPartitions(jdbcTemplate, true, 0);
+        IntStream.rangeClosed(FIRST_YEAR, LAST_YEAR).forEach(partitions::create);
+
+        jdbcTemplate.update("""
+                INSERT INTO transactions (id, date, type, asset, price, quantity, fee, broker, deleted)
+                SELECT g, DATE '2000-01-01' + (g::bigint * ? / ?)::integer, g % 2, 'AS' || LPAD((g % 500)::text, 4, '0'),
+                       10, 1, 0, 'BROKER ' || (g % 50), g % 10 = 0
+                FROM generate_series(1, ?) g
+                """, DAYS, ROWS, ROWS);
+        jdbcTemplate.execute("ANALYZE transactions");
+    }
+
+    /**
+     * Keeps the SQL Hibernate sends, so the tests explain the statements the listing actually runs.
+     */
+    public static class Statements implements StatementInspector {
+
+        static final List<String> SQL = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            SQL.add(sql);
+            return sql;
+        }
+
+    }
+
+}
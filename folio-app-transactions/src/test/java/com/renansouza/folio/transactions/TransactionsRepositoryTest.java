@@ -2,6 +2,12 @@ package com.renansouza.folio.transactions;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.ArrayList;
+
+import com.renansouza.folio.transactions.models.TransactionType;
+import com.renansouza.folio.transactions.models.TransactionsCursor;
+import com.renansouza.folio.transactions.models.TransactionsFilter;
+import com.renansouza.folio.transactions.models.TransactionsResponse;
 
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Tag;
@@ -9,8 +15,10 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
-import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
@@ -49,42 +57,162 @@ class TransactionsRepositoryTest {
     }
 
     @Test
-    void list() {
-        repository.saveAll(getEntities(2));
+    void listBetween() {
+        var entities = getEntities(3);
+        entities.get(0).setDate(LocalDate.of(2024, 1, 15));
+        entities.get(1).setDate(LocalDate.of(2024, 2, 1));
+        entities.get(2).setDate(LocalDate.of(2024, 3, 1));
+        repository.saveAll(entities);
 
-        assertThat(repository.findAllTransactions(Pageable.unpaged())).hasSize(2);
+        var filter = TransactionsFilter.of(null, null, null, LocalDate.of(2024, 1, 1), LocalDate.of(2024, 2, 1), null, null, null, null);
+        var january = repository.findAllTransactionsMatching(filter, Pageable.unpaged());
+
+        assertThat(january.getContent())
+                .extracting(TransactionsResponse::date)
+                .containsExactlyInAnyOrder(LocalDate.of(2024, 1, 15), LocalDate.of(2024, 2, 1));
     }
 
     @Test
-    void listAllByBroker() {
+    void listAllByBrokerBetween() {
         var entities = getEntities(3);
+        entities.forEach(entity -> entity.setBroker("BROKER A"));
+        entities.get(0).setDate(LocalDate.of(2023, 12, 31));
+        entities.get(1).setDate(LocalDate.of(2024, 1, 1));
+        entities.get(2).setDate(LocalDate.of(2024, 12, 31));
+        repository.saveAll(entities);
+
+        var filter = TransactionsFilter.of("BROKER A", null, null, LocalDate.of(2024, 1, 1), LocalDate.of(2024, 12, 31), null, null, null, null);
+        var year = repository.findAllTransactionsMatching(filter, Pageable.unpaged());
+
+        assertThat(year).hasSize(2);
+    }
+
+    @Test
+    void listMatchingEveryFilter() {
+        var entities = getEntities(4);
+        entities.forEach(entity -> {
+            entity.setBroker("BROKER A");
+            entity.setAsset("ASSE1");
+            entity.setType(TransactionType.BUY);
+        });
+        entities.get(1).setType(TransactionType.SELL);
+        entities.get(2).setPrice(BigDecimal.TEN);
+        entities.get(3).setBroker("BROKER B");
+        repository.saveAll(entities);
+
+        var filter = TransactionsFilter.of("BROKER A", "ASSE1", TransactionType.BUY, null, LocalDate.now(),
+                BigDecimal.ZERO, BigDecimal.ONE, 1, 1);
+        var matching = repository.findAllTransactionsMatching(filter, Pageable.unpaged());
+
+        assertThat(matching.getContent())
+                .singleElement()
+                .extracting(TransactionsResponse::id)
+                .isEqualTo(entities.getFirst().getId());
+    }
+
+    @Test
+    void listMatchingPagesAndSorts() {
+        var entities = repository.saveAll(getEntities(5));
+        var page = PageRequest.of(1, 2, Sort.by(Sort.Direction.DESC, "id"));
+
+        var matching = repository.findAllTransactionsMatching(TransactionsFilter.NONE, page);
+
+        assertThat(matching.getTotalElements()).isEqualTo(entities.size());
+        assertThat(matching.getContent())
+                .extracting(TransactionsResponse::id)
+                .containsExactly(entities.get(2).getId(), entities.get(1).getId());
+    }
+
+    @Test
+    void listAfter() {
+        var entities = repository.saveAll(getEntities(5));
+        var cursor = TransactionsCursor.first(Sort.Direction.ASC);
+        var ids = new ArrayList<Long>();
+        Slice<TransactionsResponse> slice;
+        do {
+            slice = repository.findAllTransactionsMatching(TransactionsFilter.NONE, cursor, Sort.Direction.ASC, 2);
+            slice.forEach(transaction -> ids.add(transaction.id()));
+            if (slice.hasContent()) cursor = TransactionsCursor.of(slice.getContent().getLast());
+        } while (slice.hasNext());
+
+        assertThat(ids)
+                .hasSize(entities.size())
+                .isSorted()
+                .doesNotHaveDuplicates();
+    }
+
+    @Test
+    void listAllByBrokerBefore() {
+        var entities = getEntities(5);
         repository.saveAll(entities);
 
         var broker = entities.getFirst().getBroker();
         var filteredEntities = entities.stream().filter(entity -> broker.equals(entity.getBroker())).toList();
+        var cursor = TransactionsCursor.first(Sort.Direction.DESC);
 
-        var allByBroker = repository.findAllTransactionsByBroker(broker, Pageable.unpaged());
+        var allByBroker = repository.findAllTransactionsMatching(TransactionsFilter.byBroker(broker), cursor, Sort.Direction.DESC, 10);
 
-        assertThat(allByBroker)
-                .isNotEmpty()
-                .isInstanceOf(Page.class)
-                .hasSize(filteredEntities.size());
+        assertThat(allByBroker.getContent())
+                .hasSize(filteredEntities.size())
+                .extracting(TransactionsResponse::id)
+                .isSortedAccordingTo((a, b) -> Long.compare(b, a));
+        assertThat(allByBroker.hasNext()).isFalse();
     }
 
     @Test
-    void listAllByAsset() {
-        var entities = getEntities(3);
+    void listAfterMatchingEveryFilter() {
+        var entities = getEntities(6);
+        entities.forEach(entity -> {
+            entity.setBroker("BROKER A");
+            entity.setAsset("ASSE1");
+            entity.setDate(LocalDate.of(2024, 3, 1));
+        });
+        entities.get(0).setDate(LocalDate.of(2023, 12, 31));
+        entities.get(1).setAsset("ASSE11");
+        entities.get(2).setBroker("BROKER B");
+        repository.saveAll(entities);
+        var filter = TransactionsFilter.of("BROKER A", "ASSE1", null, LocalDate.of(2024, 1, 1), null, null, null, null, null);
+
+        var first = repository.findAllTransactionsMatching(filter, TransactionsCursor.first(Sort.Direction.ASC), Sort.Direction.ASC, 2);
+        var second = repository.findAllTransactionsMatching(filter, TransactionsCursor.of(first.getContent().getLast()), Sort.Direction.ASC, 2);
+
+        assertThat(first.hasNext()).isTrue();
+        assertThat(second.hasNext()).isFalse();
+        assertThat(first.getContent()).extracting(TransactionsResponse::id)
+                .containsExactly(entities.get(3).getId(), entities.get(4).getId());
+        assertThat(second.getContent()).extracting(TransactionsResponse::id)
+                .containsExactly(entities.get(5).getId());
+    }
+
+    @Test
+    void streamAllByAsset() {
+        var entities = getEntities(5);
         repository.saveAll(entities);
 
         var asset = entities.getFirst().getAsset();
         var filteredEntities = entities.stream().filter(entity -> asset.equals(entity.getAsset())).toList();
 
-        var allByAsset = repository.findAllTransactionsByAsset(asset, Pageable.unpaged());
+        try (var allByAsset = repository.streamAllTransactionsMatching(TransactionsFilter.byAsset(asset))) {
+            assertThat(allByAsset.map(TransactionsResponse::id).toList())
+                    .hasSize(filteredEntities.size())
+                    .isSorted();
+        }
+    }
+
+    @Test
+    void streamAllByBrokerAndAsset() {
+        var entities = getEntities(3);
+        entities.forEach(entity -> entity.setAsset("ASSE1"));
+        entities.get(0).setBroker("BROKER A");
+        entities.get(1).setBroker("BROKER A");
+        entities.get(2).setBroker("BROKER B");
+        entities.get(1).setAsset("ASSE11");
+        repository.saveAll(entities);
 
-        assertThat(allByAsset)
-                .isNotEmpty()
-                .isInstanceOf(Page.class)
-                .hasSize(filteredEntities.size());
+        try (var allByBrokerAndAsset = repository.streamAllTransactionsMatching(TransactionsFilter.of("BROKER A", "ASSE1"))) {
+            assertThat(allByBrokerAndAsset.map(TransactionsResponse::id).toList())
+                    .containsExactly(entities.get(0).getId());
+        }
     }
 
     @Test
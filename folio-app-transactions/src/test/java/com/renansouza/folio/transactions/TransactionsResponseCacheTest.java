@@ -0,0 +1,113 @@
+package com.renansouza.folio.transactions;
+
+import java.io.ByteArrayInputStream;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.renansouza.folio.transactions.models.TransactionsCacheKey;
+import com.renansouza.folio.transactions.models.TransactionsEncodedPage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+
+import static com.renansouza.folio.transactions.TransactionsUtils.getResponses;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Tag("Unit")
+class TransactionsResponseCacheTest {
+
+    private static final int GZIP_MIN_SIZE = 1024;
+
+    private final ObjectMapper mapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    private TransactionsResponseCache responses;
+
+    @BeforeEach
+    void setUp() {
+        responses = new TransactionsResponseCache(new CaffeineCacheManager(TransactionsResponseCache.NAME), mapper, GZIP_MIN_SIZE);
+    }
+
+    @Test
+    void encodeEmptyPage() {
+        assertThat(responses.encode(Page.empty())).isSameAs(TransactionsEncodedPage.EMPTY);
+        assertThat(responses.encode(null)).isSameAs(TransactionsEncodedPage.EMPTY);
+    }
+
+    @Test
+    void encodeSmallPageWithoutGzip() throws Exception {
+        // When
+        var encoded = responses.encode(new PageImpl<>(getResponses(1)));
+
+        // Then
+        assertThat(encoded.json().length).isLessThan(GZIP_MIN_SIZE);
+        assertThat(encoded.isCompressed()).isFalse();
+        assertThat(encoded.weight()).isEqualTo(encoded.json().length);
+        assertThat(mapper.readTree(encoded.json()).path("content")).hasSize(1);
+    }
+
+    @Test
+    void encodeLargePageWithGzip() throws Exception {
+        // When
+        var encoded = responses.encode(new PageImpl<>(getResponses(50)));
+
+        // Then
+        assertThat(encoded.isCompressed()).isTrue();
+        assertThat(encoded.gzip().length).isLessThan(encoded.json().length);
+        assertThat(encoded.weight()).isEqualTo(encoded.json().length + encoded.gzip().length);
+        try (var gzip = new GZIPInputStream(new ByteArrayInputStream(encoded.gzip()))) {
+            assertThat(gzip.readAllBytes()).isEqualTo(encoded.json());
+        }
+    }
+
+    @Test
+    void getLoadsOnlyOnMiss() {
+        // Given
+        var key = new TransactionsCacheKey("BROKER A", null, 0, "page");
+        var loads = new AtomicInteger();
+        var page = new PageImpl<>(getResponses(3));
+
+        // When
+        var first = responses.get(key, () -> {
+            loads.incrementAndGet();
+            return page;
+        });
+        var second = responses.get(key, () -> {
+            loads.incrementAndGet();
+            return page;
+        });
+
+        // Then
+        assertThat(loads).hasValue(1);
+        assertThat(second).isSameAs(first);
+    }
+
+    @Test
+    void getMissesAPageLoadedBeforeAWriteCommitted() {
+        // Given
+        var versions = new TransactionsVersions();
+        var loads = new AtomicInteger();
+        var stale = new TransactionsCacheKey("BROKER A", null, versions.version("BROKER A", null), "page");
+
+        // When
+        responses.get(stale, () -> {
+            loads.incrementAndGet();
+            versions.increment("BROKER A", "ASSE1");
+            return new PageImpl<>(getResponses(3));
+        });
+        var fresh = new TransactionsCacheKey("BROKER A", null, versions.version("BROKER A", null), "page");
+        responses.get(fresh, () -> {
+            loads.incrementAndGet();
+            return new PageImpl<>(getResponses(3));
+        });
+
+        // Then
+        assertThat(fresh).isNotEqualTo(stale);
+        assertThat(loads).hasValue(2);
+    }
+
+}
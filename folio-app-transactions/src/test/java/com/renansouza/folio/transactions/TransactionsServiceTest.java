@@ -1,20 +1,37 @@
 package com.renansouza.folio.transactions;
 
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 
+import com.renansouza.folio.transactions.exceptions.IdempotencyKeyConflictException;
 import com.renansouza.folio.transactions.exceptions.TransactionNotFoundException;
-import com.renansouza.folio.transactions.models.AccountsNotification;
+import com.renansouza.folio.transactions.models.IdempotencyKeyEntity;
+import com.renansouza.folio.transactions.models.OutboxEntity;
+import com.renansouza.folio.transactions.models.TransactionType;
+import com.renansouza.folio.transactions.models.TransactionsCursor;
+import com.renansouza.folio.transactions.models.TransactionsCursorPage;
 import com.renansouza.folio.transactions.models.TransactionsEntity;
+import com.renansouza.folio.transactions.models.TransactionsFilter;
 import com.renansouza.folio.transactions.models.TransactionsMapper;
+import com.renansouza.folio.transactions.models.TransactionsOperation;
+import com.renansouza.folio.transactions.models.TransactionsRequest;
 import com.renansouza.folio.transactions.models.TransactionsResponse;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.verification.VerificationMode;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
 import org.springframework.test.context.TestPropertySource;
 
 import static com.renansouza.folio.transactions.TransactionsUtils.getEntities;
@@ -23,7 +40,10 @@ import static com.renansouza.folio.transactions.TransactionsUtils.getResponses;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -43,55 +63,164 @@ class TransactionsServiceTest {
     private static final VerificationMode ONCE = times(1);
 
     @Mock
-    private TransactionsNotification notification;
+    private OutboxRepository outbox;
 
     @Mock
     private TransactionsRepository repository;
 
+    @Mock
+    private TransactionsVersions versions;
+
+    @Mock
+    private PositionsService positions;
+
+    @Mock
+    private IdempotencyKeys idempotencyKeys;
+
     @InjectMocks
     private TransactionsService service;
 
+    @Autowired
+    private TransactionsService timedService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void testServiceCallsAreTimed() {
+        // Act
+        timedService.find(TransactionsFilter.NONE, PAGE_REQUEST);
+
+        // Assert
+        var timer = meterRegistry.get(TransactionsService.TIMER).tag("method", "find").timer();
+        assertThat(timer.count()).isPositive();
+        assertThat(meterRegistry.get("spring.data.repository.invocations").tag("method", "findAllTransactionsMatching").timer().count()).isPositive();
+    }
+
     @Test
     void testFindAllTransactionsByBroker() {
         // Arrange
         var broker = "BROKER A";
+        var filter = TransactionsFilter.byBroker(broker);
         var responses = getResponses(LIST_SIZE).stream().filter(t -> t.broker().equals(broker)).toList();
-        when(repository.findAllTransactionsByBroker(broker, PAGE_REQUEST)).thenReturn(new PageImpl<>(responses));
+        when(repository.findAllTransactionsMatching(filter, PAGE_REQUEST)).thenReturn(new PageImpl<>(responses));
 
         // Act
-        Page<TransactionsResponse> result = service.find(broker, null, PAGE_REQUEST);
+        Page<TransactionsResponse> result = service.find(filter, PAGE_REQUEST);
 
         // Assert
         assertThat(result).isNotEmpty().hasSize(responses.size());
-        verify(repository).findAllTransactionsByBroker(broker, PAGE_REQUEST);
+        verify(repository).findAllTransactionsMatching(filter, PAGE_REQUEST);
     }
 
     @Test
     void testFindAllTransactionsByAsset() {
         // Arrange
         var asset = "ASSE1";
+        var filter = TransactionsFilter.byAsset(asset);
         var responses = getResponses(LIST_SIZE).stream().filter(t -> t.asset().equals(asset)).toList();
-        when(repository.findAllTransactionsByAsset(asset, PAGE_REQUEST)).thenReturn(new PageImpl<>(responses));
+        when(repository.findAllTransactionsMatching(filter, PAGE_REQUEST)).thenReturn(new PageImpl<>(responses));
 
         // Act
-        Page<TransactionsResponse> result = service.find(null, asset, PAGE_REQUEST);
+        Page<TransactionsResponse> result = service.find(filter, PAGE_REQUEST);
 
         // Assert
         assertThat(result).isNotEmpty().hasSize(responses.size());
-        verify(repository).findAllTransactionsByAsset(asset, PAGE_REQUEST);
+        verify(repository).findAllTransactionsMatching(filter, PAGE_REQUEST);
     }
 
     @Test
     void testFindAllTransactions() {
         // Arrange
-        when(repository.findAllTransactions(PAGE_REQUEST)).thenReturn(new PageImpl<>(getResponses(LIST_SIZE)));
+        when(repository.findAllTransactionsMatching(TransactionsFilter.NONE, PAGE_REQUEST)).thenReturn(new PageImpl<>(getResponses(LIST_SIZE)));
 
         // Act
-        Page<TransactionsResponse> result = service.find(null, null, PAGE_REQUEST);
+        Page<TransactionsResponse> result = service.find(TransactionsFilter.NONE, PAGE_REQUEST);
 
         // Assert
         assertThat(result).isNotEmpty().hasSize(LIST_SIZE);
-        verify(repository, ONCE).findAllTransactions(PAGE_REQUEST);
+        verify(repository, ONCE).findAllTransactionsMatching(TransactionsFilter.NONE, PAGE_REQUEST);
+    }
+
+    @Test
+    void testFindAllTransactionsCombiningFilters() {
+        // Arrange
+        var filter = TransactionsFilter.of("BROKER A", "ASSE1", TransactionType.BUY, LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 31),
+                BigDecimal.ONE, BigDecimal.TEN, 1, 100);
+        when(repository.findAllTransactionsMatching(filter, PAGE_REQUEST)).thenReturn(new PageImpl<>(getResponses(1)));
+
+        // Act
+        Page<TransactionsResponse> result = service.find(filter, PAGE_REQUEST);
+
+        // Assert
+        assertThat(result).hasSize(1);
+        verify(repository, ONCE).findAllTransactionsMatching(filter, PAGE_REQUEST);
+    }
+
+    @Test
+    void testFindAllTransactionsAfter() {
+        // Arrange
+        var responses = getResponses(LIST_SIZE);
+        var first = TransactionsCursor.first(Sort.Direction.ASC);
+        var page = PageRequest.of(0, LIST_SIZE, Sort.by(Sort.Direction.ASC, "date", "id"));
+        when(repository.findAllTransactionsMatching(TransactionsFilter.NONE, first, Sort.Direction.ASC, LIST_SIZE)).thenReturn(new SliceImpl<>(responses, page, true));
+
+        // Act
+        TransactionsCursorPage result = service.findAfter(TransactionsFilter.NONE, "", LIST_SIZE, Sort.Direction.ASC);
+
+        // Assert
+        assertThat(result.content()).hasSize(LIST_SIZE);
+        assertThat(TransactionsCursor.decode(result.page().next())).isEqualTo(TransactionsCursor.of(responses.getLast()));
+        verify(repository, ONCE).findAllTransactionsMatching(TransactionsFilter.NONE, first, Sort.Direction.ASC, LIST_SIZE);
+    }
+
+    @Test
+    void testFindAllTransactionsByBrokerBefore() {
+        // Arrange
+        var filter = TransactionsFilter.byBroker("BROKER A");
+        var cursor = new TransactionsCursor(LocalDate.now(), 10L);
+        var page = PageRequest.of(0, LIST_SIZE, Sort.by(Sort.Direction.DESC, "date", "id"));
+        when(repository.findAllTransactionsMatching(filter, cursor, Sort.Direction.DESC, LIST_SIZE)).thenReturn(new SliceImpl<>(List.of(), page, false));
+
+        // Act
+        TransactionsCursorPage result = service.findAfter(filter, cursor.encode(), LIST_SIZE, Sort.Direction.DESC);
+
+        // Assert
+        assertThat(result.content()).isEmpty();
+        assertThat(result.page().next()).isNull();
+        verify(repository, ONCE).findAllTransactionsMatching(filter, cursor, Sort.Direction.DESC, LIST_SIZE);
+    }
+
+    @Test
+    void testExportAllTransactionsByBroker() {
+        // Arrange
+        var broker = "BROKER A";
+        var responses = getResponses(LIST_SIZE);
+        var exported = new ArrayList<TransactionsResponse>();
+        when(repository.streamAllTransactionsMatching(TransactionsFilter.byBroker(broker))).thenReturn(responses.stream());
+
+        // Act
+        service.export(broker, null, exported::add);
+
+        // Assert
+        assertThat(exported).isEqualTo(responses);
+        verify(repository, ONCE).streamAllTransactionsMatching(TransactionsFilter.byBroker(broker));
+    }
+
+    @Test
+    void testExportAllTransactionsByBrokerAndAsset() {
+        // Arrange
+        var filter = TransactionsFilter.of("BROKER A", "ASSE1");
+        var responses = getResponses(LIST_SIZE);
+        var exported = new ArrayList<TransactionsResponse>();
+        when(repository.streamAllTransactionsMatching(filter)).thenReturn(responses.stream());
+
+        // Act
+        service.export(filter.broker(), filter.asset(), exported::add);
+
+        // Assert
+        assertThat(exported).isEqualTo(responses);
+        verify(repository, ONCE).streamAllTransactionsMatching(filter);
     }
 
     @Test
@@ -108,8 +237,75 @@ class TransactionsServiceTest {
 
         // Assert
         verify(repository, ONCE).save(any(TransactionsEntity.class));
-        verify(notification, ONCE).sendAccountQueueMessage(any(AccountsNotification.class));
+        verify(versions, ONCE).increment(entity.getBroker(), entity.getAsset());
+        verify(positions, ONCE).apply(TransactionsOperation.SAVE, List.of(entity));
+        verify(outbox, ONCE).save(any(OutboxEntity.class));
+
+    }
+
+    @Test
+    void testSaveTransactionWithNewIdempotencyKey() {
+        // Arrange
+        var request = getRequests(1).getFirst();
+        var entity = TransactionsMapper.dtoToEntity(request);
+        entity.setId(1L);
+
+        when(idempotencyKeys.find("key")).thenReturn(Optional.empty());
+        when(repository.save(any(TransactionsEntity.class))).thenReturn(entity);
+
+        // Act
+        var response = service.save(request, "key");
+
+        // Assert
+        assertThat(response.id()).isEqualTo(1L);
+        verify(repository, ONCE).save(any(TransactionsEntity.class));
+        verify(idempotencyKeys, ONCE).save("key", IdempotencyKeys.fingerprint(request), 1L);
+    }
+
+    @Test
+    void testSaveTransactionWithRepeatedIdempotencyKey() {
+        // Arrange
+        var request = getRequests(1).getFirst();
+        var previous = new IdempotencyKeyEntity("key", IdempotencyKeys.fingerprint(request), 7L, Instant.now());
+        when(idempotencyKeys.find("key")).thenReturn(Optional.of(previous));
+
+        // Act
+        var response = service.save(request, "key");
+
+        // Assert
+        assertThat(response).isEqualTo(TransactionsMapper.dtoToResponse(7L, request));
+        verify(repository, never()).save(any(TransactionsEntity.class));
+        verify(outbox, never()).save(any(OutboxEntity.class));
+    }
 
+    @Test
+    void testSaveTransactionWithIdempotencyKeyOfAnotherRequest() {
+        // Arrange
+        var request = getRequests(1).getFirst();
+        var previous = new IdempotencyKeyEntity("key", "another fingerprint", 7L, Instant.now());
+        when(idempotencyKeys.find("key")).thenReturn(Optional.of(previous));
+
+        // Act & Assert
+        assertThrows(IdempotencyKeyConflictException.class, () -> service.save(request, "key"));
+        verify(repository, never()).save(any(TransactionsEntity.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testSaveAllTransactions() {
+        // Arrange
+        var requests = getRequests(LIST_SIZE);
+        var brokers = requests.stream().map(TransactionsRequest::broker).distinct().count();
+        when(repository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        service.saveAll(requests);
+
+        // Assert
+        verify(repository, ONCE).saveAll(anyList());
+        verify(versions, ONCE).increment(anyList());
+        verify(positions, ONCE).apply(eq(TransactionsOperation.SAVE), anyList());
+        verify(outbox, ONCE).saveAll(argThat(messages -> ((List<OutboxEntity>) messages).size() == brokers));
     }
 
     @Test
@@ -123,7 +319,9 @@ class TransactionsServiceTest {
 
         verify(repository, ONCE).findById(entity.getId());
         verify(repository, ONCE).delete(any(TransactionsEntity.class));
-        verify(notification, ONCE).sendAccountQueueMessage(any(AccountsNotification.class));
+        verify(versions, ONCE).increment(entity.getBroker(), entity.getAsset());
+        verify(positions, ONCE).apply(TransactionsOperation.DELETE, List.of(entity));
+        verify(outbox, ONCE).save(any(OutboxEntity.class));
     }
 
     @Test
@@ -135,7 +333,8 @@ class TransactionsServiceTest {
         assertThrows(TransactionNotFoundException.class, () -> service.delete(1L));
         verify(repository, ONCE).findById(anyLong());
         verify(repository, never()).delete(any(TransactionsEntity.class));
-        verify(notification, never()).sendAccountQueueMessage(any(AccountsNotification.class));
+        verify(positions, never()).apply(any(), anyList());
+        verify(outbox, never()).save(any(OutboxEntity.class));
     }
   
 }
\ No newline at end of file
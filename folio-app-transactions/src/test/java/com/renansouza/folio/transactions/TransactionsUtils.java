@@ -4,6 +4,7 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
 
+import com.renansouza.folio.transactions.models.Money;
 import com.renansouza.folio.transactions.models.TransactionType;
 import com.renansouza.folio.transactions.models.TransactionsEntity;
 import com.renansouza.folio.transactions.models.TransactionsOperation;
@@ -53,12 +54,12 @@ class TransactionsUtils {
         return "{ \"type\": \"BUY\", \"asset\": \"ASSE11\", \"price\": 1139.74, \"quantity\": 4544, \"fee\": 9327.76, \"broker\": \"BROKER C\" }";
     }
 
-    static BigDecimal getAmount(TransactionsEntity entity, TransactionsOperation operation) {
+    static Money getAmount(TransactionsEntity entity, TransactionsOperation operation) {
         var total = entity.getPrice().multiply(BigDecimal.valueOf(entity.getQuantity()));
         var totalWithFee = TransactionType.BUY.equals(entity.getType()) ? total.add(entity.getFee()) : total.subtract(entity.getFee());
-        return shouldNegateTotal(entity.getType(), operation)
+        return Money.of(shouldNegateTotal(entity.getType(), operation)
                 ? totalWithFee.multiply(BigDecimal.valueOf(-1))
-                : totalWithFee;
+                : totalWithFee);
     }
 
     private static boolean shouldNegateTotal(TransactionType type, TransactionsOperation operation) {
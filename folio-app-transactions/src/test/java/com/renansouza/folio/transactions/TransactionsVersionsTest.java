@@ -0,0 +1,85 @@
+package com.renansouza.folio.transactions;
+
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static com.renansouza.folio.transactions.TransactionsUtils.getEntities;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Tag("Unit")
+class TransactionsVersionsTest {
+
+    private TransactionsVersions versions;
+
+    @BeforeEach
+    void setUp() {
+        versions = new TransactionsVersions();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    @Test
+    void incrementOnlyAffectedVersions() {
+        // Given
+        var unfiltered = versions.etag(null, null);
+        var sameBroker = versions.etag("BROKER A", null);
+        var sameAsset = versions.etag(null, "ASSE1");
+        var otherBroker = versions.etag("BROKER B", null);
+        var otherAsset = versions.etag(null, "ASSE11");
+
+        // When
+        versions.increment("BROKER A", "ASSE1");
+
+        // Then
+        assertThat(versions.etag(null, null)).isNotEqualTo(unfiltered);
+        assertThat(versions.etag("BROKER A", null)).isNotEqualTo(sameBroker);
+        assertThat(versions.etag("BROKER A", "ASSE11")).isNotEqualTo(sameBroker);
+        assertThat(versions.etag(null, "ASSE1")).isNotEqualTo(sameAsset);
+        assertThat(versions.etag("BROKER B", null)).isEqualTo(otherBroker);
+        assertThat(versions.etag(null, "ASSE11")).isEqualTo(otherAsset);
+    }
+
+    @Test
+    void incrementAfterCommit() {
+        // Given
+        TransactionSynchronizationManager.initSynchronization();
+        var transaction = getEntities(1).getFirst();
+        var before = versions.etag(transaction.getBroker(), null);
+
+        // When
+        versions.increment(List.of(transaction));
+
+        // Then
+        assertThat(versions.etag(transaction.getBroker(), null)).isEqualTo(before);
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertThat(versions.etag(transaction.getBroker(), null)).isNotEqualTo(before);
+    }
+
+    @Test
+    void versionOfTheFilteredScope() {
+        // Given
+        versions.increment("BROKER A", "ASSE1");
+        versions.increment("BROKER A", "ASSE11");
+
+        // Then
+        assertThat(versions.version("BROKER A", "ASSE1")).isEqualTo(2);
+        assertThat(versions.version(null, "ASSE1")).isEqualTo(1);
+        assertThat(versions.version(null, null)).isEqualTo(2);
+        assertThat(versions.version("BROKER B", null)).isZero();
+        assertThat(versions.etag("BROKER A", null)).isEqualTo(versions.etag("BROKER A", null, 2));
+    }
+
+    @Test
+    void weakETag() {
+        assertThat(versions.etag(null, null)).startsWith("W/\"").endsWith("\"");
+    }
+}